@@ -0,0 +1,41 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.model.Deck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffling and dealing a hand: two hole cards per seat plus the board.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class DeckBenchmark {
+
+    @Param({"2", "4", "6"})
+    private int seats;
+
+    private final Deck deck = new Deck();
+
+    @Benchmark
+    public Deck newDeck() {
+        return new Deck();
+    }
+
+    @Benchmark
+    public int resetAndDeal() {
+        deck.reset();
+        int last = 0;
+        for (int i = 0; i < 2 * seats + 5; i++) {
+            last = deck.drawIndex();
+        }
+        return last;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.model.CardMask;
+import com.example.backend.model.EquityResult;
+import com.example.backend.service.EquityCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Equity throughput in evaluated run-outs per second on one core
+ * (the calculator's pool is pinned to a single worker).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class EquityCalculatorBenchmark {
+    private static final int SAMPLES = 100_000;
+    // Heads-up turn: 46 river cards x C(45, 2) opponent hands
+    private static final int TURN_RUN_OUTS = 46 * 990;
+    private static final long BUDGET_MS = 60_000;
+
+    private EquityCalculator sampling;
+    private EquityCalculator enumerating;
+    private long aceKingSuited;
+    private long turnBoard;
+
+    @Setup
+    public void setUp() {
+        sampling = new EquityCalculator(1, 0);
+        enumerating = new EquityCalculator(1, Long.MAX_VALUE);
+        aceKingSuited = CardMask.bit(12) | CardMask.bit(11);
+        turnBoard = CardMask.bit(0) | CardMask.bit(5) | CardMask.bit(13 + 7) | CardMask.bit(26 + 9);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sampling.shutdown();
+        enumerating.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public EquityResult monteCarloPreFlopHeadsUp() {
+        return sampling.calculate(aceKingSuited, CardMask.EMPTY, 1, SAMPLES, BUDGET_MS, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public EquityResult monteCarloPreFlopFiveOpponents() {
+        return sampling.calculate(aceKingSuited, CardMask.EMPTY, 5, SAMPLES, BUDGET_MS, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TURN_RUN_OUTS)
+    public EquityResult exhaustiveTurnHeadsUp() {
+        return enumerating.calculate(aceKingSuited, turnBoard, 1, SAMPLES, BUDGET_MS, 42L);
+    }
+}
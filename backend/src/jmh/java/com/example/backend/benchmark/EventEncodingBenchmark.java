@@ -0,0 +1,77 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.config.MongoConfig;
+import com.example.backend.entity.Game;
+import com.example.backend.entity.GameEvent;
+import com.example.backend.event.PlayerActionEvent;
+import com.example.backend.model.Player;
+import com.example.backend.service.GameEventEncoder;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping one player action to its {@code game_events} document: the full snapshot
+ * record against the compact delta record.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class EventEncodingBenchmark {
+
+    @Param({"2", "6"})
+    private int seats;
+
+    private MappingMongoConverter converter;
+    private PlayerActionEvent event;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Game game = TableFixtures.flopWithSidePots(seats);
+        Player actor = game.getPlayers().get(seats - 1);
+        event = new PlayerActionEvent(game.getId(), actor, PlayerActionEvent.ActionType.BET, 0.0, new Game(game));
+    }
+
+    @Benchmark
+    public Document snapshot() {
+        GameEvent record = new GameEvent();
+        record.setGameId(event.getGameId());
+        record.setTimestamp(event.getTimestamp());
+        record.setEventType("PlayerActionEvent");
+        record.setEventData(event);
+        Document document = new Document();
+        converter.write(record, document);
+        return document;
+    }
+
+    @Benchmark
+    public Document delta() {
+        GameEvent record = new GameEvent();
+        record.setGameId(event.getGameId());
+        record.setTimestamp(event.getTimestamp());
+        record.setEventType("PlayerActionEvent");
+        record.setDelta(GameEventEncoder.deltaOf(event));
+        Document document = new Document();
+        converter.write(record, document);
+        return document;
+    }
+}
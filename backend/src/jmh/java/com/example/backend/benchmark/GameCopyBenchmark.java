@@ -0,0 +1,37 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.entity.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link Game#Game(Game)} copy taken for every published game update.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class GameCopyBenchmark {
+
+    @Param({"2", "4", "6"})
+    private int seats;
+
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = TableFixtures.flopWithSidePots(seats);
+    }
+
+    @Benchmark
+    public Game copy() {
+        return new Game(game);
+    }
+}
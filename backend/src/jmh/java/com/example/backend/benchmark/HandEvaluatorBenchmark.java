@@ -0,0 +1,55 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.model.Card;
+import com.example.backend.service.HandEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seven-card scoring, on masks and through the card-list API used by showdown.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class HandEvaluatorBenchmark {
+    private static final int HANDS = 1024;
+
+    private final HandEvaluator handEvaluator = new HandEvaluator();
+    private long[] masks;
+    private List<List<Card>>[] cardLists;
+
+    @Setup
+    public void setUp() {
+        masks = TableFixtures.sevenCardHands(HANDS, 42L);
+        cardLists = TableFixtures.asCardLists(masks);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int evaluateMask() {
+        int sum = 0;
+        for (long mask : masks) {
+            sum += HandEvaluator.evaluate(mask);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int evaluateCardLists() {
+        int sum = 0;
+        for (List<List<Card>> hand : cardLists) {
+            sum += handEvaluator.evaluateStrength(hand.get(0), hand.get(1));
+        }
+        return sum;
+    }
+}
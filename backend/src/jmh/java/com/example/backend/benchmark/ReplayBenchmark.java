@@ -0,0 +1,64 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.entity.Game;
+import com.example.backend.entity.GameEvent;
+import com.example.backend.service.GameReplayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folding a table's journal back into a game, from the first event against from the
+ * snapshot taken at the end of the previous hand. The first grows with the table's age;
+ * the second should stay flat.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int hands;
+
+    private List<GameEvent> journal;
+    private Game snapshot;
+    private List<GameEvent> tail;
+
+    @Setup
+    public void setUp() {
+        journal = TableFixtures.journal(hands);
+        int lastHandEnd = journal.size() - 1;
+        int snapshotAt = lastHandEnd - 1;
+        while (!"GameEndedEvent".equals(journal.get(snapshotAt).getEventType())) {
+            snapshotAt--;
+        }
+        snapshot = fold(null, journal.subList(0, snapshotAt + 1));
+        tail = journal.subList(snapshotAt + 1, journal.size());
+    }
+
+    @Benchmark
+    public Game fromStart() {
+        return fold(null, journal);
+    }
+
+    @Benchmark
+    public Game fromSnapshot() {
+        // A snapshot read back from Mongo is a fresh game each time
+        return fold(new Game(snapshot), tail);
+    }
+
+    private static Game fold(Game game, List<GameEvent> records) {
+        for (GameEvent record : records) {
+            game = GameReplayService.applyDelta(game, record);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.entity.Game;
+import com.example.backend.entity.GameEvent;
+import com.example.backend.event.CardsDealtEvent;
+import com.example.backend.event.GameCreatedEvent;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.event.GameStartedEvent;
+import com.example.backend.event.PlayerActionEvent;
+import com.example.backend.event.PlayerJoinedEvent;
+import com.example.backend.event.RoundStartedEvent;
+import com.example.backend.model.BettingRound;
+import com.example.backend.model.Card;
+import com.example.backend.model.Deck;
+import com.example.backend.model.Player;
+import com.example.backend.service.GameEventEncoder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mid-hand tables shared by the engine benchmarks.
+ */
+public final class TableFixtures {
+
+    private TableFixtures() {
+    }
+
+    /**
+     * A table on the flop: every seat holds two cards, blinds are 10/20 and the
+     * current round has uneven bets with one fold and all-ins at different levels,
+     * so pot settlement has to build side pots.
+     */
+    public static Game flopWithSidePots(int seats) {
+        Game game = new Game(10, 20);
+        game.setStatus(Game.GameStatus.FLOP_BETTING);
+        Deck deck = game.getDeck();
+        Map<String, Double> bets = game.getCurrentBettingRound().getBets();
+
+        for (int seat = 0; seat < seats; seat++) {
+            // Seat 0 folds after 40; every other seat commits a different amount and
+            // odd seats are short stacks that go all-in for it
+            double bet = seat == 0 ? 40 : 80.0 * seat;
+            boolean allIn = seat % 2 == 1;
+            Player player = new Player("Player " + seat, "player" + seat, allIn ? bet : 1000);
+            player.addCard(deck.drawCard());
+            player.addCard(deck.drawCard());
+            player.placeBet(bet);
+            player.setHasFolded(seat == 0);
+            game.getPlayers().add(player);
+            bets.put(player.getId(), bet);
+            game.getLastActions().put(player.getId(), seat == 0 ? Game.PlayerAction.FOLD
+                    : allIn ? Game.PlayerAction.ALL_IN : Game.PlayerAction.CALL);
+        }
+        for (int i = 0; i < 3; i++) {
+            game.getCommunityCards().add(deck.drawCard());
+        }
+        game.setCurrentBet(80.0 * (seats - 1));
+        game.setSmallBlindUserId(game.getPlayers().get(0).getId());
+        game.setBigBlindUserId(game.getPlayers().get(1 % seats).getId());
+        game.setCurrentPlayerIndex(seats - 1);
+        return game;
+    }
+
+    /**
+     * Random seven-card masks (two hole cards plus a full board).
+     */
+    public static long[] sevenCardHands(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] hands = new long[count];
+        for (int i = 0; i < count; i++) {
+            long mask = 0;
+            while (Long.bitCount(mask) < 7) {
+                mask |= 1L << random.nextInt(Deck.STANDARD_DECK_SIZE);
+            }
+            hands[i] = mask;
+        }
+        return hands;
+    }
+
+    /**
+     * The same hands as card lists: [hole, board] pairs, as the service API takes them.
+     */
+    public static List<List<Card>>[] asCardLists(long[] hands) {
+        @SuppressWarnings("unchecked")
+        List<List<Card>>[] lists = new List[hands.length];
+        for (int i = 0; i < hands.length; i++) {
+            List<Card> cards = new ArrayList<>(7);
+            for (long rest = hands[i]; rest != 0; rest &= rest - 1) {
+                cards.add(Card.fromIndex(Long.numberOfTrailingZeros(rest)));
+            }
+            lists[i] = List.of(cards.subList(0, 2), cards.subList(2, 7));
+        }
+        return lists;
+    }
+
+    /**
+     * Journal records of a three-handed table that has played {@code hands} hands, each
+     * going to the flop with a raise, a call, a fold and a check.
+     */
+    public static List<GameEvent> journal(int hands) {
+        List<GameEvent> records = new ArrayList<>();
+        Game game = new Game(10, 20);
+        record(records, new GameCreatedEvent(game.getId(), new Game(game)));
+        for (int seat = 0; seat < 3; seat++) {
+            Player player = new Player("Player " + seat, "player" + seat, 100_000);
+            game.getPlayers().add(player);
+            record(records, new PlayerJoinedEvent(game.getId(), new Player(player)));
+        }
+        List<Player> players = game.getPlayers();
+
+        for (int hand = 0; hand < hands; hand++) {
+            game.resetForNewHand();
+            game.setStatus(Game.GameStatus.STARTING);
+            record(records, new GameStartedEvent(game.getId(), new Game(game)));
+
+            Map<String, List<Card>> dealt = new HashMap<>();
+            for (Player player : players) {
+                player.addCard(game.getDeck().drawCard());
+                player.addCard(game.getDeck().drawCard());
+                dealt.put(player.getId(), new ArrayList<>(player.getHand()));
+            }
+            record(records, new CardsDealtEvent(game.getId(), dealt));
+
+            int dealer = game.getDealerPosition();
+            Player button = players.get(dealer);
+            Player small = players.get((dealer + 1) % 3);
+            Player big = players.get((dealer + 2) % 3);
+            small.placeBet(10);
+            big.placeBet(20);
+            game.addToPot(30);
+            game.getCurrentBettingRound().setRoundType(BettingRound.RoundType.PRE_FLOP);
+            game.getCurrentBettingRound().getBets().put(small.getId(), 10.0);
+            game.getCurrentBettingRound().getBets().put(big.getId(), 20.0);
+            game.setCurrentBet(20);
+            game.setStatus(Game.GameStatus.PRE_FLOP_BETTING);
+            game.setCurrentPlayerIndex(dealer);
+            record(records, new RoundStartedEvent(game.getId(), new Game(game), BettingRound.RoundType.PRE_FLOP));
+
+            bet(records, game, button, 60, Game.PlayerAction.RAISE);
+            bet(records, game, small, 50, Game.PlayerAction.CALL);
+            big.setHasFolded(true);
+            big.setActive(false);
+            game.getLastActions().put(big.getUsername(), Game.PlayerAction.FOLD);
+            game.moveToNextPlayer();
+            record(records, new PlayerActionEvent(game.getId(), big, PlayerActionEvent.ActionType.FOLD, null,
+                    new Game(game)));
+
+            for (int i = 0; i < 3; i++) {
+                game.getCommunityCards().add(game.getDeck().drawCard());
+            }
+            record(records, new CardsDealtEvent(game.getId(), CardsDealtEvent.DealType.FLOP,
+                    new ArrayList<>(game.getCommunityCards())));
+            game.setupNextRound();
+            game.getCurrentBettingRound().setRoundType(BettingRound.RoundType.FLOP);
+            game.setStatus(Game.GameStatus.FLOP_BETTING);
+            record(records, new RoundStartedEvent(game.getId(), new Game(game), BettingRound.RoundType.FLOP));
+            bet(records, game, small, 0, Game.PlayerAction.CHECK);
+
+            button.awardPot(game.getPot());
+            game.setStatus(Game.GameStatus.SHOWDOWN);
+            record(records, new GameEndedEvent(game.getId(), new Game(game), List.of(button), null));
+        }
+        return records;
+    }
+
+    private static void bet(List<GameEvent> records, Game game, Player player, double amount,
+                            Game.PlayerAction action) {
+        player.placeBet(amount);
+        game.addToPot(amount);
+        double total = game.getCurrentBettingRound().getBets().getOrDefault(player.getId(), 0.0) + amount;
+        game.getCurrentBettingRound().getBets().put(player.getId(), total);
+        game.setCurrentBet(Math.max(game.getCurrentBet(), total));
+        game.getLastActions().put(player.getUsername(), action);
+        game.moveToNextPlayer();
+        record(records, new PlayerActionEvent(game.getId(), player, PlayerActionEvent.ActionType.BET, amount,
+                new Game(game)));
+    }
+
+    private static void record(List<GameEvent> records, com.example.backend.event.GameEvent event) {
+        GameEvent record = new GameEvent();
+        record.setGameId(event.getGameId());
+        record.setSeq(records.size() + 1);
+        record.setTimestamp(event.getTimestamp());
+        record.setEventType(event.getClass().getSimpleName());
+        record.setDelta(GameEventEncoder.deltaOf(event));
+        records.add(record);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.backend.service;
+
+import com.example.backend.benchmark.TableFixtures;
+import com.example.backend.entity.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-of-round pot settlement in {@link BettingManager#updatePotAmounts(Game)}.
+ * Lives in the service package because the method is package-private.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class PotSettlementBenchmark {
+
+    @Param({"2", "4", "6"})
+    private int seats;
+
+    private final BettingManager bettingManager = new BettingManager(null, new HandEvaluator(), null);
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = TableFixtures.flopWithSidePots(seats);
+    }
+
+    @Benchmark
+    public Game updatePotAmounts() {
+        // Settlement appends to the pot list; start each call from an empty one
+        game.getPots().clear();
+        bettingManager.updatePotAmounts(game);
+        return game;
+    }
+}
@@ -2,7 +2,10 @@ package com.example.backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import com.example.backend.model.Card;
+import org.bson.Document;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 
 import java.time.OffsetDateTime;
@@ -23,7 +26,8 @@ public class MongoConfig {
     public MongoCustomConversions mongoCustomConversions() {
         return new MongoCustomConversions(List.of(
                 new DateToOffsetDateTimeConverter(),
-                new OffsetDateTimeToDateConverter()
+                new OffsetDateTimeToDateConverter(),
+                new DocumentToCardConverter()
         ));
     }
 
@@ -46,4 +50,17 @@ public class MongoConfig {
             return Date.from(source.toInstant());
         }
     }
+
+    /**
+     * Reads a stored card as the shared instance for its suit and rank,
+     * so loading a game does not allocate a Card per dealt card.
+     */
+    @ReadingConverter
+    private static class DocumentToCardConverter implements Converter<Document, Card> {
+        @Override
+        public Card convert(Document source) {
+            return Card.of(Card.Suit.valueOf(source.getString("suit")),
+                    Card.Rank.valueOf(source.getString("rank")));
+        }
+    }
 }
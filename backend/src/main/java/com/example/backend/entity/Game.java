@@ -2,12 +2,14 @@ package com.example.backend.entity;
 
 import com.example.backend.model.BettingRound;
 import com.example.backend.model.Card;
+import com.example.backend.model.CardMask;
 import com.example.backend.model.Deck;
 import com.example.backend.model.Player;
 import com.example.backend.model.Pot;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -26,7 +28,12 @@ import java.util.UUID;
 @Document(collection = "games")
 @CompoundIndexes({
     @CompoundIndex(def = "{'status': 1, 'createdAt': -1}", name = "status_createdAt"),
-    @CompoundIndex(def = "{'status': 1, 'autoStart': 1}", name = "status_autoStart")
+    @CompoundIndex(def = "{'status': 1, 'autoStart': 1}", name = "status_autoStart"),
+    // Lobby: equality filters, then the page order, then the seat range
+    @CompoundIndex(def = "{'status': 1, 'bigBlindAmount': 1, 'createdAt': -1, '_id': -1, 'openSeats': 1}", name = "lobby_status_blind"),
+    @CompoundIndex(def = "{'createdAt': -1, '_id': -1}", name = "lobby_createdAt"),
+    // Stale guest table cleanup; also finds documents written before the flag existed
+    @CompoundIndex(def = "{'guestOnly': 1, 'updatedAt': 1}", name = "guestOnly_updatedAt")
 })
 public class Game {
     private int MAX_PLAYERS = 6;
@@ -64,6 +71,16 @@ public class Game {
     private double currentBet;
     private Map<String, PlayerAction> lastActions;
 
+    // Bumped on every write; delta updates only apply to the version they were diffed from
+    @Version
+    private long version;
+
+    // Derived from players for lobby filtering; refreshed whenever the game is written
+    private int openSeats = MAX_PLAYERS;
+
+    // True while every seated player is a guest (or nobody is); refreshed whenever the game is written
+    private boolean guestOnly = true;
+
     public enum GameStatus {
         WAITING, STARTING, PRE_FLOP_BETTING, FLOP_BETTING, TURN_BETTING, RIVER_BETTING, SHOWDOWN, FINISHED
     }
@@ -99,7 +116,8 @@ public class Game {
         game.getPlayers().forEach(p -> {
             this.players.add(new Player(p));
         });
-        this.deck = new Deck();
+        // Copies feed events and notifications; the live deck order never leaves the table
+        this.deck = null;
         this.communityCards = game.getCommunityCards() != null ? new ArrayList<>(game.getCommunityCards())
                 : new ArrayList<>();
         this.pot = game.getPot();
@@ -126,32 +144,29 @@ public class Game {
         this.playerActionTimeoutSeconds = game.getPlayerActionTimeoutSeconds();
         this.gameIdleTimeoutMinutes = game.getGameIdleTimeoutMinutes();
         this.autoStart = game.isAutoStart();
+        this.version = game.getVersion();
+        this.openSeats = game.getOpenSeats();
+        this.guestOnly = game.isGuestOnly();
+    }
+
+    public void refreshOpenSeats() {
+        this.openSeats = Math.max(0, MAX_PLAYERS - getPlayerCount());
     }
 
-    // Add a bet amount to the appropriate pot
+    public void refreshGuestOnly() {
+        this.guestOnly = players == null || players.stream()
+                .allMatch(p -> p.getUsername() != null && p.getUsername().startsWith("guest-"));
+    }
+
+    // Add a bet amount to the running total. The split into main and side pots is
+    // settled from the round's bets in BettingManager.updatePotAmounts; adding it to a
+    // pot here as well would count every bet twice at showdown.
     public void addToPot(double amount) {
         if (amount <= 0) {
             return; // Ignore zero or negative amounts
         }
 
         this.pot += amount;
-
-        // Add to the main pot by default
-        if (!pots.isEmpty()) {
-            pots.get(0).addAmount(amount);
-
-            // Make sure all active players are eligible for the main pot
-            players.stream()
-                    .filter(p -> p.isActive() && !p.isHasFolded())
-                    .forEach(p -> pots.get(0).addEligiblePlayer(p.getId()));
-        } else {
-            Pot mainPot = new Pot(amount);
-            // Add all active players to the main pot
-            players.stream()
-                    .filter(p -> p.isActive() && !p.isHasFolded())
-                    .forEach(p -> mainPot.addEligiblePlayer(p.getId()));
-            pots.add(mainPot);
-        }
     }
 
     // Create a side pot when a player goes all-in
@@ -285,8 +300,27 @@ public class Game {
                 this.players.size() >= 2;
     }
 
+    /**
+     * Takes the cards on the board and in hands out of a deck read from a document that
+     * predates the index encoding, which comes back freshly shuffled.
+     */
+    public void restoreDeck() {
+        if (deck == null || !deck.isLegacy()) {
+            return;
+        }
+        long dealt = CardMask.of(communityCards);
+        for (Player player : players) {
+            dealt |= CardMask.of(player.getHand());
+        }
+        deck.withhold(dealt);
+    }
+
     public void resetForNewHand() {
-        deck = new Deck();
+        if (deck == null) {
+            deck = new Deck();
+        } else {
+            deck.reset();
+        }
         communityCards.clear();
         pot = 0;
         pots.clear();
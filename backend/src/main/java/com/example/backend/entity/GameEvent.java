@@ -1,25 +1,41 @@
 package com.example.backend.entity;
 
+import com.example.backend.model.EventDelta;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.OffsetDateTime;
 
 /**
- * Represents a game event record stored in the database
+ * Represents a game event record stored in the database.
+ * New records carry a compact {@link EventDelta}; records written before that carry the
+ * whole event, including a full game snapshot, in {@code eventData}.
  */
 @Data
 @NoArgsConstructor
 @Document(collection = "game_events")
-@CompoundIndex(def = "{'gameId': 1, 'timestamp': 1}", name = "gameId_timestamp")
+@CompoundIndexes({
+    @CompoundIndex(def = "{'gameId': 1, 'timestamp': 1}", name = "gameId_timestamp"),
+    // Records from before sequence numbers have none and stay out of the unique index
+    @CompoundIndex(def = "{'gameId': 1, 'seq': 1}", name = "gameId_seq", unique = true,
+            partialFilter = "{ 'seq': { '$gt': 0 } }"),
+    // Only deletion records, for the archive job to find games that are done
+    @CompoundIndex(def = "{'timestamp': 1}", name = "deleted_timestamp",
+            partialFilter = "{ 'eventType': 'GameDeletedEvent' }")
+})
 public class GameEvent {
     @Id
     private String id;
     private String gameId;
+    private long seq; // per game, starting at 1; 0 on records from before sequence numbers
     private OffsetDateTime timestamp;
     private String eventType;
     private Object eventData;
+    @Field("d")
+    private EventDelta delta;
 } 
\ No newline at end of file
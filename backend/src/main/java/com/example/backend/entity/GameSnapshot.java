@@ -0,0 +1,28 @@
+package com.example.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Full game state as of one journal position. Replay starts from the nearest snapshot at or
+ * before the position it wants and applies only the events after it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "game_snapshots")
+@CompoundIndex(def = "{'gameId': 1, 'seq': -1}", name = "gameId_seq")
+public class GameSnapshot {
+    @Id
+    private String id; // gameId:seq, so re-taking a snapshot overwrites it
+    private String gameId;
+    private long seq; // last journal event folded into the state
+    private OffsetDateTime timestamp;
+    private Game state;
+}
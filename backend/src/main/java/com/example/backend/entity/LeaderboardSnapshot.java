@@ -0,0 +1,36 @@
+package com.example.backend.entity;
+
+import com.example.backend.model.LeaderboardMetric;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * The scores of one daily or weekly leaderboard period, so a restart resumes the period
+ * instead of starting it over. All-time boards are rebuilt from the users' counters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "leaderboards")
+public class LeaderboardSnapshot {
+    @Id
+    private String id; // metric:period, e.g. NET_PROFIT:2026-10-17 or HANDS_WON:2026-W42
+    private LeaderboardMetric metric;
+    private String period;
+    private List<Score> scores;
+    private OffsetDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Score {
+        private String username;
+        private long score;
+    }
+}
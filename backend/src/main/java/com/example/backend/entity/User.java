@@ -2,6 +2,7 @@ package com.example.backend.entity;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -9,6 +10,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -20,6 +22,7 @@ public class User implements UserDetails {
     @Id
     private String id;
     private String name;
+    @Indexed(name = "username")
     private String username;
     private String password;
     private String email;
@@ -32,6 +35,8 @@ public class User implements UserDetails {
     private int handsPlayed = 0;
     private int handsWon = 0;
     private int netProfit = 0;
+    // Hands most recently added to the counters above, see PlayerStatsAggregator
+    private List<String> statsHands = new ArrayList<>();
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
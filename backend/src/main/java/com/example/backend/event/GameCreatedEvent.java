@@ -0,0 +1,19 @@
+package com.example.backend.event;
+
+import com.example.backend.entity.Game;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Event fired when a table is created
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class GameCreatedEvent extends GameEvent {
+    private Game game;
+
+    public GameCreatedEvent(String gameId, Game game) {
+        super(gameId);
+        this.game = game;
+    }
+}
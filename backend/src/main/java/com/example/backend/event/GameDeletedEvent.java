@@ -0,0 +1,23 @@
+package com.example.backend.event;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Event fired when a table is deleted, by an admin, by its last player leaving or by cleanup
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class GameDeletedEvent extends GameEvent {
+    // The game's history is dropped with it, so the deletion itself is not journaled
+    private boolean purge;
+
+    public GameDeletedEvent(String gameId) {
+        super(gameId);
+    }
+
+    public GameDeletedEvent(String gameId, boolean purge) {
+        super(gameId);
+        this.purge = purge;
+    }
+}
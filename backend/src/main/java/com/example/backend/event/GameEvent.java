@@ -14,6 +14,7 @@ import java.time.ZoneOffset;
 public abstract class GameEvent {
     private String gameId;
     private OffsetDateTime timestamp;
+    private long seq; // per game, stamped by GameEventPublisher
     
     public GameEvent(String gameId) {
         this.gameId = gameId;
@@ -1,55 +1,57 @@
 package com.example.backend.listener;
 
 import com.example.backend.entity.GameEvent;
-import com.example.backend.entity.User;
 import com.example.backend.event.*;
 import com.example.backend.model.GameUpdate;
-import com.example.backend.model.Player;
-import com.example.backend.repository.UserRepository;
 import com.example.backend.resolver.SubscriptionResolver;
 import com.example.backend.service.BotService;
+import com.example.backend.service.GameEventEncoder;
+import com.example.backend.service.GameEventStore;
 import com.example.backend.service.GameNotificationService;
+import com.example.backend.service.GameSnapshotService;
+import com.example.backend.service.LeaderboardService;
+import com.example.backend.service.PlayerStatsAggregator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
-import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class GameEventLogger {
     private static final Logger logger = LoggerFactory.getLogger(GameEventLogger.class);
 
-    private final MongoTemplate mongoTemplate;
+    private final GameEventStore eventStore;
+    private final GameEventEncoder encoder;
+    private final GameSnapshotService snapshots;
     private final ObjectMapper objectMapper;
     private final GameNotificationService notificationService;
     private final BotService botService;
-    private final UserRepository userRepository;
+    private final PlayerStatsAggregator playerStats;
+    private final LeaderboardService leaderboard;
 
     @EventListener
     public void logGameEvent(com.example.backend.event.GameEvent event) {
-        try {
-            GameEvent dbEvent = new GameEvent();
-            dbEvent.setGameId(event.getGameId());
-            dbEvent.setTimestamp(event.getTimestamp());
-            dbEvent.setEventType(event.getClass().getSimpleName());
-            dbEvent.setEventData(event);
-            mongoTemplate.save(dbEvent, "game_events");
-            logger.debug("Logged game event: {} for game {}", dbEvent.getEventType(), dbEvent.getGameId());
-        } catch (Exception e) {
-            if (e.getMessage() != null && e.getMessage().contains("server session pool is open")) {
-                logger.debug("Could not log game event (MongoDB shutting down): {}", e.getMessage());
-            } else {
-                logger.error("Error logging game event: {}", e.getMessage(), e);
-            }
+        if (event instanceof GameDeletedEvent deleted && deleted.isPurge()) {
+            // The game's events are all queued ahead of this on its lane, so the purge follows them
+            eventStore.purge(List.of(event.getGameId()));
+            snapshots.purge(List.of(event.getGameId()));
+            snapshots.onJournaled(event, 0);
+            return;
         }
+        // Journal only what changed; replay folds the deltas back into a game
+        GameEvent dbEvent = encoder.encode(event);
+        // The Mongo store writes in batches off the game thread; the mapped one appends in place
+        if (eventStore.append(dbEvent)) {
+            logger.debug("Queued game event: {} for game {}", dbEvent.getEventType(), dbEvent.getGameId());
+        }
+        snapshots.onJournaled(event, dbEvent.getSeq());
     }
 
     @EventListener
@@ -106,78 +108,23 @@ public class GameEventLogger {
 
         notify(event.getGameId(), GameUpdate.GameUpdateType.GAME_ENDED, payload);
         logger.debug("Hand ended in game {}", event.getGameId());
-        updatePlayerStats(event);
+        if (playerStats.record(event)) {
+            leaderboard.record(event);
+        }
     }
 
-    private void updatePlayerStats(GameEndedEvent event) {
-        if (event.getGame() == null || event.getGame().getPlayers() == null) return;
-        try {
-            Set<String> winnerUsernames = event.getWinners() == null ? Set.of() :
-                    event.getWinners().stream()
-                            .map(Player::getUsername)
-                            .collect(Collectors.toSet());
-
-            for (Player player : event.getGame().getPlayers()) {
-                if (player.isBot()) continue;
-                userRepository.findByUsername(player.getUsername()).ifPresent(user -> {
-                    user.setHandsPlayed(user.getHandsPlayed() + 1);
-                    if (winnerUsernames.contains(player.getUsername())) {
-                        user.setHandsWon(user.getHandsWon() + 1);
-                        user.setNetProfit((int) (user.getNetProfit() + player.getLastWinAmount()));
-                    }
-                    userRepository.save(user);
-                });
-            }
-        } catch (Exception e) {
-            if (e.getMessage() != null && e.getMessage().contains("server session pool is open")) {
-                logger.debug("Could not update player stats (MongoDB shutting down): {}", e.getMessage());
-            } else {
-                logger.error("Error updating player stats: {}", e.getMessage());
-            }
-        }
+    @EventListener
+    public void onGameDeleted(GameDeletedEvent event) {
+        // Queued behind the table's last updates, which share this bean's lanes
+        notificationService.closeGame(event.getGameId());
     }
 
+    // Hands are hidden when the notification service renders the spectator view
     private void notify(String gameId, GameUpdate.GameUpdateType type, Object payload) {
-        Object filteredPayload = payload;
-
-        try {
-            if (payload instanceof com.example.backend.entity.Game) {
-                com.example.backend.entity.Game game = (com.example.backend.entity.Game) payload;
-                com.example.backend.entity.Game copy = new com.example.backend.entity.Game(game);
-                boolean isShowdown = copy.getStatus() == com.example.backend.entity.Game.GameStatus.SHOWDOWN;
-                if (!isShowdown) {
-                    copy.getPlayers().forEach(Player::hideDetails);
-                }
-                copy.setDeck(null);
-                filteredPayload = copy;
-            } else if (payload instanceof Player) {
-                Player copy = new Player((Player) payload);
-                copy.hideDetails();
-                filteredPayload = copy;
-            } else if (payload instanceof java.util.Map) {
-                java.util.Map<?, ?> map = (java.util.Map<?, ?>) payload;
-                if (map.containsKey("game") && map.get("game") instanceof com.example.backend.entity.Game) {
-                    com.example.backend.entity.Game game = (com.example.backend.entity.Game) map.get("game");
-                    com.example.backend.entity.Game copy = new com.example.backend.entity.Game(game);
-                    boolean isShowdown = copy.getStatus() == com.example.backend.entity.Game.GameStatus.SHOWDOWN;
-                    if (!isShowdown) {
-                        copy.getPlayers().forEach(Player::hideDetails);
-                    }
-                    copy.setDeck(null);
-                    
-                    java.util.Map<Object, Object> mapCopy = new java.util.HashMap<>(map);
-                    mapCopy.put("game", copy);
-                    filteredPayload = mapCopy;
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error filtering notification payload: {}", e.getMessage());
-        }
-
         notificationService.notifyGameUpdate(GameUpdate.builder()
                 .gameId(gameId)
                 .type(type)
-                .payload(filteredPayload)
+                .payload(payload)
                 .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
                 .build());
     }
@@ -6,23 +6,52 @@ import lombok.Data;
 public class Card {
     private final Suit suit;
     private final Rank rank;
-    
+
+    // Shared immutable instances, indexed by toIndex()
+    private static final Card[] BY_INDEX = new Card[52];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                BY_INDEX[suit.ordinal() * 13 + rank.ordinal()] = new Card(suit, rank);
+            }
+        }
+    }
+
     public enum Suit {
         HEARTS, DIAMONDS, CLUBS, SPADES
     }
-    
+
     public enum Rank {
         TWO(2), THREE(3), FOUR(4), FIVE(5), SIX(6), SEVEN(7), EIGHT(8),
         NINE(9), TEN(10), JACK(11), QUEEN(12), KING(13), ACE(14);
-        
+
         private final int value;
-        
+
         Rank(int value) {
             this.value = value;
         }
-        
+
         public int getValue() {
             return value;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Compact 0..51 encoding used inside the engine (see {@link CardMask}): suit * 13 + rank.
+     */
+    public int toIndex() {
+        return suit.ordinal() * 13 + rank.ordinal();
+    }
+
+    public static Card of(Suit suit, Rank rank) {
+        return BY_INDEX[suit.ordinal() * 13 + rank.ordinal()];
+    }
+
+    public static Card fromIndex(int index) {
+        if (index < 0 || index >= BY_INDEX.length) {
+            throw new IllegalArgumentException("Card index out of range: " + index);
+        }
+        return BY_INDEX[index];
+    }
+}
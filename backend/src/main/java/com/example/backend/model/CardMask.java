@@ -0,0 +1,47 @@
+package com.example.backend.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primitive card sets used inside the poker engine.
+ * A card is its {@link Card#toIndex()} (0..51) and a set of cards is a 64-bit mask
+ * with one bit per index. {@link Card} lists are only built at the GraphQL/Mongo boundary.
+ */
+public final class CardMask {
+    public static final long EMPTY = 0L;
+    public static final long FULL_DECK = (1L << Deck.STANDARD_DECK_SIZE) - 1;
+
+    private CardMask() {
+    }
+
+    public static long of(List<Card> cards) {
+        long mask = EMPTY;
+        if (cards != null) {
+            for (Card card : cards) {
+                mask |= bit(card.toIndex());
+            }
+        }
+        return mask;
+    }
+
+    public static long bit(int index) {
+        return 1L << index;
+    }
+
+    public static boolean contains(long mask, int index) {
+        return (mask & bit(index)) != 0;
+    }
+
+    public static int size(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    public static List<Card> toCards(long mask) {
+        List<Card> cards = new ArrayList<>(Long.bitCount(mask));
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            cards.add(Card.fromIndex(Long.numberOfTrailingZeros(rest)));
+        }
+        return cards;
+    }
+}
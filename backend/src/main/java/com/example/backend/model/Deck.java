@@ -1,48 +1,121 @@
 package com.example.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Transient;
+
 import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * A deck stored as a permutation of card indices with a draw cursor.
+ * Drawing advances the cursor instead of shifting a list, and cards come back
+ * as the shared {@link Card#fromIndex(int)} instances.
+ */
 @Data
 public class Deck {
-    private List<Card> cards;
+    private int[] order;
+    private int position;
     public static final int STANDARD_DECK_SIZE = 52;
+    // Read from a document without a usable order; see withhold()
+    @Transient
+    @JsonIgnore
+    private boolean legacy;
 
     public Deck() {
-        cards = new ArrayList<>(STANDARD_DECK_SIZE);
+        order = new int[STANDARD_DECK_SIZE];
         initializeDeck();
     }
 
+    @PersistenceCreator
+    public Deck(int[] order, int position) {
+        if (order == null || order.length != STANDARD_DECK_SIZE) {
+            // Documents written before the index encoding carry no usable order. The cards
+            // already dealt are unknown here, so the game takes them out (Game.restoreDeck)
+            this.order = new int[STANDARD_DECK_SIZE];
+            initializeDeck();
+            this.legacy = true;
+        } else {
+            this.order = order;
+            this.position = position;
+        }
+    }
+
+    public Deck(Deck deck) {
+        this.order = deck.order.clone();
+        this.position = deck.position;
+    }
+
     private void initializeDeck() {
-        for (Card.Suit suit : Card.Suit.values()) {
-            for (Card.Rank rank : Card.Rank.values()) {
-                cards.add(new Card(suit, rank));
-            }
+        for (int i = 0; i < STANDARD_DECK_SIZE; i++) {
+            order[i] = i;
         }
+        position = 0;
         shuffle();
     }
 
+    /**
+     * Fisher-Yates shuffle of the cards not yet drawn.
+     */
     public void shuffle() {
-        Collections.shuffle(cards, ThreadLocalRandom.current());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = order.length - 1; i > position; i--) {
+            int j = position + random.nextInt(i - position + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
     }
 
-    public Card drawCard() {
-        if (cards.isEmpty()) {
+    /**
+     * Rebuilds the deck as drawn down to the given cards: they take the drawn positions and
+     * the rest is shuffled after them, so none of them can be dealt again.
+     */
+    public void withhold(long dealt) {
+        int next = 0;
+        for (int i = 0; i < STANDARD_DECK_SIZE; i++) {
+            if (CardMask.contains(dealt, i)) {
+                order[next++] = i;
+            }
+        }
+        position = next;
+        for (int i = 0; i < STANDARD_DECK_SIZE; i++) {
+            if (!CardMask.contains(dealt, i)) {
+                order[next++] = i;
+            }
+        }
+        shuffle();
+        legacy = false;
+    }
+
+    public int drawIndex() {
+        if (position >= order.length) {
             throw new IllegalStateException("Deck is empty");
         }
-        return cards.remove(0);
+        return order[position++];
+    }
+
+    public Card drawCard() {
+        return Card.fromIndex(drawIndex());
     }
-    
+
     public int remainingCards() {
-        return cards.size();
+        return order.length - position;
+    }
+
+    /**
+     * Mask of the cards still in the deck.
+     */
+    public long remainingMask() {
+        long mask = CardMask.EMPTY;
+        for (int i = position; i < order.length; i++) {
+            mask |= CardMask.bit(order[i]);
+        }
+        return mask;
     }
-    
+
     public void reset() {
-        cards.clear();
         initializeDeck();
+        legacy = false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Share of the pot a hand is expected to win against random opponent holdings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquityResult {
+    private double equity;    // pot share, ties split
+    private double win;       // fraction of outcomes won outright
+    private double tie;       // fraction of outcomes split
+    private int opponents;
+    private int samples;      // outcomes evaluated
+    private boolean exhaustive;
+    private boolean complete; // false when the latency budget cut the run short
+}
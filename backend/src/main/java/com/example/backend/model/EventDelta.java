@@ -0,0 +1,72 @@
+package com.example.backend.model;
+
+import com.example.backend.entity.Game;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact journal payload: only what an event changed, under one-letter keys. Cards are
+ * stored as byte arrays of {@link Card#toIndex()} values, in deal order. Unset fields are
+ * not written. Replay rebuilds the full {@link Game} by applying these in sequence.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventDelta {
+    @Field("t")
+    private String action;              // PlayerAction name, round type, deal type or lifecycle step
+    @Field("a")
+    private String actor;               // acting player id
+    @Field("x")
+    private Double amount;              // chips the actor put in
+    @Field("r")
+    private Double stack;               // actor's chips afterwards
+    @Field("u")
+    private String username;            // joins only
+    @Field("m")
+    private String name;                // joins only
+    @Field("p")
+    private Double pot;                 // pot afterwards
+    @Field("s")
+    private Game.GameStatus status;     // status afterwards
+    @Field("i")
+    private Integer turn;               // current player index afterwards
+    @Field("d")
+    private Integer dealer;
+    @Field("c")
+    private byte[] board;               // community cards afterwards
+    @Field("h")
+    private Map<String, byte[]> hands;  // hole cards by player id, dealt or shown down
+    @Field("o")
+    private List<String> seats;         // player ids in seat order, on table-wide events
+    @Field("k")
+    private List<Double> stacks;        // chips per seat, aligned with seats
+    @Field("w")
+    private List<String> winners;
+    @Field("b")
+    private List<Double> blinds;        // small and big blind, on creation
+    @Field("n")
+    private Integer maxPlayers;         // on creation
+
+    public static byte[] encodeCards(List<Card> cards) {
+        byte[] encoded = new byte[cards.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = (byte) cards.get(i).toIndex();
+        }
+        return encoded;
+    }
+
+    public static List<Card> decodeCards(byte[] encoded) {
+        Card[] cards = new Card[encoded.length];
+        for (int i = 0; i < encoded.length; i++) {
+            cards[i] = Card.fromIndex(encoded[i]);
+        }
+        return new ArrayList<>(List.of(cards));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.model;
+
+import com.example.backend.entity.Game;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * One lobby row, read from a field projection of the game document.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameSummary {
+    private String id;
+    private Game.GameStatus status;
+    private int playerCount;
+    private int maxPlayers;
+    private double smallBlindAmount;
+    private double bigBlindAmount;
+    private double pot;
+    private OffsetDateTime createdAt;
+
+    // Usernames are not exposed in the lobby for privacy
+    public List<String> getPlayerUsernames() {
+        return List.of();
+    }
+}
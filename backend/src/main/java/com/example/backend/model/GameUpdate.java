@@ -18,6 +18,15 @@ public class GameUpdate {
     private GameUpdateType type;
     private Object payload;
     private OffsetDateTime timestamp;
+    // Per table, across the public and private streams; what a reconnecting client resumes from
+    private Long seq;
+    // Names the run of seqs, which starts again at 1 after a restart
+    private String epoch;
+    // Delta stream only: the table view's version after this update, the version the patch
+    // applies on, and the JSON Patch itself
+    private Long version;
+    private Long baseVersion;
+    private Object patch;
 
     public enum GameUpdateType {
         PLAYER_JOINED,
@@ -27,6 +36,7 @@ public class GameUpdate {
         COMMUNITY_CARDS,
         PLAYER_ACTION,
         GAME_ENDED,
-        CHAT_MESSAGE
+        CHAT_MESSAGE,
+        SNAPSHOT
     }
 }
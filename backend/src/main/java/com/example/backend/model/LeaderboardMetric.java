@@ -0,0 +1,5 @@
+package com.example.backend.model;
+
+public enum LeaderboardMetric {
+    NET_PROFIT, HANDS_WON
+}
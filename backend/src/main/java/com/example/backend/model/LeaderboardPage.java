@@ -0,0 +1,17 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPage {
+    private List<LeaderboardEntry> entries;
+    private Integer nextOffset; // null on the last page
+    private int total; // players with a score in the window
+    private LeaderboardEntry me; // null if the caller has no score
+}
@@ -0,0 +1,5 @@
+package com.example.backend.model;
+
+public enum LeaderboardWindow {
+    DAILY, WEEKLY, ALL_TIME
+}
@@ -0,0 +1,14 @@
+package com.example.backend.model;
+
+import com.example.backend.entity.Game;
+import lombok.Data;
+
+/**
+ * Optional lobby filters; unset fields match every game.
+ */
+@Data
+public class LobbyFilter {
+    private Game.GameStatus status;
+    private Double bigBlindAmount;
+    private Integer minOpenSeats;
+}
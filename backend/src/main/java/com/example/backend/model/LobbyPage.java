@@ -0,0 +1,15 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyPage {
+    private List<GameSummary> items;
+    private String nextCursor; // null on the last page
+}
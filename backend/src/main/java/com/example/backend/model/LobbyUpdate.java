@@ -0,0 +1,27 @@
+package com.example.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One lobby row change pushed to {@code lobbyUpdated} subscribers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LobbyUpdate {
+    private LobbyUpdateType type;
+    private String gameId;
+    private GameSummary row; // null when the row was removed
+    private OffsetDateTime timestamp;
+
+    public enum LobbyUpdateType {
+        UPSERTED,
+        REMOVED
+    }
+}
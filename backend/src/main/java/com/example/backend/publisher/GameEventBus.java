@@ -0,0 +1,267 @@
+package com.example.backend.publisher;
+
+import com.example.backend.event.GameEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers game events to their listeners off the publishing thread.
+ * <p>
+ * Registered as the context's event multicaster, so listeners stay plain
+ * {@code @EventListener} methods. Every listening bean gets {@code game.events.partitions}
+ * lanes of its own, each a bounded queue drained by one thread, shared by all of the bean's
+ * listener methods; a {@link GameEvent} goes to lane {@code hash(gameId) mod partitions}.
+ * A bean therefore sees a table's events in publish order across all of its methods, and a
+ * slow one only backs up its own lanes. A full lane holds the publisher until there is room
+ * rather than drop an event.
+ * <p>
+ * Listeners whose id starts with {@link #INLINE} still run on the publishing thread, for
+ * work that has to happen inside the table's action. Other events, and every event when
+ * {@code game.events.dispatch=sync}, are delivered inline as Spring would. Queued events are
+ * delivered before the context closes.
+ */
+@Component(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+public class GameEventBus extends SimpleApplicationEventMulticaster {
+    private static final Logger logger = LoggerFactory.getLogger(GameEventBus.class);
+
+    /**
+     * Listener id prefix, as in {@code @EventListener(id = GameEventBus.INLINE + "...")}, for
+     * listeners that must run on the thread that published the event.
+     */
+    public static final String INLINE = "inline:";
+
+    public enum Dispatch {
+        ASYNC, SYNC
+    }
+
+    private record Envelope(ApplicationListener<?> listener, ApplicationEvent event, long enqueuedAtNanos) {
+    }
+
+    private static final Envelope CLOSE = new Envelope(null, null, 0);
+
+    private final Dispatch dispatch;
+    private final int partitions;
+    private final int laneCapacity;
+
+    private final Map<ApplicationListener<?>, Route> routes = new ConcurrentHashMap<>();
+    // Lanes by listening bean
+    private final Map<String, Route> beans = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong inline = new AtomicLong();
+
+    public GameEventBus(@Value("${game.events.dispatch:ASYNC}") Dispatch dispatch,
+                        @Value("${game.events.partitions:8}") int partitions,
+                        @Value("${game.events.lane-capacity:1024}") int laneCapacity) {
+        if (partitions < 1 || laneCapacity < 1) {
+            throw new IllegalArgumentException("Event bus partitions and lane capacity must be positive");
+        }
+        this.dispatch = dispatch;
+        this.partitions = partitions;
+        this.laneCapacity = laneCapacity;
+    }
+
+    @Override
+    public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+        if (event instanceof ContextClosedEvent) {
+            // Drain while the listeners' own beans are still alive
+            close();
+        }
+        if (dispatch == Dispatch.SYNC || closed
+                || !(event instanceof PayloadApplicationEvent<?> payload)
+                || !(payload.getPayload() instanceof GameEvent gameEvent)) {
+            super.multicastEvent(event, eventType);
+            return;
+        }
+
+        published.incrementAndGet();
+        ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        int partition = gameEvent.getGameId() == null ? 0 : Math.floorMod(gameEvent.getGameId().hashCode(), partitions);
+        for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            Route route = routes.computeIfAbsent(listener, this::routeOf);
+            if (route.inline) {
+                inline.incrementAndGet();
+                invokeListener(listener, event);
+            } else {
+                route.offer(partition, listener, event);
+            }
+        }
+    }
+
+    /**
+     * Events queued for the listener's bean, across its lanes. 0 for listeners that run inline.
+     */
+    public int depth(ApplicationListener<?> listener) {
+        Route route = routes.get(listener);
+        return route == null ? 0 : route.depth.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Route route : beans.values()) {
+            route.close();
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        StringBuilder sb = new StringBuilder("Game event bus metrics:\n");
+        sb.append(String.format("  dispatch=%s, partitions=%d, published=%d, inline=%d\n",
+                dispatch, partitions, published.get(), inline.get()));
+        for (Route route : beans.values()) {
+            long delivered = Math.max(route.delivered.get(), 1);
+            sb.append(String.format("  %s: delivered=%d, failed=%d, depth=%d, maxDepth=%d, blocked=%d, "
+                            + "avgWait=%.2fms, maxWait=%.2fms, avgRun=%.2fms, maxRun=%.2fms\n",
+                    route.name, route.delivered.get(), route.failed.get(), route.depth.get(),
+                    route.maxDepth.get(), route.blocked.get(),
+                    route.waitNanos.get() / 1_000_000.0 / delivered, route.maxWaitNanos.get() / 1_000_000.0,
+                    route.runNanos.get() / 1_000_000.0 / delivered, route.maxRunNanos.get() / 1_000_000.0));
+        }
+        logger.info(sb.toString());
+    }
+
+    private static String idOf(ApplicationListener<?> listener) {
+        String id = listener instanceof SmartApplicationListener smart ? smart.getListenerId() : "";
+        return id.isEmpty() ? listener.getClass().getName() : id;
+    }
+
+    private Route routeOf(ApplicationListener<?> listener) {
+        String id = idOf(listener);
+        if (id.startsWith(INLINE)) {
+            return new Route(id, true);
+        }
+        // "com.example.Foo.bar(com.example.Event)" -> "com.example.Foo"
+        int paren = id.indexOf('(');
+        String bean = paren > 0 ? id.substring(0, id.lastIndexOf('.', paren)) : id;
+        return beans.computeIfAbsent(bean, b -> new Route(b.substring(b.lastIndexOf('.') + 1), false));
+    }
+
+    private final class Route {
+        final String name;
+        final boolean inline;
+        final BlockingQueue<Envelope>[] lanes;
+        final Thread[] drainers;
+
+        final AtomicInteger depth = new AtomicInteger();
+        final AtomicInteger maxDepth = new AtomicInteger();
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong blocked = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final AtomicLong runNanos = new AtomicLong();
+        final AtomicLong maxRunNanos = new AtomicLong();
+
+        @SuppressWarnings("unchecked")
+        Route(String name, boolean inline) {
+            this.name = name;
+            this.inline = inline;
+            this.lanes = new BlockingQueue[inline ? 0 : partitions];
+            this.drainers = new Thread[lanes.length];
+            for (int i = 0; i < lanes.length; i++) {
+                BlockingQueue<Envelope> lane = new ArrayBlockingQueue<>(laneCapacity);
+                lanes[i] = lane;
+                drainers[i] = Thread.ofVirtual().name("game-events-" + name + "-" + i).start(() -> drain(lane));
+            }
+        }
+
+        void offer(int partition, ApplicationListener<?> listener, ApplicationEvent event) {
+            Envelope envelope = new Envelope(listener, event, System.nanoTime());
+            maxDepth.accumulateAndGet(depth.incrementAndGet(), Math::max);
+            BlockingQueue<Envelope> lane = lanes[partition];
+            if (!lane.offer(envelope)) {
+                blocked.incrementAndGet();
+                try {
+                    lane.put(envelope);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    depth.decrementAndGet();
+                    // Deliver it here rather than lose it
+                    invoke(envelope);
+                }
+            }
+        }
+
+        private void drain(BlockingQueue<Envelope> lane) {
+            while (true) {
+                Envelope next;
+                try {
+                    next = lane.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (next == CLOSE) {
+                    return;
+                }
+                depth.decrementAndGet();
+                invoke(next);
+            }
+        }
+
+        private void invoke(Envelope envelope) {
+            long start = System.nanoTime();
+            long wait = start - envelope.enqueuedAtNanos();
+            waitNanos.addAndGet(wait);
+            maxWaitNanos.accumulateAndGet(wait, Math::max);
+            try {
+                invokeListener(envelope.listener(), envelope.event());
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                logger.error("Listener {} failed on {}: {}", name, envelope.event(), e.getMessage(), e);
+            } finally {
+                long run = System.nanoTime() - start;
+                runNanos.addAndGet(run);
+                maxRunNanos.accumulateAndGet(run, Math::max);
+                delivered.incrementAndGet();
+            }
+        }
+
+        void close() {
+            for (BlockingQueue<Envelope> lane : lanes) {
+                try {
+                    lane.put(CLOSE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            for (Thread drainer : drainers) {
+                try {
+                    drainer.join(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (depth.get() > 0) {
+                logger.warn("Listener {} closed with {} events undelivered", name, depth.get());
+            }
+        }
+    }
+}
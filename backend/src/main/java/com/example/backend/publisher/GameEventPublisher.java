@@ -1,6 +1,10 @@
 package com.example.backend.publisher;
 
+import com.example.backend.event.GameDeletedEvent;
+import com.example.backend.event.GameEndedEvent;
 import com.example.backend.event.GameEvent;
+import com.example.backend.service.GameEventSequencer;
+import com.example.backend.service.GameTableRegistry;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,7 +12,12 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
- * Responsible for publishing game events to the event system
+ * Responsible for publishing game events to the event system. Each event is stamped with
+ * its game's next sequence number first, so listeners and the journal see one order.
+ * Listeners are invoked by {@link GameEventBus}, off this thread unless they ask otherwise.
+ * <p>
+ * Events raised by an action on a table go out once the action has settled, after the
+ * hand-end write of a {@link GameEndedEvent} has landed, and not at all if the action fails.
  */
 @Component
 @RequiredArgsConstructor
@@ -16,9 +25,26 @@ public class GameEventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(GameEventPublisher.class);
     
     private final ApplicationEventPublisher publisher;
+    private final GameEventSequencer sequencer;
+    private final GameTableRegistry gameTables;
     
     public void publishEvent(GameEvent event) {
-        logger.debug("Publishing event: {}", event.getClass().getSimpleName());
+        if (event instanceof GameEndedEvent) {
+            gameTables.flushOnSettle(event.getGameId());
+        }
+        gameTables.afterSettle(event.getGameId(), () -> dispatch(event));
+    }
+
+    private void dispatch(GameEvent event) {
+        // A purged game's deletion is never journaled, so it takes no sequence number
+        if (!(event instanceof GameDeletedEvent deleted && deleted.isPurge())) {
+            event.setSeq(sequencer.next(event.getGameId()));
+        }
+        logger.debug("Publishing event: {} #{} for game {}", event.getClass().getSimpleName(), event.getSeq(),
+                event.getGameId());
         publisher.publishEvent(event);
+        if (event instanceof GameDeletedEvent) {
+            sequencer.forget(event.getGameId());
+        }
     }
 } 
\ No newline at end of file
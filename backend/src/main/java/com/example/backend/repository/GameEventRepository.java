@@ -1,7 +1,9 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.GameEvent;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +19,13 @@ public interface GameEventRepository extends MongoRepository<GameEvent, String>
      */
     List<GameEvent> findByGameIdOrderByTimestampAsc(String gameId);
     
+    /**
+     * Find a game's events with seq in [fromSeq, toSeq], in sequence order; one range seek
+     * on the {gameId, seq} index
+     */
+    @Query(value = "{ 'gameId': ?0, 'seq': { '$gte': ?1, '$lte': ?2 } }", sort = "{ 'seq': 1 }")
+    List<GameEvent> findBySeqRange(String gameId, long fromSeq, long toSeq, Limit limit);
+    
     /**
      * Find events of a specific type for a game
      */
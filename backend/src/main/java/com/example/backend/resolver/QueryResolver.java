@@ -3,19 +3,34 @@ package com.example.backend.resolver;
 import com.example.backend.entity.Game;
 import com.example.backend.entity.GameEvent;
 import com.example.backend.entity.User;
-import com.example.backend.repository.GameEventRepository;
+import com.example.backend.model.EquityResult;
+import com.example.backend.model.GameSummary;
+import com.example.backend.model.GameUpdate;
+import com.example.backend.model.LeaderboardMetric;
+import com.example.backend.model.LeaderboardPage;
+import com.example.backend.model.LeaderboardWindow;
+import com.example.backend.model.LobbyFilter;
+import com.example.backend.model.LobbyPage;
+import com.example.backend.model.Player;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.service.EquityCalculator;
+import com.example.backend.service.GameEventStore;
 import com.example.backend.service.GameReplayService;
 import com.example.backend.service.GameService;
+import com.example.backend.service.GameStateTracker;
+import com.example.backend.service.LeaderboardService;
+import com.example.backend.service.LobbyIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Controller
 @RequiredArgsConstructor
@@ -23,8 +38,12 @@ public class QueryResolver {
 
     private final GameService gameService;
     private final UserRepository userRepository;
-    private final GameEventRepository gameEventRepository;
+    private final GameEventStore eventStore;
     private final GameReplayService gameReplayService;
+    private final EquityCalculator equityCalculator;
+    private final LobbyIndex lobbyIndex;
+    private final LeaderboardService leaderboardService;
+    private final GameStateTracker gameStateTracker;
 
     @QueryMapping
     public User me() {
@@ -50,8 +69,13 @@ public class QueryResolver {
     }
 
     @QueryMapping
-    public List<Game> games() {
-        return gameService.getAllGames();
+    public List<GameSummary> games() {
+        return lobbyIndex.getAll();
+    }
+
+    @QueryMapping
+    public LobbyPage lobby(@Argument LobbyFilter filter, @Argument Integer first, @Argument String after) {
+        return lobbyIndex.getLobby(filter, first, after);
     }
 
     @QueryMapping
@@ -68,14 +92,32 @@ public class QueryResolver {
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<GameEvent> gameEvents(@Argument String gameId) {
-        return gameEventRepository.findByGameIdOrderByTimestampAsc(gameId);
+    public GameUpdate gameState(@Argument String gameId) {
+        return gameStateTracker.resync(gameId);
+    }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public List<GameEvent> gameEvents(@Argument String gameId, @Argument Integer fromSeq, @Argument Integer toSeq,
+                                      @Argument Integer first) {
+        if (fromSeq == null && toSeq == null && first == null) {
+            try (Stream<GameEvent> events = eventStore.stream(gameId, 0, Long.MAX_VALUE)) {
+                return events.toList();
+            }
+        }
+        if (first != null && first < 1) {
+            throw new IllegalArgumentException("first must be positive");
+        }
+        return eventStore.range(gameId,
+                fromSeq != null ? fromSeq : 1,
+                toSeq != null ? toSeq : Long.MAX_VALUE,
+                first != null ? first : Integer.MAX_VALUE);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
     public List<GameEvent> gameEventsByType(@Argument String gameId, @Argument String eventType) {
-        return gameEventRepository.findByGameIdAndEventTypeOrderByTimestampAsc(gameId, eventType);
+        return eventStore.findByType(gameId, eventType);
     }
 
     @QueryMapping
@@ -89,4 +131,32 @@ public class QueryResolver {
     public Game replayGameUntilEvent(@Argument String gameId, @Argument String eventId) {
         return gameReplayService.replayGameUntilEvent(gameId, eventId);
     }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public Game replayGameAt(@Argument String gameId, @Argument int seq) {
+        return gameReplayService.replayGameAt(gameId, seq);
+    }
+
+    @QueryMapping
+    public LeaderboardPage leaderboard(@Argument LeaderboardMetric metric, @Argument LeaderboardWindow window,
+                                       @Argument Integer first, @Argument Integer offset) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth != null && auth.isAuthenticated() ? auth.getName() : null;
+        return leaderboardService.page(metric, window, first, offset, username);
+    }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public EquityResult handEquity(@Argument String gameId, @Argument String playerId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Game game = gameService.getGameForPlayer(gameId, playerId);
+        Player player = game.getPlayerById(playerId);
+
+        // Equity reveals hole-card strength, so only the seated player may ask for it
+        if (player == null || !player.getUsername().equals(auth.getName())) {
+            throw new AccessDeniedException("Equity is only available for your own hand");
+        }
+        return equityCalculator.calculateForPlayer(game, playerId);
+    }
 }
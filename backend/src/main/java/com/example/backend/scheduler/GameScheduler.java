@@ -3,8 +3,9 @@ package com.example.backend.scheduler;
 import com.example.backend.entity.Game;
 import com.example.backend.model.Player;
 import com.example.backend.repository.GameRepository;
-import com.example.backend.resolver.SubscriptionResolver;
 import com.example.backend.service.GameService;
+import com.example.backend.service.GameTableRegistry;
+import com.example.backend.service.StaleGuestGameCleaner;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,7 +41,9 @@ public class GameScheduler {
 
     private final GameRepository gameRepository;
     private final GameService gameService;
+    private final GameTableRegistry gameTables;
     private final TaskScheduler taskScheduler;
+    private final StaleGuestGameCleaner staleGuestGameCleaner;
 
     private final AtomicReference<Long> currentPlayerTimeoutInterval = new AtomicReference<>(5000L);
     private final AtomicReference<Long> currentGameStartInterval = new AtomicReference<>(8000L);
@@ -57,10 +60,13 @@ public class GameScheduler {
     private final Map<String, AtomicLong> taskErrorCounts = new ConcurrentHashMap<>();
     private final Map<String, Instant> taskLastExecutions = new ConcurrentHashMap<>();
 
-    public GameScheduler(GameRepository gameRepository, @Lazy GameService gameService, TaskScheduler taskScheduler) {
+    public GameScheduler(GameRepository gameRepository, @Lazy GameService gameService, GameTableRegistry gameTables,
+                         TaskScheduler taskScheduler, StaleGuestGameCleaner staleGuestGameCleaner) {
         this.gameRepository = gameRepository;
         this.gameService = gameService;
+        this.gameTables = gameTables;
         this.taskScheduler = taskScheduler;
+        this.staleGuestGameCleaner = staleGuestGameCleaner;
     }
 
     @PostConstruct
@@ -68,7 +74,7 @@ public class GameScheduler {
         // Initialize metrics for each task
         for (String task : List.of("startWaitingGames", "handlePlayerTimeouts",
                 "cleanupIdleGames", "updateActionDeadlines",
-                "scheduleNextHand", "schedulePlayerTimeout")) {
+                "scheduleNextHand", "schedulePlayerTimeout", "cleanupStaleGuestGames")) {
             taskExecutionCounts.put(task, new AtomicLong(0));
             taskExecutionTimes.put(task, new AtomicLong(0));
             taskErrorCounts.put(task, new AtomicLong(0));
@@ -145,22 +151,17 @@ public class GameScheduler {
      */
     @Scheduled(cron = "0 0 3 * * *")
     public void cleanupStaleGuestGames() {
+        String taskName = "cleanupStaleGuestGames";
+        Instant start = Instant.now();
+        taskLastExecutions.put(taskName, start);
         try {
-            java.time.OffsetDateTime cutoff = java.time.OffsetDateTime.now(java.time.ZoneOffset.UTC).minusHours(24);
-            List<Game> stale = gameRepository.findAll().stream()
-                    .filter(g -> g.getUpdatedAt() != null && g.getUpdatedAt().isBefore(cutoff))
-                    .filter(g -> g.getPlayers().isEmpty()
-                            || g.getPlayers().stream().allMatch(p -> p.getUsername().startsWith("guest-")))
-                    .toList();
-
-            for (Game g : stale) {
-                gameRepository.delete(g);
-                SubscriptionResolver.cleanupGameSinks(g.getId());
-                logger.info("Cleaned up stale guest game {}", g.getId());
-            }
-            logger.info("Stale guest game cleanup: removed {} games", stale.size());
+            long removed = staleGuestGameCleaner.cleanup();
+            logger.info("Stale guest game cleanup: removed {} games", removed);
+            taskExecutionCounts.get(taskName).incrementAndGet();
+            taskExecutionTimes.get(taskName).addAndGet(Duration.between(start, Instant.now()).toMillis());
         } catch (Exception e) {
             logger.error("Error in stale guest game cleanup: {}", e.getMessage(), e);
+            taskErrorCounts.get(taskName).incrementAndGet();
         }
     }
 
@@ -198,11 +199,16 @@ public class GameScheduler {
     }
 
     /**
-     * Schedule the next hand for a game after the round end delay
+     * Schedule the next hand for a game after the round end delay. Called from an action on
+     * the table, this happens once the action has settled.
      * 
      * @param gameId The ID of the game to schedule next hand for
      */
     public void scheduleNextHand(String gameId) {
+        gameTables.afterSettle(gameId, () -> startNextHandTimer(gameId));
+    }
+
+    private void startNextHandTimer(String gameId) {
         String taskName = "scheduleNextHand";
         Instant start = Instant.now();
         taskLastExecutions.put(taskName, start);
@@ -219,7 +225,7 @@ public class GameScheduler {
             // Schedule the new hand start after delay
             ScheduledFuture<?> future = taskScheduler.schedule(() -> {
                 try {
-                    Game game = gameRepository.findById(gameId).orElse(null);
+                    Game game = findGame(gameId);
                     if (game != null && game.getStatus() == Game.GameStatus.WAITING) {
                         gameService.startNewHand(gameId);
                         logger.info("Started new hand for game {} after delay", gameId);
@@ -250,12 +256,16 @@ public class GameScheduler {
     }
 
     /**
-     * Schedule a player timeout action with delay
+     * Schedule a player timeout action with delay, once the calling action has settled
      * 
      * @param gameId   The ID of the game
      * @param playerId The ID of the player who timed out
      */
     public void schedulePlayerTimeout(String gameId, String playerId) {
+        gameTables.afterSettle(gameId, () -> startPlayerTimer(gameId, playerId));
+    }
+
+    private void startPlayerTimer(String gameId, String playerId) {
         String taskName = "schedulePlayerTimeout";
         Instant start = Instant.now();
         taskLastExecutions.put(taskName, start);
@@ -300,7 +310,7 @@ public class GameScheduler {
         // Create a unique key for this timeout
         String timeoutKey = gameId + ":" + playerId;
         try {
-            Game game = gameRepository.findById(gameId).orElse(null);
+            Game game = findGame(gameId);
             if (game != null && game.getStatus() != Game.GameStatus.WAITING) {
                 // Double check that this player is still the current player
                 if (game.isPlayersTurn(playerId)) {
@@ -342,32 +352,54 @@ public class GameScheduler {
         }
     }
 
+    // Current table state; the action taken afterwards re-validates it on the table
+    private Game findGame(String gameId) {
+        try {
+            return gameTables.load(gameId);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cancels a player's timeout once the calling action has settled, so a failed action
+     * leaves the player on the clock.
+     *
+     * @return the time bank the player has used so far
+     */
     public long cancelPlayerTimeout(String gameId, String playerId) {
         // Create a unique key for this timeout
         String timeoutKey = gameId + ":" + playerId;
         long usedTimeBankMs = 0;
 
-        ScheduledFuture<?> existingTask = scheduledPlayerTimeouts.remove(timeoutKey);
-        if (existingTask != null && !existingTask.isDone()) {
-            existingTask.cancel(false);
-            logger.debug("Cancelled scheduled timeout for {}", timeoutKey);
-        }
-
         // Calculate and return used time bank if applicable
-        Instant tbStart = timeBankStartTimes.remove(timeoutKey);
+        Instant tbStart = timeBankStartTimes.get(timeoutKey);
         if (tbStart != null) {
             usedTimeBankMs = Duration.between(tbStart, Instant.now()).toMillis();
             logger.info("Player {} used {} ms of Time Bank", playerId, usedTimeBankMs);
         }
+
+        gameTables.afterSettle(gameId, () -> {
+            ScheduledFuture<?> existingTask = scheduledPlayerTimeouts.remove(timeoutKey);
+            if (existingTask != null && !existingTask.isDone()) {
+                existingTask.cancel(false);
+                logger.debug("Cancelled scheduled timeout for {}", timeoutKey);
+            }
+            timeBankStartTimes.remove(timeoutKey);
+        });
         return usedTimeBankMs;
     }
 
     /**
-     * Schedule the next all-in action for a game
+     * Schedule the next all-in action for a game, once the calling action has settled
      * 
      * @param gameId The ID of the game
      */
     public void scheduleAllInAction(String gameId) {
+        gameTables.afterSettle(gameId, () -> startAllInTimer(gameId));
+    }
+
+    private void startAllInTimer(String gameId) {
         String taskName = "scheduleAllInAction";
         Instant start = Instant.now();
         taskLastExecutions.put(taskName, start);
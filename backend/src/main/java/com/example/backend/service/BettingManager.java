@@ -59,7 +59,7 @@ public class BettingManager {
         gameScheduler.schedulePlayerTimeout(game.getId(), currentPlayerId);
 
         // Publish event for round started
-        eventPublisher.publishEvent(new RoundStartedEvent(game.getId(), game, roundType));
+        eventPublisher.publishEvent(new RoundStartedEvent(game.getId(), new Game(game), roundType));
 
         logger.debug("Betting round started. Updated game state: {}", game);
     }
@@ -314,7 +314,7 @@ public class BettingManager {
             eventPublisher.publishEvent(new GameEndedEvent(
                     game.getId(),
                     new Game(game),
-                    List.of(winner),
+                    List.of(new Player(winner)),
                     winner.getBestHand() // Use the winner's best hand
             ));
 
@@ -330,12 +330,15 @@ public class BettingManager {
         }
 
         try {
+            // Score every hand once; HandResult is only built for the winners' display.
+            // Identity map: Player's hashCode covers chips, which change when pots are awarded.
+            Map<Player, Integer> strengths = new IdentityHashMap<>();
             for (Player player : activePlayers) {
-                HandResult result = handEvaluator.evaluateHand(
+                int strength = handEvaluator.evaluateStrength(
                         player.getHand(),
                         game.getCommunityCards());
-                player.setBestHand(result);
-                logger.debug("Player {} hand evaluated as: {}", player.getUsername(), result.getRank());
+                strengths.put(player, strength);
+                logger.debug("Player {} hand evaluated as: {}", player.getUsername(), HandEvaluator.rankOf(strength));
             }
 
             // Process each pot separately
@@ -366,19 +369,15 @@ public class BettingManager {
                         potIndex, eligiblePlayers.size(), potAmount);
 
                 // Find the best hand among eligible players
-                HandResult bestResult = null;
+                int bestStrength = Integer.MIN_VALUE;
                 for (Player player : eligiblePlayers) {
-                    HandResult result = player.getBestHand();
-                    if (bestResult == null || compareHandResults(result, bestResult) > 0) {
-                        bestResult = result;
-                    }
+                    bestStrength = Math.max(bestStrength, strengths.get(player));
                 }
 
                 // Find all winners for this pot
                 List<Player> potWinners = new ArrayList<>();
                 for (Player player : eligiblePlayers) {
-                    HandResult result = player.getBestHand();
-                    if (compareHandResults(result, bestResult) == 0) {
+                    if (strengths.get(player) == bestStrength) {
                         potWinners.add(player);
                     }
                 }
@@ -413,12 +412,16 @@ public class BettingManager {
                 logger.debug("Player {} awarded total of {}", winner.getUsername(), winAmount);
             }
 
-            // Get the best hand from all winners (for display purposes)
+            // Build display hands for the winners and pick the best overall one
             HandResult bestOverallHand = null;
+            int bestOverallStrength = Integer.MIN_VALUE;
             for (Player winner : allWinners) {
-                HandResult winnerHand = winner.getBestHand();
-                if (bestOverallHand == null || (winnerHand != null &&
-                        compareHandResults(winnerHand, bestOverallHand) > 0)) {
+                int strength = strengths.get(winner);
+                HandResult winnerHand = handEvaluator.toHandResult(strength,
+                        CardMask.of(winner.getHand()) | CardMask.of(game.getCommunityCards()));
+                winner.setBestHand(winnerHand);
+                if (strength > bestOverallStrength) {
+                    bestOverallStrength = strength;
                     bestOverallHand = winnerHand;
                 }
             }
@@ -427,7 +430,7 @@ public class BettingManager {
             eventPublisher.publishEvent(new GameEndedEvent(
                     game.getId(),
                     new Game(game),
-                    allWinners,
+                    allWinners.stream().map(Player::new).toList(),
                     bestOverallHand // Use the best overall hand for display
             ));
 
@@ -445,32 +448,6 @@ public class BettingManager {
         }
     }
 
-    // Compare two hand results
-    private int compareHandResults(HandResult result1, HandResult result2) {
-        // First compare hand ranks
-        int rankComparison = result1.getRank().ordinal() - result2.getRank().ordinal();
-        if (rankComparison != 0) {
-            return rankComparison;
-        }
-
-        // If ranks are the same, compare high cards
-        List<Card> highCards1 = result1.getHighCards();
-        List<Card> highCards2 = result2.getHighCards();
-
-        int minSize = Math.min(highCards1.size(), highCards2.size());
-
-        for (int i = 0; i < minSize; i++) {
-            int valueComparison = highCards1.get(i).getRank().getValue() -
-                    highCards2.get(i).getRank().getValue();
-            if (valueComparison != 0) {
-                return valueComparison;
-            }
-        }
-
-        // If we get here, the hands are identical in rank
-        return 0;
-    }
-
     public int getActivePlayerCount(Game game) {
         return (int) game.getPlayers().stream()
                 .filter(Player::isActive)
@@ -493,7 +470,7 @@ public class BettingManager {
      * Use an incremental approach to correctly handle side pots across multiple
      * rounds
      */
-    private void updatePotAmounts(Game game) {
+    void updatePotAmounts(Game game) {
         logger.info("Updating pot amounts for game with ID: {}", game.getId());
 
         // 1. Snapshot current round bets
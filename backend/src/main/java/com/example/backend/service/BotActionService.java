@@ -1,8 +1,8 @@
 package com.example.backend.service;
 
 import com.example.backend.entity.Game;
+import com.example.backend.model.EquityResult;
 import com.example.backend.model.Player;
-import com.example.backend.repository.GameRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -35,14 +35,15 @@ public class BotActionService {
     private boolean geminiEnabled;
 
     private final GameService gameService;
-    private final GameRepository gameRepository;
+    private final GameTableRegistry gameTables;
+    private final EquityCalculator equityCalculator;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final RestTemplate restTemplate = new RestTemplate();
 
     public void takeTurn(String gameId, String botPlayerId) {
         try {
             // Re-fetch latest game state before acting
-            Game game = gameRepository.findById(gameId).orElse(null);
+            Game game = gameTables.residentSnapshot(gameId).orElse(null);
             if (game == null || game.getStatus() == Game.GameStatus.WAITING
                     || game.getStatus() == Game.GameStatus.FINISHED) {
                 return;
@@ -59,7 +60,11 @@ public class BotActionService {
             String difficulty = bot.getBotDifficulty() != null ? bot.getBotDifficulty() : "MEDIUM";
             String model = "HARD".equals(difficulty) ? PRO_MODEL : FLASH_LITE_MODEL;
 
-            GeminiAction action = callGemini(model, buildSystemPrompt(difficulty), buildGameStatePrompt(game, bot));
+            EquityResult equity = estimateEquity(game, bot);
+            GeminiAction action = callGemini(model, buildSystemPrompt(difficulty), buildGameStatePrompt(game, bot, equity));
+            if (action == null) {
+                action = fallbackAction(game, bot, equity);
+            }
             executeAction(gameId, game, bot, action);
         } catch (Exception e) {
             logger.error("Bot turn error for player {} in game {}: {}", botPlayerId, gameId, e.getMessage());
@@ -84,7 +89,7 @@ public class BotActionService {
                 """.formatted(difficulty.toLowerCase(), persona);
     }
 
-    private String buildGameStatePrompt(Game game, Player bot) {
+    private String buildGameStatePrompt(Game game, Player bot, EquityResult equity) {
         long activePlayers = game.getPlayers().stream()
                 .filter(p -> !p.isHasFolded() && p.isActive()).count();
 
@@ -101,7 +106,12 @@ public class BotActionService {
         if (bot.getHand() != null) {
             bot.getHand().forEach(c -> sb.append(c.getRank()).append(" of ").append(c.getSuit()).append("\n"));
         }
-        sb.append("Your chips: ").append(bot.getChips()).append("\n\n");
+        sb.append("Your chips: ").append(bot.getChips()).append("\n");
+        if (equity != null) {
+            sb.append("Estimated equity vs ").append(equity.getOpponents()).append(" opponent(s): ")
+              .append(Math.round(equity.getEquity() * 100)).append("%\n");
+        }
+        sb.append("\n");
 
         sb.append("=== COMMUNITY CARDS ===\n");
         if (game.getCommunityCards() != null && !game.getCommunityCards().isEmpty()) {
@@ -123,8 +133,8 @@ public class BotActionService {
 
     private GeminiAction callGemini(String model, String system, String user) {
         if (!geminiEnabled || apiKey == null || apiKey.isBlank()) {
-            logger.warn("Gemini is disabled or API key not set — bot using random fallback");
-            return randomFallbackAction();
+            logger.warn("Gemini is disabled or API key not set — bot using fallback");
+            return null;
         }
         try {
             String url = GEMINI_URL.formatted(model, apiKey);
@@ -144,8 +154,8 @@ public class BotActionService {
             String text = root.at("/candidates/0/content/parts/0/text").asText();
             return objectMapper.readValue(text, GeminiAction.class);
         } catch (Exception e) {
-            logger.warn("Gemini call failed: {} — using random fallback", e.getMessage());
-            return randomFallbackAction();
+            logger.warn("Gemini call failed: {} — using fallback", e.getMessage());
+            return null;
         }
     }
 
@@ -163,9 +173,11 @@ public class BotActionService {
                 }
                 case "CALL"  -> gameService.placeBet(gameId, bot.getId(), callAmount(game, bot));
                 case "RAISE" -> {
-                    double raiseAmount = Math.min(action.amount(), bot.getChips());
-                    if (raiseAmount > game.getCurrentBet()) {
-                        gameService.placeBet(gameId, bot.getId(), raiseAmount);
+                    // amount is the total to raise to; placeBet takes the chips added on top of
+                    // what the bot already has in, capped at its stack (an all-in).
+                    double raiseTo = Math.min(action.amount(), allInAmount(game, bot));
+                    if (raiseTo > game.getCurrentBet()) {
+                        gameService.placeBet(gameId, bot.getId(), raiseTo - alreadyBet(game, bot));
                     } else {
                         gameService.placeBet(gameId, bot.getId(), callAmount(game, bot));
                     }
@@ -179,10 +191,58 @@ public class BotActionService {
     }
 
     private double callAmount(Game game, Player bot) {
-        double alreadyBet = game.getCurrentBettingRound() != null
+        return Math.min(game.getCurrentBet() - alreadyBet(game, bot), bot.getChips());
+    }
+
+    private double alreadyBet(Game game, Player bot) {
+        return game.getCurrentBettingRound() != null
                 ? game.getCurrentBettingRound().getBets().getOrDefault(bot.getId(), 0.0)
                 : 0.0;
-        return Math.min(game.getCurrentBet() - alreadyBet, bot.getChips());
+    }
+
+    /** The most the bot can raise to this round: its stack plus what it already has in. */
+    private double allInAmount(Game game, Player bot) {
+        return bot.getChips() + alreadyBet(game, bot);
+    }
+
+    private EquityResult estimateEquity(Game game, Player bot) {
+        if (bot.getHand() == null || bot.getHand().size() != 2) {
+            return null;
+        }
+        try {
+            return equityCalculator.calculateForPlayer(game, bot.getId());
+        } catch (Exception e) {
+            logger.warn("Equity estimate failed for bot {}: {}", bot.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Pot-odds play when Gemini is unavailable: call when equity covers the price,
+     * raise strong hands, otherwise check or fold.
+     */
+    private GeminiAction fallbackAction(Game game, Player bot, EquityResult equity) {
+        if (equity == null) {
+            return randomFallbackAction();
+        }
+        double toCall = callAmount(game, bot);
+        double potOdds = toCall <= 0 ? 0 : toCall / (game.getPot() + toCall);
+        double fairShare = 1.0 / (equity.getOpponents() + 1);
+
+        if (equity.getEquity() > Math.max(0.6, fairShare * 1.5)) {
+            double minRaise = Math.max(game.getCurrentBet() * 2, game.getBigBlindAmount() * 2);
+            double allIn = allInAmount(game, bot);
+            if (allIn > game.getCurrentBet()) {
+                // Short of the minimum raise: shove the stack rather than send a raise it can't cover
+                return new GeminiAction("RAISE", (int) Math.min(minRaise, allIn));
+            }
+            // Can't even cover the current bet — calling puts the whole stack in
+            return new GeminiAction("CALL", 0);
+        }
+        if (toCall <= 0) {
+            return new GeminiAction("CHECK", 0);
+        }
+        return equity.getEquity() >= potOdds ? new GeminiAction("CALL", 0) : new GeminiAction("FOLD", 0);
     }
 
     private GeminiAction randomFallbackAction() {
@@ -3,7 +3,6 @@ package com.example.backend.service;
 import com.example.backend.entity.Game;
 import com.example.backend.model.BotDifficulty;
 import com.example.backend.model.Player;
-import com.example.backend.repository.GameRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,16 +21,16 @@ public class BotService {
     private static final Logger logger = LoggerFactory.getLogger(BotService.class);
 
     private final GameLifecycleService lifecycleService;
-    private final GameRepository gameRepository;
+    private final GameTableRegistry gameTables;
     private final BotActionService botActionService;
     private final org.springframework.scheduling.TaskScheduler taskScheduler;
 
     private final ConcurrentHashMap<String, Set<String>> activeBots = new ConcurrentHashMap<>();
 
-    public BotService(GameLifecycleService lifecycleService, GameRepository gameRepository, 
+    public BotService(GameLifecycleService lifecycleService, GameTableRegistry gameTables,
                       BotActionService botActionService, org.springframework.scheduling.TaskScheduler taskScheduler) {
         this.lifecycleService = lifecycleService;
-        this.gameRepository = gameRepository;
+        this.gameTables = gameTables;
         this.botActionService = botActionService;
         this.taskScheduler = taskScheduler;
     }
@@ -40,19 +39,20 @@ public class BotService {
         String diff = difficulty != null ? difficulty.name() : "MEDIUM";
         String botUsername = "bot-" + UUID.randomUUID().toString().replace("-", "").substring(0, 6);
 
-        // Join as bot (creates guest-style transient player)
-        lifecycleService.joinGame(gameId, botUsername);
+        Player actual = gameTables.call(gameId, () -> {
+            // Join as bot (creates guest-style transient player)
+            lifecycleService.joinGame(gameId, botUsername);
 
-        // Re-fetch game to get the actual player with its persisted ID
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
+            // The join returns a view; flag the table's own player
+            Game game = gameTables.load(gameId);
+            Player player = game.getPlayerByUsername(botUsername);
+            if (player == null) throw new RuntimeException("Bot player not found after join");
 
-        Player actual = game.getPlayerByUsername(botUsername);
-        if (actual == null) throw new RuntimeException("Bot player not found after join");
-
-        actual.setBot(true);
-        actual.setBotDifficulty(diff);
-        gameRepository.save(game);
+            player.setBot(true);
+            player.setBotDifficulty(diff);
+            gameTables.save(game);
+            return new Player(player);
+        });
 
         activeBots.computeIfAbsent(gameId, k -> ConcurrentHashMap.newKeySet()).add(actual.getId());
         logger.info("Bot '{}' ({}) joined game {}", botUsername, diff, gameId);
@@ -61,7 +61,7 @@ public class BotService {
 
     public void removeBot(String gameId, String botPlayerId) {
         try {
-            lifecycleService.leaveGame(gameId, botPlayerId);
+            gameTables.run(gameId, () -> lifecycleService.leaveGame(gameId, botPlayerId));
         } catch (Exception e) {
             logger.warn("Could not remove bot {} from game {}: {}", botPlayerId, gameId, e.getMessage());
         }
@@ -0,0 +1,348 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.CardMask;
+import com.example.backend.model.Deck;
+import com.example.backend.model.EquityResult;
+import com.example.backend.model.Player;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Estimates a hand's pot equity against random opponent holdings on top of
+ * {@link HandEvaluator#evaluate(long)}.
+ * <p>
+ * When the number of possible run-outs is small enough (e.g. heads-up on the turn or river)
+ * every outcome is enumerated; otherwise outcomes are sampled. Both modes split work into
+ * fixed chunks on a dedicated fork-join pool, and every chunk derives its random stream from
+ * the request seed and its chunk index, so a seeded request returns the same answer on any
+ * pool size. Each request carries a latency budget; chunks stop once it is spent and the
+ * result is flagged incomplete.
+ */
+@Service
+public class EquityCalculator {
+    private static final Logger logger = LoggerFactory.getLogger(EquityCalculator.class);
+
+    private static final int BOARD_SIZE = 5;
+    private static final int CHUNKS = 64;
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final ForkJoinPool pool;
+    private final long exhaustiveLimit;
+
+    @Value("${game.equity.samples:20000}")
+    private int defaultSamples = 20000;
+
+    @Value("${game.equity.budget-ms:150}")
+    private long defaultBudgetMs = 150;
+
+    public EquityCalculator(@Value("${game.equity.parallelism:0}") int parallelism,
+                            @Value("${game.equity.exhaustive-limit:200000}") long exhaustiveLimit) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.exhaustiveLimit = exhaustiveLimit;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Equity of a seated player against every opponent still in the hand.
+     */
+    public EquityResult calculateForPlayer(Game game, String playerId) {
+        Player player = game.getPlayerById(playerId);
+        if (player == null) {
+            throw new IllegalArgumentException("Player not found in game: " + playerId);
+        }
+        if (player.getHand() == null || player.getHand().size() != 2) {
+            throw new IllegalArgumentException("Player has no hole cards");
+        }
+        int opponents = (int) game.getPlayers().stream()
+                .filter(p -> !p.getId().equals(playerId) && p.isActive() && !p.isHasFolded())
+                .count();
+        return calculate(CardMask.of(player.getHand()), CardMask.of(game.getCommunityCards()), opponents);
+    }
+
+    public EquityResult calculate(long hole, long board, int opponents) {
+        return calculate(hole, board, opponents, defaultSamples, defaultBudgetMs,
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param hole      mask of the two hole cards
+     * @param board     mask of the 0-5 community cards dealt so far
+     * @param opponents number of opponents holding unknown cards
+     * @param samples   Monte Carlo samples when enumeration is too large
+     * @param budgetMs  latency budget for this request
+     * @param seed      seed for sampling; equal seeds give equal results
+     */
+    public EquityResult calculate(long hole, long board, int opponents, int samples, long budgetMs, long seed) {
+        if (CardMask.size(hole) != 2) {
+            throw new IllegalArgumentException("Player must have exactly 2 cards");
+        }
+        if (CardMask.size(board) > BOARD_SIZE || (hole & board) != 0) {
+            throw new IllegalArgumentException("Invalid community cards");
+        }
+        if (opponents < 0 || 2 * opponents + BOARD_SIZE + 2 > Deck.STANDARD_DECK_SIZE) {
+            throw new IllegalArgumentException("Invalid number of opponents: " + opponents);
+        }
+        if (opponents == 0) {
+            return new EquityResult(1.0, 1.0, 0.0, 0, 1, true, true);
+        }
+
+        Spec spec = new Spec(hole, board, opponents, System.nanoTime() + budgetMs * 1_000_000L);
+        boolean exhaustive = spec.outcomeCount() <= exhaustiveLimit;
+
+        List<ForkJoinTask<Tally>> tasks = new ArrayList<>();
+        if (exhaustive) {
+            // Split on the first unknown card of the first slot to fill
+            for (int first = 0; first < spec.available.length; first++) {
+                tasks.add(new EnumerateChunk(spec, first));
+            }
+        } else {
+            // Spread the remainder one each over the first chunks so the total is exact
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                int count = samples / CHUNKS + (chunk < samples % CHUNKS ? 1 : 0);
+                if (count > 0) {
+                    tasks.add(new SampleChunk(spec, count, seed + chunk * SEED_GAMMA));
+                }
+            }
+        }
+
+        Tally total = pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected Tally compute() {
+                Tally sum = new Tally();
+                for (ForkJoinTask<Tally> task : invokeAll(tasks)) {
+                    sum.add(task.join());
+                }
+                return sum;
+            }
+        });
+
+        logger.debug("Equity computed over {} outcomes (exhaustive={}, complete={})",
+                total.outcomes, exhaustive, total.complete);
+        return total.toResult(opponents, exhaustive);
+    }
+
+    // Immutable description of one request shared by all of its chunks
+    private static final class Spec {
+        final long hole;
+        final long board;
+        final int opponents;
+        final int boardNeeded;
+        final int[] available;
+        final long deadline;
+
+        Spec(long hole, long board, int opponents, long deadline) {
+            this.hole = hole;
+            this.board = board;
+            this.opponents = opponents;
+            this.boardNeeded = BOARD_SIZE - CardMask.size(board);
+            this.deadline = deadline;
+            long live = CardMask.FULL_DECK & ~hole & ~board;
+            this.available = new int[CardMask.size(live)];
+            int i = 0;
+            for (long rest = live; rest != 0; rest &= rest - 1) {
+                available[i++] = Long.numberOfTrailingZeros(rest);
+            }
+        }
+
+        double outcomeCount() {
+            int unknown = available.length;
+            double count = choose(unknown, boardNeeded);
+            unknown -= boardNeeded;
+            for (int i = 0; i < opponents; i++) {
+                count *= choose(unknown, 2);
+                unknown -= 2;
+            }
+            return count;
+        }
+
+        private static double choose(int n, int k) {
+            double result = 1;
+            for (int i = 0; i < k; i++) {
+                result = result * (n - i) / (i + 1);
+            }
+            return result;
+        }
+    }
+
+    private static final class Tally {
+        long outcomes;
+        long wins;
+        long ties;
+        double share;
+        boolean complete = true;
+
+        void record(int heroScore, int bestOpponent, int opponentsTied) {
+            outcomes++;
+            if (heroScore > bestOpponent) {
+                wins++;
+                share += 1.0;
+            } else if (heroScore == bestOpponent) {
+                ties++;
+                share += 1.0 / (opponentsTied + 1);
+            }
+        }
+
+        void add(Tally other) {
+            outcomes += other.outcomes;
+            wins += other.wins;
+            ties += other.ties;
+            share += other.share;
+            complete &= other.complete;
+        }
+
+        EquityResult toResult(int opponents, boolean exhaustive) {
+            if (outcomes == 0) {
+                return new EquityResult(0, 0, 0, opponents, 0, exhaustive, false);
+            }
+            return new EquityResult(share / outcomes, (double) wins / outcomes, (double) ties / outcomes,
+                    opponents, (int) outcomes, exhaustive, complete);
+        }
+    }
+
+    private static final class SampleChunk extends RecursiveTask<Tally> {
+        private final Spec spec;
+        private final int samples;
+        private final long seed;
+
+        SampleChunk(Spec spec, int samples, long seed) {
+            this.spec = spec;
+            this.samples = samples;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Tally compute() {
+            Tally tally = new Tally();
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] cards = spec.available.clone();
+            int draw = spec.boardNeeded + 2 * spec.opponents;
+
+            for (int s = 0; s < samples; s++) {
+                if (s % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > spec.deadline) {
+                    tally.complete = false;
+                    break;
+                }
+                // Partial Fisher-Yates: the first `draw` slots become this sample's unknown cards
+                for (int i = 0; i < draw; i++) {
+                    int j = i + random.nextInt(cards.length - i);
+                    int tmp = cards[i];
+                    cards[i] = cards[j];
+                    cards[j] = tmp;
+                }
+
+                long board = spec.board;
+                int next = 0;
+                for (; next < spec.boardNeeded; next++) {
+                    board |= CardMask.bit(cards[next]);
+                }
+
+                int best = Integer.MIN_VALUE;
+                int tied = 0;
+                for (int o = 0; o < spec.opponents; o++, next += 2) {
+                    int score = HandEvaluator.evaluate(board | CardMask.bit(cards[next]) | CardMask.bit(cards[next + 1]));
+                    if (score > best) {
+                        best = score;
+                        tied = 1;
+                    } else if (score == best) {
+                        tied++;
+                    }
+                }
+                tally.record(HandEvaluator.evaluate(board | spec.hole), best, tied);
+            }
+            return tally;
+        }
+    }
+
+    private static final class EnumerateChunk extends RecursiveTask<Tally> {
+        private final Spec spec;
+        private final int first;
+        private final Tally tally = new Tally();
+        private long visited;
+
+        EnumerateChunk(Spec spec, int first) {
+            this.spec = spec;
+            this.first = first;
+        }
+
+        @Override
+        protected Tally compute() {
+            int[] cards = spec.available;
+            long firstBit = CardMask.bit(cards[first]);
+            if (spec.boardNeeded > 0) {
+                dealBoard(first + 1, spec.boardNeeded - 1, spec.board | firstBit, firstBit);
+            } else {
+                // Board is complete: the chunk fixes the lower card of the first opponent's hand
+                int heroScore = HandEvaluator.evaluate(spec.board | spec.hole);
+                for (int second = first + 1; second < cards.length && tally.complete; second++) {
+                    long hand = firstBit | CardMask.bit(cards[second]);
+                    int score = HandEvaluator.evaluate(spec.board | hand);
+                    dealOpponents(1, spec.board, hand, heroScore, score, 1);
+                }
+            }
+            return tally;
+        }
+
+        private void dealBoard(int from, int remaining, long board, long used) {
+            if (!tally.complete) {
+                return;
+            }
+            if (remaining == 0) {
+                dealOpponents(0, board, used, HandEvaluator.evaluate(board | spec.hole), Integer.MIN_VALUE, 0);
+                return;
+            }
+            int[] cards = spec.available;
+            for (int i = from; i <= cards.length - remaining; i++) {
+                long bit = CardMask.bit(cards[i]);
+                dealBoard(i + 1, remaining - 1, board | bit, used | bit);
+            }
+        }
+
+        private void dealOpponents(int opponent, long board, long used, int heroScore, int best, int tied) {
+            if (!tally.complete) {
+                return;
+            }
+            if (opponent == spec.opponents) {
+                tally.record(heroScore, best, tied);
+                if (++visited % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > spec.deadline) {
+                    tally.complete = false;
+                }
+                return;
+            }
+            int[] cards = spec.available;
+            for (int a = 0; a < cards.length; a++) {
+                long aBit = CardMask.bit(cards[a]);
+                if ((used & aBit) != 0) {
+                    continue;
+                }
+                for (int b = a + 1; b < cards.length; b++) {
+                    long bBit = CardMask.bit(cards[b]);
+                    if ((used & bBit) != 0) {
+                        continue;
+                    }
+                    int score = HandEvaluator.evaluate(board | aBit | bBit);
+                    int nextBest = Math.max(best, score);
+                    int nextTied = score > best ? 1 : score == best ? tied + 1 : tied;
+                    dealOpponents(opponent + 1, board, used | aBit | bBit, heroScore, nextBest, nextTied);
+                }
+            }
+        }
+    }
+}
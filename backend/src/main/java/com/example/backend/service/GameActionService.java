@@ -4,7 +4,6 @@ import com.example.backend.entity.Game;
 import com.example.backend.event.PlayerActionEvent;
 import com.example.backend.model.Player;
 import com.example.backend.publisher.GameEventPublisher;
-import com.example.backend.repository.GameRepository;
 import com.example.backend.scheduler.GameScheduler;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -20,7 +19,7 @@ import java.time.ZoneOffset;
 public class GameActionService {
     private static final Logger logger = LoggerFactory.getLogger(GameActionService.class);
 
-    private final GameRepository gameRepository;
+    private final GameTableRegistry gameTables;
     private final GameValidatorService gameValidatorService;
     private final BettingManager bettingManager;
     private final GameEventPublisher eventPublisher;
@@ -47,12 +46,12 @@ public class GameActionService {
             gameScheduler.schedulePlayerTimeout(game.getId(), currentPlayerId);
 
             eventPublisher.publishEvent(new PlayerActionEvent(
-                    gameId, player, PlayerActionEvent.ActionType.BET, amount, new Game(game)));
+                    gameId, new Player(player), PlayerActionEvent.ActionType.BET, amount, new Game(game)));
 
             bettingManager.handleCurrentBettingRound(game, playerId);
 
             game.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-            gameRepository.save(game);
+            gameTables.save(game);
         } catch (Exception e) {
             if (e.getMessage() != null && (e.getMessage().contains("server session pool is open") || e.getMessage().contains("state should be: open"))) {
                 logger.debug("Could not place bet (database shutting down): {}", e.getMessage());
@@ -83,12 +82,12 @@ public class GameActionService {
             gameScheduler.schedulePlayerTimeout(game.getId(), currentPlayerId);
 
             eventPublisher.publishEvent(new PlayerActionEvent(
-                    gameId, player, PlayerActionEvent.ActionType.CHECK, 0.0, new Game(game)));
+                    gameId, new Player(player), PlayerActionEvent.ActionType.CHECK, 0.0, new Game(game)));
 
             bettingManager.handleCurrentBettingRound(game, playerId);
 
             game.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-            gameRepository.save(game);
+            gameTables.save(game);
         } catch (Exception e) {
             if (e.getMessage() != null && (e.getMessage().contains("server session pool is open") || e.getMessage().contains("state should be: open"))) {
                 logger.debug("Could not check (database shutting down): {}", e.getMessage());
@@ -119,12 +118,12 @@ public class GameActionService {
             gameScheduler.schedulePlayerTimeout(game.getId(), currentPlayerId);
 
             eventPublisher.publishEvent(new PlayerActionEvent(
-                    gameId, player, PlayerActionEvent.ActionType.FOLD, null, new Game(game)));
+                    gameId, new Player(player), PlayerActionEvent.ActionType.FOLD, null, new Game(game)));
 
             bettingManager.handleCurrentBettingRound(game, playerId);
 
             game.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-            gameRepository.save(game);
+            gameTables.save(game);
         } catch (Exception e) {
             if (e.getMessage() != null && (e.getMessage().contains("server session pool is open") || e.getMessage().contains("state should be: open"))) {
                 logger.debug("Could not fold (database shutting down): {}", e.getMessage());
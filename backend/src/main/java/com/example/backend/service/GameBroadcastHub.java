@@ -0,0 +1,445 @@
+package com.example.backend.service;
+
+import com.example.backend.model.GameUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fans game updates out to the {@code gameUpdated} and {@code playerUpdated} subscribers.
+ * <p>
+ * Subscribers are grouped by table, with the private streams indexed by player, so closing
+ * a table completes its streams without looking at any other table's. Every subscriber has
+ * its own buffer of {@code game.broadcast.buffer-size} updates; when a client reads slower
+ * than updates arrive and its buffer is full, {@code game.broadcast.slow-consumer-policy}
+ * decides: {@code DROP_OLDEST} drops the oldest buffered update, {@code CONFLATE} replaces
+ * the whole backlog with the newest update, {@code DISCONNECT} ends the subscription with an
+ * error so the client can resubscribe and start fresh. Nothing else is held for it.
+ * <p>
+ * Delta subscribers of {@code gameUpdated} get the patch form of each public update instead,
+ * and open with a snapshot of the table (see {@link GameStateTracker}).
+ * <p>
+ * Every update is stamped with the table's next {@code seq} and kept in a ring of the
+ * table's last {@code game.broadcast.replay-size} updates. Seqs count from 1 again after a
+ * restart, or when a closed table opens again, so each run of a table's seqs carries its own
+ * random {@code epoch}. A client that reconnects with {@code fromSeq} and {@code fromEpoch},
+ * the last seq and epoch it received, is first sent what it missed on its stream from the
+ * ring; if the epoch is not the table's current one, or the ring no longer reaches back that
+ * far, it is sent a snapshot instead.
+ */
+@Service
+public class GameBroadcastHub {
+    private static final Logger logger = LoggerFactory.getLogger(GameBroadcastHub.class);
+
+    public enum SlowConsumerPolicy {
+        DROP_OLDEST, CONFLATE, DISCONNECT
+    }
+
+    private final int bufferSize;
+    private final SlowConsumerPolicy policy;
+    private final int replaySize;
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final Map<String, Replay> replays = new ConcurrentHashMap<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong replayMisses = new AtomicLong();
+
+    public GameBroadcastHub(@Value("${game.broadcast.buffer-size:256}") int bufferSize,
+                            @Value("${game.broadcast.slow-consumer-policy:DROP_OLDEST}") SlowConsumerPolicy policy,
+                            @Value("${game.broadcast.replay-size:128}") int replaySize) {
+        if (bufferSize < 1 || replaySize < 1) {
+            throw new IllegalArgumentException("Broadcast buffer and replay sizes must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+        this.replaySize = replaySize;
+    }
+
+    public Flux<GameUpdate> gameUpdates(String gameId) {
+        return subscribe(gameId, null, false, null, null, null);
+    }
+
+    /**
+     * Public updates after {@code fromSeq} of {@code fromEpoch}, replayed or, when the ring
+     * does not reach back that far, opening with {@code snapshot}.
+     */
+    public Flux<GameUpdate> gameUpdates(String gameId, long fromSeq, String fromEpoch,
+                                        Supplier<GameUpdate> snapshot) {
+        return subscribe(gameId, null, false, fromSeq, fromEpoch, snapshot);
+    }
+
+    public Flux<GameUpdate> deltaUpdates(String gameId, Supplier<GameUpdate> snapshot) {
+        return deltaUpdates(gameId, null, null, snapshot);
+    }
+
+    /**
+     * Public updates in their delta form, after {@code fromSeq} if the ring still holds them
+     * and otherwise opening with {@code snapshot}. The snapshot is taken once the subscriber
+     * is registered, so no patch published in between is missed, and the buffered patches it
+     * already covers are skipped.
+     */
+    public Flux<GameUpdate> deltaUpdates(String gameId, Long fromSeq, String fromEpoch,
+                                         Supplier<GameUpdate> snapshot) {
+        return subscribe(gameId, null, true, fromSeq, fromEpoch, snapshot);
+    }
+
+    public Flux<GameUpdate> playerUpdates(String gameId, String playerId) {
+        return subscribe(gameId, playerId, false, null, null, null);
+    }
+
+    public Flux<GameUpdate> playerUpdates(String gameId, String playerId, long fromSeq, String fromEpoch,
+                                          Supplier<GameUpdate> snapshot) {
+        return subscribe(gameId, playerId, false, fromSeq, fromEpoch, snapshot);
+    }
+
+    public void publish(String gameId, GameUpdate update) {
+        publish(gameId, update, update);
+    }
+
+    /**
+     * Publishes a public update, with {@code delta} as what the delta subscribers receive.
+     */
+    public void publish(String gameId, GameUpdate update, GameUpdate delta) {
+        Replay replay = replays.computeIfAbsent(gameId, id -> new Replay());
+        // Held while offering so every subscriber buffers the table's updates in seq order
+        synchronized (replay) {
+            replay.add(null, update, delta);
+            Table table = tables.get(gameId);
+            if (table != null) {
+                published.incrementAndGet();
+                table.forEach(null, subscriber -> subscriber.offer(update));
+                table.deltas.forEach(subscriber -> subscriber.offer(delta));
+            }
+        }
+    }
+
+    public void publishToPlayer(String gameId, String playerId, GameUpdate update) {
+        Replay replay = replays.computeIfAbsent(gameId, id -> new Replay());
+        synchronized (replay) {
+            replay.add(playerId, update, update);
+            Table table = tables.get(gameId);
+            if (table != null) {
+                published.incrementAndGet();
+                table.forEach(playerId, subscriber -> subscriber.offer(update));
+            }
+        }
+    }
+
+    /**
+     * Completes every stream of the table, public and private.
+     */
+    public void close(String gameId) {
+        replays.remove(gameId);
+        Table table = tables.remove(gameId);
+        if (table != null) {
+            table.forEachAll(Subscriber::complete);
+        }
+    }
+
+    /**
+     * The epoch of the table's current seqs, null before its first update.
+     */
+    public String epoch(String gameId) {
+        Replay replay = replays.get(gameId);
+        return replay == null ? null : replay.epoch;
+    }
+
+    public int subscriberCount(String gameId) {
+        Table table = tables.get(gameId);
+        return table == null ? 0 : table.size();
+    }
+
+    /**
+     * Updates buffered for the table's slowest subscriber.
+     */
+    public int lag(String gameId) {
+        Table table = tables.get(gameId);
+        if (table == null) {
+            return 0;
+        }
+        int[] lag = {0};
+        table.forEachAll(subscriber -> lag[0] = Math.max(lag[0], subscriber.buffered()));
+        return lag[0];
+    }
+
+    private Flux<GameUpdate> subscribe(String gameId, String playerId, boolean delta, Long fromSeq,
+                                       String fromEpoch, Supplier<GameUpdate> snapshot) {
+        return Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(sink, delta, !delta && fromSeq == null);
+            tables.compute(gameId, (id, table) -> {
+                Table joined = table != null ? table : new Table();
+                joined.add(playerId, subscriber);
+                return joined;
+            });
+            sink.onRequest(n -> subscriber.drain());
+            sink.onDispose(() -> tables.computeIfPresent(gameId, (id, table) -> {
+                table.remove(playerId, subscriber);
+                return table.size() == 0 ? null : table;
+            }));
+            if (!subscriber.primed) {
+                try {
+                    prime(gameId, playerId, subscriber, fromSeq, fromEpoch, snapshot);
+                } catch (RuntimeException e) {
+                    sink.error(e);
+                }
+            }
+        });
+    }
+
+    // Runs once the subscriber is registered, so whatever it buffers meanwhile is newer than
+    // the seq read here
+    private void prime(String gameId, String playerId, Subscriber subscriber, Long fromSeq,
+                       String fromEpoch, Supplier<GameUpdate> snapshot) {
+        // Created here too, so the snapshot of a table with no updates yet has an epoch to resume
+        Replay replay = replays.computeIfAbsent(gameId, id -> new Replay());
+        List<GameUpdate> head = null;
+        long covered;
+        synchronized (replay) {
+            covered = replay.lastSeq;
+            if (fromSeq != null) {
+                head = replay.since(fromSeq, fromEpoch, playerId, subscriber.delta);
+            }
+        }
+        if (fromSeq != null) {
+            if (head != null) {
+                replayed.addAndGet(head.size());
+            } else {
+                replayMisses.incrementAndGet();
+            }
+        }
+        if (head == null) {
+            GameUpdate first = snapshot.get();
+            first.setSeq(covered);
+            first.setEpoch(replay.epoch);
+            head = List.of(first);
+        }
+        subscriber.prime(head, covered);
+    }
+
+    // Changed only inside tables.compute, so a table is never dropped while joining
+    private static final class Table {
+        final Set<Subscriber> spectators = ConcurrentHashMap.newKeySet();
+        final Set<Subscriber> deltas = ConcurrentHashMap.newKeySet();
+        final Map<String, Set<Subscriber>> players = new ConcurrentHashMap<>();
+
+        void add(String playerId, Subscriber subscriber) {
+            if (subscriber.delta) {
+                deltas.add(subscriber);
+            } else if (playerId == null) {
+                spectators.add(subscriber);
+            } else {
+                players.computeIfAbsent(playerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+        }
+
+        void remove(String playerId, Subscriber subscriber) {
+            if (subscriber.delta) {
+                deltas.remove(subscriber);
+            } else if (playerId == null) {
+                spectators.remove(subscriber);
+            } else {
+                players.computeIfPresent(playerId, (id, set) -> {
+                    set.remove(subscriber);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+
+        void forEach(String playerId, Consumer<Subscriber> action) {
+            Set<Subscriber> subscribers = playerId == null ? spectators : players.get(playerId);
+            if (subscribers != null) {
+                subscribers.forEach(action);
+            }
+        }
+
+        void forEachAll(Consumer<Subscriber> action) {
+            spectators.forEach(action);
+            deltas.forEach(action);
+            players.values().forEach(set -> set.forEach(action));
+        }
+
+        int size() {
+            int size = spectators.size() + deltas.size();
+            for (Set<Subscriber> set : players.values()) {
+                size += set.size();
+            }
+            return size;
+        }
+    }
+
+    // The table's last replaySize updates, by seq; guarded by this
+    private final class Replay {
+        record Entry(long seq, String playerId, GameUpdate update, GameUpdate delta) {
+        }
+
+        final Entry[] ring = new Entry[replaySize];
+        final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+        long lastSeq;
+
+        void add(String playerId, GameUpdate update, GameUpdate delta) {
+            long seq = ++lastSeq;
+            update.setSeq(seq);
+            update.setEpoch(epoch);
+            delta.setSeq(seq);
+            delta.setEpoch(epoch);
+            ring[(int) (seq % replaySize)] = new Entry(seq, playerId, update, delta);
+        }
+
+        /**
+         * The stream's updates after {@code fromSeq}, or null when {@code fromEpoch} is not this
+         * run of seqs, e.g. from before a restart, or some of the updates are no longer held.
+         */
+        List<GameUpdate> since(long fromSeq, String fromEpoch, String playerId, boolean delta) {
+            if (!epoch.equals(fromEpoch) || fromSeq < 0 || fromSeq > lastSeq || fromSeq < lastSeq - replaySize) {
+                return null;
+            }
+            List<GameUpdate> missed = new ArrayList<>();
+            for (long seq = fromSeq + 1; seq <= lastSeq; seq++) {
+                Entry entry = ring[(int) (seq % replaySize)];
+                if (Objects.equals(entry.playerId(), playerId)) {
+                    missed.add(delta ? entry.delta() : entry.update());
+                }
+            }
+            return missed;
+        }
+    }
+
+    private final class Subscriber {
+        final FluxSink<GameUpdate> sink;
+        final boolean delta;
+        // Guarded by this
+        final ArrayDeque<GameUpdate> buffer = new ArrayDeque<>();
+        boolean done; // takes no more updates
+        boolean completing; // completes once the buffer is delivered
+        boolean primed; // delivers nothing before its snapshot or replay
+
+        Subscriber(FluxSink<GameUpdate> sink, boolean delta, boolean primed) {
+            this.sink = sink;
+            this.delta = delta;
+            this.primed = primed;
+        }
+
+        /**
+         * Puts {@code head} before what was buffered since registering, dropping the buffered
+         * updates it already covers: those up to {@code covered}, and for a delta snapshot
+         * the patches up to its version.
+         */
+        void prime(List<GameUpdate> head, long covered) {
+            synchronized (this) {
+                buffer.removeIf(update -> update.getSeq() != null && update.getSeq() <= covered);
+                GameUpdate first = head.isEmpty() ? null : head.get(0);
+                if (first != null && first.getType() == GameUpdate.GameUpdateType.SNAPSHOT
+                        && first.getVersion() != null) {
+                    long version = first.getVersion();
+                    buffer.removeIf(update -> update.getPatch() != null && update.getVersion() <= version);
+                }
+                for (int i = head.size() - 1; i >= 0; i--) {
+                    buffer.addFirst(head.get(i));
+                }
+                primed = true;
+            }
+            drain();
+        }
+
+        synchronized int buffered() {
+            return buffer.size();
+        }
+
+        void offer(GameUpdate update) {
+            boolean disconnect = false;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    switch (policy) {
+                        case DROP_OLDEST -> {
+                            buffer.poll();
+                            dropped.incrementAndGet();
+                        }
+                        case CONFLATE -> {
+                            conflated.addAndGet(buffer.size());
+                            buffer.clear();
+                        }
+                        case DISCONNECT -> {
+                            done = true;
+                            buffer.clear();
+                            disconnect = true;
+                        }
+                    }
+                }
+                if (!disconnect) {
+                    buffer.add(update);
+                }
+            }
+            if (disconnect) {
+                disconnected.incrementAndGet();
+                logger.debug("Disconnecting a subscriber {} updates behind", bufferSize);
+                sink.error(new IllegalStateException("Subscriber fell " + bufferSize + " updates behind"));
+                return;
+            }
+            drain();
+        }
+
+        synchronized void drain() {
+            if (!primed) {
+                return;
+            }
+            while (!buffer.isEmpty() && sink.requestedFromDownstream() > 0) {
+                sink.next(buffer.poll());
+                delivered.incrementAndGet();
+            }
+            if (completing && buffer.isEmpty()) {
+                completing = false;
+                sink.complete();
+            }
+        }
+
+        void complete() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                completing = true;
+            }
+            drain();
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        StringBuilder sb = new StringBuilder("Game broadcast metrics:\n");
+        sb.append(String.format("  tables=%d, policy=%s, published=%d, delivered=%d, dropped=%d, conflated=%d, "
+                        + "disconnected=%d, replayed=%d, replayMisses=%d\n",
+                tables.size(), policy, published.get(), delivered.get(), dropped.get(), conflated.get(),
+                disconnected.get(), replayed.get(), replayMisses.get()));
+        List<String> gameIds = new ArrayList<>(tables.keySet());
+        for (String gameId : gameIds) {
+            sb.append(String.format("  %s: subscribers=%d, lag=%d\n", gameId, subscriberCount(gameId), lag(gameId)));
+        }
+        logger.info(sb.toString());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Turns two BSON snapshots of the same game into the field-level update between them.
+ * <p>
+ * Sub-documents and equally sized arrays (e.g. {@code players}) are compared element by
+ * element, so a bet becomes {@code $set} on {@code players.2.chips} and
+ * {@code currentBettingRound.bets.<id>} rather than a rewrite of the whole document.
+ * Integral fields that changed are written with {@code $inc}; floating-point fields use
+ * {@code $set} so repeated deltas cannot drift. Arrays that grew or shrank are replaced.
+ */
+final class GameDocumentDiff {
+
+    private GameDocumentDiff() {
+    }
+
+    static Update diff(Document before, Document after) {
+        Update update = new Update();
+        diff(update, "", before, after);
+        return update;
+    }
+
+    private static void diff(Update update, String prefix, Map<String, Object> before, Map<String, Object> after) {
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            String key = entry.getKey();
+            if (prefix.isEmpty() && "_id".equals(key)) {
+                continue;
+            }
+            String path = prefix + key;
+            Object now = entry.getValue();
+            if (!before.containsKey(key)) {
+                update.set(path, now);
+            } else {
+                diffValue(update, path, before.get(key), now);
+            }
+        }
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                update.unset(prefix + key);
+            }
+        }
+    }
+
+    private static void diffValue(Update update, String path, Object old, Object now) {
+        if (Objects.equals(old, now)) {
+            return;
+        }
+        if (old instanceof Document oldDocument && now instanceof Document newDocument
+                && addressable(oldDocument) && addressable(newDocument)) {
+            diff(update, path + ".", oldDocument, newDocument);
+        } else if (old instanceof List<?> oldList && now instanceof List<?> newList && oldList.size() == newList.size()) {
+            for (int i = 0; i < newList.size(); i++) {
+                diffValue(update, path + "." + i, oldList.get(i), newList.get(i));
+            }
+        } else if (old instanceof Integer oldInt && now instanceof Integer newInt) {
+            update.inc(path, newInt - oldInt);
+        } else if (isIntegral(old) && isIntegral(now)) {
+            update.inc(path, ((Number) now).longValue() - ((Number) old).longValue());
+        } else {
+            update.set(path, now);
+        }
+    }
+
+    // Map keys that cannot appear in a dotted update path force a replace of their parent
+    private static boolean addressable(Document document) {
+        for (String key : document.keySet()) {
+            if (key.isEmpty() || key.indexOf('.') >= 0 || key.startsWith("$")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long;
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameEvent;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Cold storage for the journals of deleted games, so {@code game_events} and
+ * {@code game_snapshots} only hold live tables.
+ * <p>
+ * Once a game's {@code GameDeletedEvent} is older than {@code game.archive.min-age-hours},
+ * the nightly job copies its records into an archive file and then removes them, and the
+ * game's snapshots, from Mongo. Each run writes one file: a deflate block per game holding
+ * its BSON records in journal order, followed by a footer indexing every block by gameId
+ * (offset, length, checksum, record count, last seq) and a fixed trailer pointing at the
+ * footer. Footers are loaded at startup, so reading an archived game back is one seek and
+ * one block inflate. {@link MongoGameEventStore} falls back to the archive for games it
+ * finds here, which keeps replay and the event queries working for them.
+ */
+@Service
+@ConditionalOnProperty(name = "game.events.store", havingValue = "mongo", matchIfMissing = true)
+public class GameEventArchive {
+    private static final Logger logger = LoggerFactory.getLogger(GameEventArchive.class);
+
+    private static final int MAGIC = 0x42584152; // "BXAR"
+    // footer offset + entry count + magic
+    private static final int TRAILER_BYTES = 16;
+    private static final String SUFFIX = ".arc";
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    private record Entry(Path file, long offset, int length, int checksum, int count, long lastSeq) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Path directory;
+    private final long minAgeHours;
+    private final int batchGames;
+    private final int compressionLevel;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+
+    private final AtomicLong archivedGames = new AtomicLong();
+    private final AtomicLong archivedEvents = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong failedRuns = new AtomicLong();
+
+    public GameEventArchive(MongoTemplate mongoTemplate,
+                            @Value("${game.archive.dir:data/archive}") Path directory,
+                            @Value("${game.archive.min-age-hours:24}") long minAgeHours,
+                            @Value("${game.archive.batch-games:500}") int batchGames,
+                            @Value("${game.archive.compression-level:6}") int compressionLevel) {
+        this.mongoTemplate = mongoTemplate;
+        this.directory = directory;
+        this.minAgeHours = minAgeHours;
+        this.batchGames = batchGames;
+        this.compressionLevel = compressionLevel;
+        load();
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.sorted().toList();
+            }
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // A run that died before its rename; Mongo still has those records
+                    Files.delete(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    // A later file wins if a game was archived twice
+                    index.putAll(readFooter(file));
+                }
+            }
+            logger.info("Game event archive at {}: {} games", directory, index.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open game event archive at " + directory, e);
+        }
+    }
+
+    public boolean contains(String gameId) {
+        return index.containsKey(gameId);
+    }
+
+    public long lastSeq(String gameId) {
+        Entry entry = index.get(gameId);
+        return entry != null ? entry.lastSeq() : 0;
+    }
+
+    /**
+     * All of an archived game's records in journal order, or an empty list if it is not archived.
+     */
+    public List<GameEvent> read(String gameId) {
+        Entry entry = index.get(gameId);
+        if (entry == null) {
+            return List.of();
+        }
+        reads.incrementAndGet();
+        try {
+            byte[] block = new byte[entry.length()];
+            try (FileChannel channel = FileChannel.open(entry.file(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.wrap(block);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, entry.offset() + buffer.position()) < 0) {
+                        throw new IOException("Archive truncated");
+                    }
+                }
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(block);
+            if ((int) crc.getValue() != entry.checksum()) {
+                throw new IOException("Checksum mismatch");
+            }
+
+            List<GameEvent> records = new ArrayList<>(entry.count());
+            try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(block))) {
+                for (int i = 0; i < entry.count(); i++) {
+                    // A BSON document starts with its own little-endian length
+                    byte[] length = in.readNBytes(4);
+                    if (length.length < 4) {
+                        throw new IOException("Block ends early");
+                    }
+                    byte[] bson = new byte[ByteBuffer.wrap(length).order(ByteOrder.LITTLE_ENDIAN).getInt()];
+                    System.arraycopy(length, 0, bson, 0, 4);
+                    if (in.readNBytes(bson, 4, bson.length - 4) != bson.length - 4) {
+                        throw new IOException("Block ends early");
+                    }
+                    records.add(decode(bson));
+                }
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived game " + gameId + " from "
+                    + entry.file().getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves the journals of games deleted more than {@code min-age-hours} ago into a new
+     * archive file, {@code batch-games} games per run.
+     */
+    @Scheduled(cron = "${game.archive.cron:0 30 3 * * *}")
+    public void archiveDeletedGames() {
+        try {
+            OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minusHours(minAgeHours);
+            // Served by the small partial index over deletion records
+            Query deleted = new Query(Criteria.where("eventType").is("GameDeletedEvent").and("timestamp").lt(cutoff))
+                    .limit(batchGames);
+            deleted.fields().include("gameId");
+            List<String> gameIds = mongoTemplate.find(deleted, GameEvent.class, GameEventJournal.COLLECTION).stream()
+                    .map(GameEvent::getGameId)
+                    .distinct()
+                    .toList();
+            if (gameIds.isEmpty()) {
+                logger.info("Game event archive: nothing to archive");
+                return;
+            }
+
+            Map<String, Entry> written = write(gameIds);
+            // Readers switch to the archive before the hot copies go away
+            index.putAll(written);
+            Query archived = new Query(Criteria.where("gameId").in(written.keySet()));
+            long removed = mongoTemplate.remove(archived, GameEventJournal.COLLECTION).getDeletedCount();
+            mongoTemplate.remove(archived, GameSnapshotService.COLLECTION);
+            logger.info("Game event archive: archived {} games, removed {} events from Mongo", written.size(), removed);
+        } catch (Exception e) {
+            failedRuns.incrementAndGet();
+            logger.error("Error archiving deleted games: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<String, Entry> write(List<String> gameIds) throws IOException {
+        long name = System.currentTimeMillis();
+        Path file;
+        while (Files.exists(file = directory.resolve(String.format("%013d%s", name, SUFFIX)))) {
+            name++;
+        }
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        Deflater deflater = new Deflater(compressionLevel);
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (String gameId : gameIds) {
+                Query journal = new Query(Criteria.where("gameId").is(gameId))
+                        .with(Sort.by(Sort.Order.asc("timestamp"), Sort.Order.asc("seq")));
+                ByteArrayOutputStream block = new ByteArrayOutputStream();
+                int count = 0;
+                long lastSeq = 0;
+                long raw = 0;
+                deflater.reset();
+                try (DeflaterOutputStream deflate = new DeflaterOutputStream(block, deflater);
+                     Stream<Document> records = mongoTemplate.stream(journal, Document.class, GameEventJournal.COLLECTION)) {
+                    for (Iterator<Document> it = records.iterator(); it.hasNext(); ) {
+                        Document record = it.next();
+                        byte[] bson = encode(record);
+                        deflate.write(bson);
+                        raw += bson.length;
+                        count++;
+                        if (record.get("seq") instanceof Number seq) {
+                            lastSeq = Math.max(lastSeq, seq.longValue());
+                        }
+                    }
+                }
+                if (count == 0) {
+                    continue;
+                }
+                byte[] bytes = block.toByteArray();
+                CRC32C crc = new CRC32C();
+                crc.update(bytes);
+                writeFully(out, ByteBuffer.wrap(bytes), position);
+                entries.put(gameId, new Entry(file, position, bytes.length, (int) crc.getValue(), count, lastSeq));
+                position += bytes.length;
+                archivedEvents.addAndGet(count);
+                rawBytes.addAndGet(raw);
+                compressedBytes.addAndGet(bytes.length);
+            }
+
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(footer);
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                data.writeUTF(e.getKey());
+                data.writeLong(entry.offset());
+                data.writeInt(entry.length());
+                data.writeInt(entry.checksum());
+                data.writeInt(entry.count());
+                data.writeLong(entry.lastSeq());
+            }
+            data.writeLong(position);
+            data.writeInt(entries.size());
+            data.writeInt(MAGIC);
+            writeFully(out, ByteBuffer.wrap(footer.toByteArray()), position);
+            out.force(true);
+        } finally {
+            deflater.end();
+        }
+        // Only a complete file ever carries the .arc name
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        archivedGames.addAndGet(entries.size());
+        return entries;
+    }
+
+    private static Map<String, Entry> readFooter(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TRAILER_BYTES) {
+                throw new IOException("Not a game event archive: " + file);
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES);
+            readFully(channel, trailer, size - TRAILER_BYTES);
+            long footerOffset = trailer.getLong(0);
+            int count = trailer.getInt(8);
+            if (trailer.getInt(12) != MAGIC || footerOffset < 0 || footerOffset > size - TRAILER_BYTES) {
+                throw new IOException("Not a game event archive: " + file);
+            }
+            ByteBuffer footer = ByteBuffer.allocate((int) (size - TRAILER_BYTES - footerOffset));
+            readFully(channel, footer, footerOffset);
+
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer.array()));
+            for (int i = 0; i < count; i++) {
+                String gameId = in.readUTF();
+                entries.put(gameId, new Entry(file, in.readLong(), in.readInt(), in.readInt(), in.readInt(),
+                        in.readLong()));
+            }
+            return entries;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Archive truncated");
+            }
+        }
+    }
+
+    private static byte[] encode(Document record) {
+        ByteBuffer bytes = new RawBsonDocument(record, CODEC).getByteBuffer().asNIO();
+        byte[] bson = new byte[bytes.remaining()];
+        bytes.get(bson);
+        return bson;
+    }
+
+    private GameEvent decode(byte[] bson) {
+        return mongoTemplate.getConverter().read(GameEvent.class, new RawBsonDocument(bson).decode(CODEC));
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        long raw = rawBytes.get();
+        logger.info(String.format("Game event archive: games=%d, archivedGames=%d, archivedEvents=%d, ratio=%.1fx, "
+                        + "reads=%d, failedRuns=%d",
+                index.size(), archivedGames.get(), archivedEvents.get(),
+                compressedBytes.get() > 0 ? (double) raw / compressedBytes.get() : 0.0, reads.get(), failedRuns.get()));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.entity.GameEvent;
+import com.example.backend.event.CardsDealtEvent;
+import com.example.backend.event.GameCreatedEvent;
+import com.example.backend.event.GameDeletedEvent;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.event.GameStartedEvent;
+import com.example.backend.event.PlayerActionEvent;
+import com.example.backend.event.PlayerJoinedEvent;
+import com.example.backend.event.RoundStartedEvent;
+import com.example.backend.model.EventDelta;
+import com.example.backend.model.Player;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns application events into journal records: the sequence number the event was
+ * published with plus an {@link EventDelta} holding only what the event changed, instead
+ * of a full game copy.
+ */
+@Service
+public class GameEventEncoder {
+
+    public GameEvent encode(com.example.backend.event.GameEvent event) {
+        GameEvent record = new GameEvent();
+        record.setGameId(event.getGameId());
+        record.setSeq(event.getSeq());
+        record.setTimestamp(event.getTimestamp());
+        record.setEventType(event.getClass().getSimpleName());
+        record.setDelta(deltaOf(event));
+        return record;
+    }
+
+    public static EventDelta deltaOf(com.example.backend.event.GameEvent event) {
+        EventDelta delta = new EventDelta();
+        switch (event) {
+            case GameCreatedEvent created -> {
+                Game game = created.getGame();
+                delta.setAction("CREATE");
+                delta.setBlinds(List.of(game.getSmallBlindAmount(), game.getBigBlindAmount()));
+                delta.setMaxPlayers(game.getMaxPlayers());
+                delta.setStatus(game.getStatus());
+            }
+            case PlayerJoinedEvent joined -> {
+                Player player = joined.getPlayer();
+                delta.setAction("JOIN");
+                delta.setActor(player.getId());
+                delta.setUsername(player.getUsername());
+                delta.setName(player.getName());
+                delta.setStack(player.getChips());
+            }
+            case GameStartedEvent started -> {
+                delta.setAction("START");
+                table(delta, started.getGame());
+                delta.setDealer(started.getGame().getDealerPosition());
+            }
+            case RoundStartedEvent round -> {
+                delta.setAction(round.getRoundType().name());
+                table(delta, round.getGame());
+            }
+            case CardsDealtEvent dealt -> {
+                delta.setAction(dealt.getDealType().name());
+                if (dealt.getPlayerCards() != null) {
+                    Map<String, byte[]> hands = new HashMap<>();
+                    dealt.getPlayerCards().forEach((id, cards) -> hands.put(id, EventDelta.encodeCards(cards)));
+                    delta.setHands(hands);
+                }
+                if (dealt.getCommunityCards() != null) {
+                    delta.setBoard(EventDelta.encodeCards(dealt.getCommunityCards()));
+                }
+            }
+            case PlayerActionEvent action -> {
+                Player player = action.getPlayer();
+                Game state = action.getGameState();
+                Game.PlayerAction recorded = state != null && state.getLastActions() != null
+                        ? state.getLastActions().get(player.getUsername()) : null;
+                boolean chipsMoved = action.getActionType() == PlayerActionEvent.ActionType.BET
+                        || action.getActionType() == PlayerActionEvent.ActionType.CHECK;
+                // CALL / RAISE / ALL_IN are told apart by the engine's last action, not the event type
+                delta.setAction(chipsMoved && recorded != null ? recorded.name() : action.getActionType().name());
+                delta.setActor(player.getId());
+                if (chipsMoved) {
+                    delta.setAmount(action.getAmount() != null ? action.getAmount() : 0.0);
+                    delta.setStack(player.getChips());
+                }
+                if (state != null) {
+                    delta.setPot(state.getPot());
+                    delta.setStatus(state.getStatus());
+                    delta.setTurn(state.getCurrentPlayerIndex());
+                }
+            }
+            case GameEndedEvent ended -> {
+                Game game = ended.getGame();
+                delta.setAction("END");
+                table(delta, game);
+                if (ended.getWinners() != null) {
+                    delta.setWinners(ended.getWinners().stream().map(Player::getId).toList());
+                }
+                // Hands still live at the end were shown down
+                List<Player> live = game.getPlayers().stream()
+                        .filter(p -> !p.isHasFolded() && p.getHand() != null && !p.getHand().isEmpty())
+                        .toList();
+                if (live.size() > 1) {
+                    Map<String, byte[]> hands = new HashMap<>();
+                    live.forEach(p -> hands.put(p.getId(), EventDelta.encodeCards(p.getHand())));
+                    delta.setHands(hands);
+                }
+            }
+            case GameDeletedEvent deleted -> delta.setAction("DELETE");
+            default -> delta.setAction(event.getClass().getSimpleName());
+        }
+        return delta;
+    }
+
+    // Seat order, stacks, pot, status, turn and board: enough to resync a table on replay
+    private static void table(EventDelta delta, Game game) {
+        List<String> seats = new ArrayList<>(game.getPlayers().size());
+        List<Double> stacks = new ArrayList<>(game.getPlayers().size());
+        for (Player player : game.getPlayers()) {
+            seats.add(player.getId());
+            stacks.add(player.getChips());
+        }
+        delta.setSeats(seats);
+        delta.setStacks(stacks);
+        delta.setPot(game.getPot());
+        delta.setStatus(game.getStatus());
+        delta.setTurn(game.getCurrentPlayerIndex());
+        if (game.getCommunityCards() != null) {
+            delta.setBoard(EventDelta.encodeCards(game.getCommunityCards()));
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameEvent;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the {@code game_events} journal off the game threads.
+ * <p>
+ * {@link #append(GameEvent)} puts the event on a bounded lock-free queue and returns; a
+ * single drainer thread inserts the queue in order, one {@code insertMany} per batch of
+ * {@code game.journal.batch-size} events or per {@code game.journal.max-delay-ms},
+ * whichever comes first. When the queue is full, {@code game.journal.overflow-policy}
+ * decides: {@code BLOCK} holds the producer for up to {@code game.journal.offer-timeout-ms}
+ * and then drops the event, {@code DROP_NEWEST} drops it at once, {@code DROP_OLDEST}
+ * evicts the oldest queued event to make room, stepping over purges. Every drop is
+ * counted. Whatever is queued at shutdown is written before the drainer exits.
+ * <p>
+ * A batch that fails to write is retried up to {@code game.journal.max-retries} times,
+ * waiting {@code game.journal.retry-backoff-ms} and doubling, before its events count as
+ * failed. A duplicate key stops an ordered insert part way, so that batch is written again
+ * unordered: events already stored are skipped and the rest still land.
+ * <p>
+ * {@link #purge(Collection)} queues behind the events already appended, so a purged game
+ * leaves nothing behind in the collection. Consecutive purges go out as one delete.
+ */
+@Service
+@ConditionalOnProperty(name = "game.events.store", havingValue = "mongo", matchIfMissing = true)
+public class GameEventJournal {
+    private static final Logger logger = LoggerFactory.getLogger(GameEventJournal.class);
+
+    static final String COLLECTION = "game_events";
+    private static final int DUPLICATE_KEY = 11000;
+
+    public enum OverflowPolicy {
+        BLOCK, DROP_NEWEST, DROP_OLDEST
+    }
+
+    // Either an event or, with event null, the games to purge
+    private record Entry(GameEvent event, Collection<String> purge, long enqueuedAtNanos) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxRetries;
+    private final long retryBackoffNanos;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    // Reserved slots; runs slightly ahead of the queue while producers are mid-append
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Thread drainer;
+    private volatile boolean closed;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong purged = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+    private final AtomicInteger maxBatch = new AtomicInteger();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    public GameEventJournal(MongoTemplate mongoTemplate,
+                            @Value("${game.journal.capacity:10000}") int capacity,
+                            @Value("${game.journal.batch-size:256}") int batchSize,
+                            @Value("${game.journal.max-delay-ms:50}") long maxDelayMs,
+                            @Value("${game.journal.offer-timeout-ms:100}") long offerTimeoutMs,
+                            @Value("${game.journal.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                            @Value("${game.journal.max-retries:3}") int maxRetries,
+                            @Value("${game.journal.retry-backoff-ms:50}") long retryBackoffMs) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Journal capacity and batch size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.capacity = capacity;
+        this.batchSize = Math.min(batchSize, capacity);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.overflowPolicy = overflowPolicy;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffNanos = TimeUnit.MILLISECONDS.toNanos(retryBackoffMs);
+        this.drainer = Thread.ofVirtual().name("game-event-journal").start(this::drain);
+    }
+
+    /**
+     * Queues the event for the next batch. Returns false if the overflow policy dropped it.
+     */
+    public boolean append(GameEvent event) {
+        appended.incrementAndGet();
+        if (closed) {
+            // Late events during shutdown go straight to Mongo
+            write(List.of(event));
+            return true;
+        }
+        if (!reserve()) {
+            dropped.incrementAndGet();
+            logger.debug("Journal full, dropped {} for game {}", event.getEventType(), event.getGameId());
+            return false;
+        }
+        queue.add(new Entry(event, null, System.nanoTime()));
+        return true;
+    }
+
+    /**
+     * Deletes the games' events once everything appended before has been written. Never
+     * dropped, and not counted against the capacity.
+     */
+    public void purge(Collection<String> gameIds) {
+        if (closed) {
+            remove(gameIds);
+            return;
+        }
+        queue.add(new Entry(null, List.copyOf(gameIds), System.nanoTime()));
+        LockSupport.unpark(drainer);
+    }
+
+    private boolean reserve() {
+        long deadline = 0;
+        while (true) {
+            int current = depth.get();
+            if (current < capacity) {
+                if (depth.compareAndSet(current, current + 1)) {
+                    maxDepth.accumulateAndGet(current + 1, Math::max);
+                    if (current + 1 == batchSize) {
+                        LockSupport.unpark(drainer);
+                    }
+                    return true;
+                }
+                continue;
+            }
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    return false;
+                }
+                case DROP_OLDEST -> {
+                    Entry oldest = queue.poll();
+                    if (oldest == null) {
+                        // Every slot is reserved by an append still in progress
+                        Thread.onSpinWait();
+                    } else if (oldest.purge() != null) {
+                        // Purges are never dropped; back in line, it still runs after all it must see
+                        queue.add(oldest);
+                    } else {
+                        depth.decrementAndGet();
+                        dropped.incrementAndGet();
+                    }
+                }
+                case BLOCK -> {
+                    long now = System.nanoTime();
+                    if (deadline == 0) {
+                        deadline = now + offerTimeoutNanos;
+                    } else if (now - deadline >= 0) {
+                        return false;
+                    }
+                    LockSupport.unpark(drainer);
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        // Entries are taken with poll only, as DROP_OLDEST producers poll the same head; the
+        // one taken but not handled yet waits here, still counted in depth if it is an event
+        Entry head = null;
+        while (true) {
+            if (head == null) {
+                head = queue.poll();
+            }
+            if (head == null) {
+                if (closed && depth.get() == 0) {
+                    return;
+                }
+                LockSupport.parkNanos(this, closed ? 1_000_000 : maxDelayNanos);
+                continue;
+            }
+            if (head.purge() != null) {
+                Set<String> gameIds = new HashSet<>(head.purge());
+                head = null;
+                Entry entry;
+                while ((entry = queue.poll()) != null) {
+                    if (entry.purge() == null) {
+                        head = entry;
+                        break;
+                    }
+                    gameIds.addAll(entry.purge());
+                }
+                remove(gameIds);
+                continue;
+            }
+            long waited = System.nanoTime() - head.enqueuedAtNanos();
+            if (!closed && depth.get() < batchSize && waited < maxDelayNanos) {
+                LockSupport.parkNanos(this, maxDelayNanos - waited);
+                continue;
+            }
+
+            List<GameEvent> batch = new ArrayList<>(batchSize);
+            batch.add(head.event());
+            depth.decrementAndGet();
+            head = null;
+            Entry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                if (entry.purge() != null) {
+                    // A purge ends the batch: it must see the events before it written
+                    head = entry;
+                    break;
+                }
+                batch.add(entry.event());
+                depth.decrementAndGet();
+            }
+            write(batch);
+        }
+    }
+
+    private void remove(Collection<String> gameIds) {
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("gameId").in(gameIds)), COLLECTION);
+            purged.addAndGet(gameIds.size());
+        } catch (Exception e) {
+            logger.error("Failed to purge events of {} games: {}", gameIds.size(), e.getMessage(), e);
+        }
+    }
+
+    private void write(List<GameEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            List<GameEvent> pending = batch;
+            for (int attempt = 0; ; attempt++) {
+                Exception failure = null;
+                try {
+                    pending = insert(pending);
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                } catch (Exception e) {
+                    failure = e;
+                }
+                boolean shuttingDown = failure != null && failure.getMessage() != null
+                        && (failure.getMessage().contains("server session pool is open")
+                        || failure.getMessage().contains("state should be: open"));
+                if (shuttingDown) {
+                    failed.addAndGet(pending.size());
+                    logger.debug("Could not write {} game events (MongoDB shutting down): {}",
+                            pending.size(), failure.getMessage());
+                    return;
+                }
+                if (attempt >= maxRetries) {
+                    failed.addAndGet(pending.size());
+                    logger.error("Failed to write {} game events after {} attempts: {}", pending.size(), attempt + 1,
+                            failure != null ? failure.getMessage() : "write errors", failure);
+                    return;
+                }
+                retries.incrementAndGet();
+                logger.debug("Retrying {} game events (attempt {})", pending.size(), attempt + 1);
+                LockSupport.parkNanos(retryBackoffNanos << attempt);
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            writeNanos.addAndGet(elapsed);
+            maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+            maxBatch.accumulateAndGet(batch.size(), Math::max);
+            batches.incrementAndGet();
+        }
+    }
+
+    /**
+     * Inserts the events and returns those that still need writing.
+     */
+    private List<GameEvent> insert(List<GameEvent> events) {
+        try {
+            mongoTemplate.insert(events, COLLECTION);
+            written.addAndGet(events.size());
+            return List.of();
+        } catch (DuplicateKeyException e) {
+            return insertUnordered(events);
+        }
+    }
+
+    private List<GameEvent> insertUnordered(List<GameEvent> events) {
+        try {
+            BulkWriteResult result = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)
+                    .insert(events)
+                    .execute();
+            written.addAndGet(result.getInsertedCount());
+            return List.of();
+        } catch (BulkOperationException e) {
+            written.addAndGet(e.getResult().getInsertedCount());
+            List<GameEvent> remaining = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() == DUPLICATE_KEY) {
+                    // Already stored, e.g. by an earlier attempt whose reply was lost
+                    duplicates.incrementAndGet();
+                } else {
+                    remaining.add(events.get(error.getIndex()));
+                }
+            }
+            return remaining;
+        }
+    }
+
+    int queueDepth() {
+        return depth.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            if (!drainer.join(Duration.ofSeconds(10))) {
+                logger.warn("Game event journal did not drain within 10s; {} events pending", depth.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logMetrics();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        long batchCount = batches.get();
+        logger.info(String.format("Game event journal: depth=%d (max %d/%d), appended=%d, written=%d, dropped=%d, failed=%d, "
+                        + "retries=%d, duplicates=%d, purged=%d, batches=%d, avgBatch=%.1f, maxBatch=%d, avgWrite=%.2fms, maxWrite=%.2fms",
+                depth.get(), maxDepth.get(), capacity, appended.get(), written.get(), dropped.get(), failed.get(),
+                retries.get(), duplicates.get(), purged.get(),
+                batchCount, batchCount > 0 ? (double) (written.get() + failed.get() + duplicates.get()) / batchCount : 0.0, maxBatch.get(),
+                batchCount > 0 ? writeNanos.get() / 1e6 / batchCount : 0.0, maxWriteNanos.get() / 1e6));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-game event sequence numbers: 1, 2, 3... in publish order. The first time a game
+ * publishes after a restart its counter resumes from the highest sequence in the event
+ * store, so {gameId, seq} stays unique across restarts.
+ */
+@Service
+@RequiredArgsConstructor
+public class GameEventSequencer {
+
+    private final GameEventStore eventStore;
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    public long next(String gameId) {
+        return sequences.computeIfAbsent(gameId, id -> new AtomicLong(eventStore.lastSeq(id))).incrementAndGet();
+    }
+
+    public void forget(String gameId) {
+        sequences.remove(gameId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Where journal records live. {@link MongoGameEventStore} (the default) keeps them in the
+ * {@code game_events} collection; {@link MappedGameEventStore} keeps them in memory-mapped
+ * segment files on local disk. Chosen with {@code game.events.store}.
+ */
+public interface GameEventStore {
+
+    /**
+     * Stores the record, possibly after it returns. Returns false if it was dropped.
+     */
+    boolean append(GameEvent record);
+
+    /**
+     * A game's records with {@code afterSeq < seq <= untilSeq}, in journal order. From
+     * {@code afterSeq == 0} this includes records older than sequence numbers. The stream
+     * may hold a cursor; close it.
+     */
+    Stream<GameEvent> stream(String gameId, long afterSeq, long untilSeq);
+
+    /**
+     * At most {@code limit} records with {@code fromSeq <= seq <= toSeq}, in sequence order.
+     */
+    List<GameEvent> range(String gameId, long fromSeq, long toSeq, int limit);
+
+    List<GameEvent> findByType(String gameId, String eventType);
+
+    GameEvent findById(String id);
+
+    /**
+     * The highest sequence number stored for the game, or 0.
+     */
+    long lastSeq(String gameId);
+
+    /**
+     * Drops the games' records outright; for throwaway tables not worth archiving. Records
+     * appended before the call are dropped too, even if not yet written.
+     */
+    void purge(Collection<String> gameIds);
+}
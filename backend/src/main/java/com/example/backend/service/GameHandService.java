@@ -6,7 +6,6 @@ import com.example.backend.event.GameStartedEvent;
 import com.example.backend.model.Card;
 import com.example.backend.model.Player;
 import com.example.backend.publisher.GameEventPublisher;
-import com.example.backend.repository.GameRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +22,7 @@ import java.util.Map;
 public class GameHandService {
     private static final Logger logger = LoggerFactory.getLogger(GameHandService.class);
 
-    private final GameRepository gameRepository;
+    private final GameTableRegistry gameTables;
     private final GameValidatorService gameValidatorService;
     private final BettingManager bettingManager;
     private final GameEventPublisher eventPublisher;
@@ -51,7 +50,7 @@ public class GameHandService {
             if (activePlayersCount < 2) {
                 logger.warn("Not enough active players. Setting game back to WAITING.");
                 game.setStatus(Game.GameStatus.WAITING);
-                gameRepository.save(game);
+                gameTables.save(game);
                 return;
             }
 
@@ -85,7 +84,7 @@ public class GameHandService {
             eventPublisher.publishEvent(new CardsDealtEvent(gameId, playerCards));
 
             bettingManager.startNewBettingRound(game);
-            gameRepository.save(game);
+            gameTables.save(game);
         } catch (Exception e) {
             logger.error("Error starting new hand: {}", e.getMessage());
             throw new RuntimeException("Failed to start new hand", e);
@@ -97,7 +96,7 @@ public class GameHandService {
         try {
             Game game = gameValidatorService.validateGameExists(gameId);
             bettingManager.processAllInRound(game);
-            gameRepository.save(game);
+            gameTables.save(game);
         } catch (Exception e) {
             logger.error("Error executing all-in action: {}", e.getMessage());
         }
@@ -1,6 +1,8 @@
 package com.example.backend.service;
 
 import com.example.backend.entity.Game;
+import com.example.backend.event.GameCreatedEvent;
+import com.example.backend.event.GameDeletedEvent;
 import com.example.backend.event.PlayerActionEvent;
 import com.example.backend.event.PlayerJoinedEvent;
 import com.example.backend.model.BlindPayload;
@@ -8,7 +10,6 @@ import com.example.backend.model.Player;
 import com.example.backend.publisher.GameEventPublisher;
 import com.example.backend.repository.GameRepository;
 import com.example.backend.repository.UserRepository;
-import com.example.backend.resolver.SubscriptionResolver;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,15 +28,19 @@ public class GameLifecycleService {
 
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final GameTableRegistry gameTables;
     private final GameValidatorService gameValidatorService;
     private final GameEventPublisher eventPublisher;
     private final GameActionService gameActionService;
 
     public List<Game> getAllGames() {
-        List<Game> games = gameRepository.findAll();
+        // Resident tables are ahead of Mongo while their writes are in flight
+        List<Game> games = gameRepository.findAll().stream()
+                .map(game -> gameTables.residentSnapshot(game.getId()).orElse(game))
+                .collect(Collectors.toList());
         games.forEach(game -> {
             game.getPlayers().forEach(Player::hideDetails);
-            game.setDeck(new com.example.backend.model.Deck());
+            game.setDeck(null);
         });
         return games;
     }
@@ -43,19 +49,22 @@ public class GameLifecycleService {
     public void createGame(BlindPayload payload) {
         Game game = new Game(payload.getSmallBlindAmount(), payload.getBigBlindAmount());
         gameRepository.save(game);
+        eventPublisher.publishEvent(new GameCreatedEvent(game.getId(), new Game(game)));
         logger.debug("Game created with ID: {}", game.getId());
     }
 
     public Game getGameForPlayer(Game activeGame, String playerId) {
-        boolean isShowdown = activeGame.getStatus() == Game.GameStatus.SHOWDOWN;
+        // Hide details on a copy; the table's live game must keep every hand
+        Game view = new Game(activeGame);
+        boolean isShowdown = view.getStatus() == Game.GameStatus.SHOWDOWN;
 
-        activeGame.getPlayers().forEach(player -> {
+        view.getPlayers().forEach(player -> {
             if ((playerId == null || !playerId.equals(player.getId())) && !isShowdown) {
                 player.hideDetails();
             }
         });
-        activeGame.setDeck(null);
-        return activeGame;
+        view.setDeck(null);
+        return view;
     }
 
     public Game getGameForPlayer(String gameId, String playerId) {
@@ -91,9 +100,9 @@ public class GameLifecycleService {
 
             game.getPlayers().add(player);
             game.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-            gameRepository.save(game);
+            gameTables.save(game);
 
-            eventPublisher.publishEvent(new PlayerJoinedEvent(gameId, player));
+            eventPublisher.publishEvent(new PlayerJoinedEvent(gameId, new Player(player)));
             return getGameForPlayer(game, player.getId());
         } catch (Exception e) {
             logger.error("Error joining game: {}", e.getMessage());
@@ -117,18 +126,18 @@ public class GameLifecycleService {
             game.getPlayers().remove(player);
 
             eventPublisher.publishEvent(new PlayerActionEvent(
-                    gameId, player, PlayerActionEvent.ActionType.LEAVE, null, new Game(game)));
+                    gameId, new Player(player), PlayerActionEvent.ActionType.LEAVE, null, new Game(game)));
 
             game.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
             if (game.getPlayers().isEmpty()) {
-                gameRepository.delete(game);
-                SubscriptionResolver.cleanupGameSinks(gameId);
+                gameTables.delete(game);
+                eventPublisher.publishEvent(new GameDeletedEvent(gameId));
                 logger.info("Game '{}' deleted as all players left", gameId);
                 return;
             }
 
-            gameRepository.save(game);
+            gameTables.save(game);
         } catch (Exception e) {
             logger.error("Error leaving game: {}", e.getMessage());
             throw new RuntimeException("Failed to leave game", e);
@@ -142,9 +151,9 @@ public class GameLifecycleService {
             Player player = gameValidatorService.validatePlayerExists(game, playerId);
             player.setSittingOut(true);
             game.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-            gameRepository.save(game);
+            gameTables.save(game);
             eventPublisher.publishEvent(new PlayerActionEvent(
-                    gameId, player, PlayerActionEvent.ActionType.SIT_OUT, null, new Game(game)));
+                    gameId, new Player(player), PlayerActionEvent.ActionType.SIT_OUT, null, new Game(game)));
         } catch (Exception e) {
             logger.error("Error sitting out: {}", e.getMessage());
             throw new RuntimeException("Failed to sit out", e);
@@ -158,9 +167,9 @@ public class GameLifecycleService {
             Player player = gameValidatorService.validatePlayerExists(game, playerId);
             player.setSittingOut(false);
             game.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-            gameRepository.save(game);
+            gameTables.save(game);
             eventPublisher.publishEvent(new PlayerActionEvent(
-                    gameId, player, PlayerActionEvent.ActionType.SIT_IN, null, new Game(game)));
+                    gameId, new Player(player), PlayerActionEvent.ActionType.SIT_IN, null, new Game(game)));
         } catch (Exception e) {
             logger.error("Error sitting in: {}", e.getMessage());
             throw new RuntimeException("Failed to sit in", e);
@@ -169,10 +178,30 @@ public class GameLifecycleService {
 
     @Transactional
     public boolean deleteGame(String gameId) {
+        return deleteGame(gameId, false);
+    }
+
+    /**
+     * Purges the game if the live copy is still guest-only and idle since {@code cutoff};
+     * the table may hold a join or an action Mongo has not seen yet.
+     */
+    @Transactional
+    public boolean purgeIfStale(String gameId, OffsetDateTime cutoff) {
+        Game game = gameValidatorService.validateGameExists(gameId);
+        game.refreshGuestOnly();
+        if (!game.isGuestOnly() || game.getUpdatedAt() == null || !game.getUpdatedAt().isBefore(cutoff)) {
+            logger.debug("Game '{}' is no longer stale; keeping it", gameId);
+            return false;
+        }
+        return deleteGame(gameId, true);
+    }
+
+    @Transactional
+    public boolean deleteGame(String gameId, boolean purge) {
         try {
             Game game = gameValidatorService.validateGameExists(gameId);
-            gameRepository.delete(game);
-            SubscriptionResolver.cleanupGameSinks(gameId);
+            gameTables.delete(game);
+            eventPublisher.publishEvent(new GameDeletedEvent(gameId, purge));
             logger.debug("Game '{}' deleted", gameId);
             return true;
         } catch (Exception e) {
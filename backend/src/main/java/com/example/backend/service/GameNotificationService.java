@@ -1,7 +1,7 @@
 package com.example.backend.service;
 
 import com.example.backend.model.GameUpdate;
-import com.example.backend.resolver.SubscriptionResolver;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -10,14 +10,19 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 
 @Service
+@RequiredArgsConstructor
 public class GameNotificationService {
     private static final Logger logger = LoggerFactory.getLogger(GameNotificationService.class);
 
+    private final GameBroadcastHub broadcastHub;
+    private final GameStateTracker stateTracker;
+    private final GameUpdateConflator conflator;
+
     public void notifyGameUpdate(GameUpdate update) {
         if (update.getTimestamp() == null) {
             update.setTimestamp(OffsetDateTime.now(ZoneOffset.UTC));
         }
-        SubscriptionResolver.publishGameUpdate(update.getGameId(), update);
+        conflator.publish(update);
         logger.debug("Sent game update: type={}, gameId={}", update.getType(), update.getGameId());
     }
 
@@ -25,7 +30,16 @@ public class GameNotificationService {
         if (update.getTimestamp() == null) {
             update.setTimestamp(OffsetDateTime.now(ZoneOffset.UTC));
         }
-        SubscriptionResolver.publishPlayerUpdate(update.getGameId(), playerId, update);
+        // Keep it behind the public updates the table still holds
+        conflator.flush(update.getGameId());
+        broadcastHub.publishToPlayer(update.getGameId(), playerId, update);
         logger.debug("Sent player update: gameId={}, playerId={}", update.getGameId(), playerId);
     }
+
+    public void closeGame(String gameId) {
+        conflator.close(gameId);
+        broadcastHub.close(gameId);
+        stateTracker.close(gameId);
+        logger.debug("Closed update streams for game {}", gameId);
+    }
 }
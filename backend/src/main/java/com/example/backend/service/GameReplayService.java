@@ -2,8 +2,11 @@ package com.example.backend.service;
 
 import com.example.backend.entity.Game;
 import com.example.backend.entity.GameEvent;
+import com.example.backend.entity.GameSnapshot;
 import com.example.backend.event.*;
-import com.example.backend.repository.GameEventRepository;
+import com.example.backend.model.BettingRound;
+import com.example.backend.model.EventDelta;
+import com.example.backend.model.Player;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -11,17 +14,27 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
- * Service for replaying game events to reconstruct game state at any point
+ * Service for replaying game events to reconstruct game state at any point.
+ * <p>
+ * Replay starts from the nearest {@link GameSnapshot} at or before the target and streams
+ * only the events after it through a cursor, so its cost follows the distance to the last
+ * snapshot (at most a hand, normally) rather than the age of the table. Games journaled
+ * before snapshots and sequence numbers existed are streamed from the start.
  */
 @Service
 @RequiredArgsConstructor
 public class GameReplayService {
     private static final Logger logger = LoggerFactory.getLogger(GameReplayService.class);
     
-    private final GameEventRepository gameEventRepository;
+    private final GameEventStore eventStore;
+    private final GameSnapshotService snapshotService;
     private final ObjectMapper objectMapper;
     
     /**
@@ -29,73 +42,82 @@ public class GameReplayService {
      */
     public Game replayGame(String gameId) {
         logger.info("Replaying events for game: {}", gameId);
-        
-        try {
-            List<GameEvent> events = gameEventRepository.findByGameIdOrderByTimestampAsc(gameId);
-            Game game = null;
-            
-            for (GameEvent eventRecord : events) {
-                game = applyEvent(game, eventRecord);
-            }
-            
-            return game;
-        } catch (Exception e) {
-            logger.error("Error replaying game events: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to replay game events", e);
-        }
+        return replay(gameId, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Replay events up to and including sequence number {@code seq}
+     */
+    public Game replayGameAt(String gameId, long seq) {
+        logger.info("Replaying events for game {} until seq {}", gameId, seq);
+        return replay(gameId, seq);
     }
     
     /**
-     * Replay events up to a specific point in time
+     * Replay events up to and including a specific event
      */
     public Game replayGameUntilEvent(String gameId, String eventId) {
         logger.info("Replaying events for game {} until event {}", gameId, eventId);
         
-        try {
-            List<GameEvent> allEvents = gameEventRepository.findByGameIdOrderByTimestampAsc(gameId);
-            List<GameEvent> events = new ArrayList<>();
-            
-            // Collect events until we reach the target event
-            boolean foundEvent = false;
-            for (GameEvent event : allEvents) {
-                events.add(event);
+        GameEvent target = eventStore.findById(eventId);
+        if (target != null && !gameId.equals(target.getGameId())) {
+            throw new RuntimeException("Event not found: " + eventId);
+        }
+        if (target != null && target.getSeq() > 0) {
+            return replay(gameId, target.getSeq());
+        }
+        
+        // Records without a sequence number, and archived ones, can only be found by walking the journal
+        try (Stream<GameEvent> events = eventStore.stream(gameId, 0, Long.MAX_VALUE)) {
+            Game game = null;
+            for (Iterator<GameEvent> it = events.iterator(); it.hasNext(); ) {
+                GameEvent event = it.next();
+                game = applyEvent(game, event);
                 if (event.getId().equals(eventId)) {
-                    foundEvent = true;
-                    break;
+                    return game;
                 }
             }
-            
-            if (!foundEvent) {
-                throw new RuntimeException("Event not found: " + eventId);
-            }
-            
-            // Replay events
-            Game game = null;
-            for (GameEvent eventRecord : events) {
-                game = applyEvent(game, eventRecord);
+            throw new RuntimeException("Event not found: " + eventId);
+        }
+    }
+    
+    private Game replay(String gameId, long untilSeq) {
+        GameSnapshot snapshot = snapshotService.latest(gameId, untilSeq);
+        Game game = snapshot != null ? snapshot.getState() : null;
+        
+        long applied = 0;
+        // Without a snapshot this streams from the start, including records older than sequence numbers
+        try (Stream<GameEvent> events = eventStore.stream(gameId, snapshot != null ? snapshot.getSeq() : 0, untilSeq)) {
+            for (Iterator<GameEvent> it = events.iterator(); it.hasNext(); ) {
+                game = applyEvent(game, it.next());
+                applied++;
             }
-            
-            return game;
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             logger.error("Error replaying game events: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to replay game events", e);
         }
+        logger.debug("Replayed game {} from {} plus {} events", gameId,
+                snapshot != null ? "snapshot at seq " + snapshot.getSeq() : "the start", applied);
+        return game;
     }
     
     /**
      * Apply a single event to update game state
      */
-    private Game applyEvent(Game game, GameEvent eventRecord) throws Exception {
+    private Game applyEvent(Game game, GameEvent eventRecord) {
+        if (eventRecord.getDelta() != null) {
+            return applyDelta(game, eventRecord);
+        }
         String eventType = eventRecord.getEventType();
-        String eventData = eventRecord.getEventData().toString();
+        Object eventData = eventRecord.getEventData();
         
         switch (eventType) {
             case "GameStartedEvent":
-                GameStartedEvent gameStartedEvent = objectMapper.readValue(eventData, GameStartedEvent.class);
+                GameStartedEvent gameStartedEvent = objectMapper.convertValue(eventData, GameStartedEvent.class);
                 return gameStartedEvent.getGame();
                 
             case "PlayerJoinedEvent":
-                PlayerJoinedEvent playerJoinedEvent = objectMapper.readValue(eventData, PlayerJoinedEvent.class);
+                PlayerJoinedEvent playerJoinedEvent = objectMapper.convertValue(eventData, PlayerJoinedEvent.class);
                 if (game == null) {
                     throw new IllegalStateException("Game not initialized before player joined");
                 }
@@ -103,24 +125,208 @@ public class GameReplayService {
                 return game;
                 
             case "PlayerActionEvent":
-                PlayerActionEvent playerActionEvent = objectMapper.readValue(eventData, PlayerActionEvent.class);
+                PlayerActionEvent playerActionEvent = objectMapper.convertValue(eventData, PlayerActionEvent.class);
                 return playerActionEvent.getGameState();
                 
             case "RoundStartedEvent":
-                RoundStartedEvent roundStartedEvent = objectMapper.readValue(eventData, RoundStartedEvent.class);
+                RoundStartedEvent roundStartedEvent = objectMapper.convertValue(eventData, RoundStartedEvent.class);
                 return roundStartedEvent.getGame();
                 
             case "GameEndedEvent":
-                GameEndedEvent gameEndedEvent = objectMapper.readValue(eventData, GameEndedEvent.class);
+                GameEndedEvent gameEndedEvent = objectMapper.convertValue(eventData, GameEndedEvent.class);
                 return gameEndedEvent.getGame();
                 
             case "CardsDealtEvent":
                 // Cards dealt events don't directly change game state - return as is
                 return game;
+
+            case "GameCreatedEvent":
+            case "GameDeletedEvent":
+                // Table lifecycle only; hands are rebuilt from the events above
+                return game;
                 
             default:
                 logger.warn("Unknown event type: {}", eventType);
                 return game;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Applies a compact record. Table-wide events (start, round, end) carry seat order and
+     * stacks, so the table is resynced from them and the chip movement since the previous one
+     * tells the blinds and the winnings; actions in between only touch the actor.
+     */
+    public static Game applyDelta(Game game, GameEvent eventRecord) {
+        EventDelta delta = eventRecord.getDelta();
+        String eventType = eventRecord.getEventType();
+
+        if ("GameCreatedEvent".equals(eventType)) {
+            game = new Game(0, 0);
+            game.setId(eventRecord.getGameId());
+            game.setCreatedAt(eventRecord.getTimestamp());
+            if (delta.getBlinds() != null) {
+                game.setSmallBlindAmount(delta.getBlinds().get(0));
+                game.setBigBlindAmount(delta.getBlinds().get(1));
+            }
+            if (delta.getMaxPlayers() != null) {
+                game.setMAX_PLAYERS(delta.getMaxPlayers());
+            }
+        } else if (game == null) {
+            // The journal for this game starts mid-life; rebuild from what the records carry
+            game = new Game(0, 0);
+            game.setId(eventRecord.getGameId());
+        }
+
+        Game table = game;
+        Map<String, Double> chipDeltas = delta.getSeats() != null ? syncSeats(table, delta) : Map.of();
+
+        switch (eventType) {
+            case "PlayerJoinedEvent" -> {
+                Player player = seat(table, delta.getActor());
+                player.setUsername(delta.getUsername());
+                player.setName(delta.getName());
+                player.setChips(delta.getStack() != null ? delta.getStack() : 0);
+            }
+            case "GameStartedEvent" -> {
+                table.getCommunityCards().clear();
+                table.setPot(0);
+                table.setCurrentBettingRound(new BettingRound());
+                table.setCurrentBet(0);
+                table.getLastActions().clear();
+                table.getPlayers().forEach(Player::reset);
+            }
+            case "RoundStartedEvent" -> startRound(table, delta, chipDeltas);
+            case "CardsDealtEvent" -> {
+                if (delta.getHands() != null) {
+                    delta.getHands().forEach((id, cards) -> {
+                        Player player = table.getPlayerById(id);
+                        if (player != null) {
+                            player.setHand(EventDelta.decodeCards(cards));
+                        }
+                    });
+                }
+            }
+            case "PlayerActionEvent" -> act(table, delta);
+            case "GameEndedEvent" -> {
+                chipDeltas.forEach((id, won) -> table.getPlayerById(id).setLastWinAmount(Math.max(won, 0)));
+                if (delta.getHands() != null) {
+                    delta.getHands().forEach((id, cards) -> table.getPlayerById(id).setHand(EventDelta.decodeCards(cards)));
+                }
+            }
+            case "GameDeletedEvent" -> table.setStatus(Game.GameStatus.FINISHED);
+            default -> {
+            }
+        }
+
+        if (delta.getPot() != null) {
+            table.setPot(delta.getPot());
+        }
+        if (delta.getStatus() != null) {
+            table.setStatus(delta.getStatus());
+        }
+        if (delta.getTurn() != null) {
+            table.setCurrentPlayerIndex(delta.getTurn());
+        }
+        if (delta.getDealer() != null) {
+            table.setDealerPosition(delta.getDealer());
+        }
+        if (delta.getBoard() != null) {
+            table.setCommunityCards(EventDelta.decodeCards(delta.getBoard()));
+        }
+        table.setUpdatedAt(eventRecord.getTimestamp());
+        return table;
+    }
+
+    // Puts players in the recorded seat order and returns each one's chip change
+    private static Map<String, Double> syncSeats(Game game, EventDelta delta) {
+        Map<String, Double> chipDeltas = new HashMap<>();
+        List<Player> seated = new ArrayList<>(delta.getSeats().size());
+        for (int i = 0; i < delta.getSeats().size(); i++) {
+            String id = delta.getSeats().get(i);
+            double stack = delta.getStacks().get(i);
+            Player player = game.getPlayerById(id);
+            if (player == null) {
+                player = newPlayer(id);
+            } else {
+                chipDeltas.put(id, stack - player.getChips());
+            }
+            player.setChips(stack);
+            seated.add(player);
+        }
+        game.setPlayers(seated);
+        return chipDeltas;
+    }
+
+    private static void startRound(Game game, EventDelta delta, Map<String, Double> chipDeltas) {
+        BettingRound round = new BettingRound();
+        round.setRoundType(BettingRound.RoundType.valueOf(delta.getAction()));
+        game.setCurrentBettingRound(round);
+        game.setCurrentBet(0);
+        if (round.getRoundType() == BettingRound.RoundType.PRE_FLOP) {
+            // Blinds are posted with the round and show up only as stack changes
+            chipDeltas.forEach((id, change) -> {
+                if (change < 0) {
+                    Player player = game.getPlayerById(id);
+                    player.setCurrentBet(-change);
+                    round.getBets().put(id, -change);
+                    game.setCurrentBet(Math.max(game.getCurrentBet(), -change));
+                    game.getLastActions().put(player.getUsername(), -change < game.getBigBlindAmount()
+                            ? Game.PlayerAction.SMALL_BLIND : Game.PlayerAction.BIG_BLIND);
+                }
+            });
+        } else {
+            game.getPlayers().stream()
+                    .filter(Player::isActive)
+                    .forEach(p -> game.getLastActions().put(p.getUsername(), Game.PlayerAction.NONE));
+        }
+    }
+
+    private static void act(Game game, EventDelta delta) {
+        Player player = game.getPlayerById(delta.getActor());
+        if (player == null) {
+            return;
+        }
+        switch (delta.getAction()) {
+            case "LEAVE" -> game.getPlayers().remove(player);
+            case "SIT_OUT" -> player.setSittingOut(true);
+            case "SIT_IN" -> player.setSittingOut(false);
+            case "FOLD", "AUTO_FOLD" -> {
+                player.setHasFolded(true);
+                player.setActive(false);
+                game.getLastActions().put(player.getUsername(), Game.PlayerAction.valueOf(delta.getAction()));
+            }
+            default -> {
+                double amount = delta.getAmount() != null ? delta.getAmount() : 0;
+                double total = game.getCurrentBettingRound().getBets().getOrDefault(player.getId(), 0.0) + amount;
+                game.getCurrentBettingRound().getBets().put(player.getId(), total);
+                game.setCurrentBet(Math.max(game.getCurrentBet(), total));
+                player.setCurrentBet(player.getCurrentBet() + amount);
+                if (delta.getStack() != null) {
+                    player.setChips(delta.getStack());
+                }
+                try {
+                    game.getLastActions().put(player.getUsername(), Game.PlayerAction.valueOf(delta.getAction()));
+                } catch (IllegalArgumentException e) {
+                    // BET / CHECK recorded without the engine's classification
+                }
+            }
+        }
+    }
+
+    private static Player seat(Game game, String id) {
+        Player player = game.getPlayerById(id);
+        if (player == null) {
+            player = newPlayer(id);
+            game.getPlayers().add(player);
+        }
+        return player;
+    }
+
+    private static Player newPlayer(String id) {
+        Player player = new Player();
+        player.setId(id);
+        player.setHand(new ArrayList<>());
+        player.setActive(true);
+        return player;
+    }
+}
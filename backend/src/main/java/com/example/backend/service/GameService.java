@@ -4,6 +4,7 @@ import com.example.backend.entity.Game;
 import com.example.backend.model.BlindPayload;
 import com.example.backend.model.GameUpdate;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface GameService {
@@ -34,4 +35,10 @@ public interface GameService {
     Game getGameForPlayer(Game game, String playerId);
 
     boolean deleteGame(String gameId);
+
+    /**
+     * Deletes the game and drops its event history with it, provided only guests sit at it
+     * and it has not been updated since {@code cutoff}. Returns whether it was deleted.
+     */
+    boolean purgeIfStale(String gameId, OffsetDateTime cutoff);
 }
\ No newline at end of file
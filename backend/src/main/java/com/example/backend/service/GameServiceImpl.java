@@ -3,17 +3,44 @@ package com.example.backend.service;
 import com.example.backend.entity.Game;
 import com.example.backend.model.BlindPayload;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
 import java.util.List;
-
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for game operations. Everything that reads or changes one table runs on
+ * that table's thread in {@link GameTableRegistry}, so concurrent callers are applied in order.
+ * <p>
+ * Mutations that lose a versioned write to another writer are retried up to
+ * {@code game.mutation.max-retries} times; each attempt reloads the game and runs the
+ * service's validation again, so a move that is no longer legal is rejected rather than replayed.
+ * A failed attempt's events and timers are dropped by the table, so only the attempt that
+ * lands is heard.
+ */
 @Service
 @RequiredArgsConstructor
 public class GameServiceImpl implements GameService {
+    private static final Logger logger = LoggerFactory.getLogger(GameServiceImpl.class);
 
     private final GameLifecycleService lifecycleService;
     private final GameHandService handService;
     private final GameActionService actionService;
+    private final GameTableRegistry gameTables;
+
+    @Value("${game.mutation.max-retries:3}")
+    private int maxRetries;
+
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong retriesExhausted = new AtomicLong();
 
     @Override
     public List<Game> getAllGames() {
@@ -27,12 +54,12 @@ public class GameServiceImpl implements GameService {
 
     @Override
     public Game joinGame(String gameId, String username) {
-        return lifecycleService.joinGame(gameId, username);
+        return mutate(gameId, () -> lifecycleService.joinGame(gameId, username));
     }
 
     @Override
     public Game getGameForPlayer(String gameId, String playerId) {
-        return lifecycleService.getGameForPlayer(gameId, playerId);
+        return gameTables.call(gameId, () -> lifecycleService.getGameForPlayer(gameId, playerId));
     }
 
     @Override
@@ -42,46 +69,94 @@ public class GameServiceImpl implements GameService {
 
     @Override
     public void leaveGame(String gameId, String playerId) {
-        lifecycleService.leaveGame(gameId, playerId);
+        mutate(gameId, () -> lifecycleService.leaveGame(gameId, playerId));
     }
 
     @Override
     public void sitOut(String gameId, String playerId) {
-        lifecycleService.sitOut(gameId, playerId);
+        mutate(gameId, () -> lifecycleService.sitOut(gameId, playerId));
     }
 
     @Override
     public void sitIn(String gameId, String playerId) {
-        lifecycleService.sitIn(gameId, playerId);
+        mutate(gameId, () -> lifecycleService.sitIn(gameId, playerId));
     }
 
     @Override
     public boolean deleteGame(String gameId) {
-        return lifecycleService.deleteGame(gameId);
+        return gameTables.call(gameId, () -> lifecycleService.deleteGame(gameId));
+    }
+
+    @Override
+    public boolean purgeIfStale(String gameId, OffsetDateTime cutoff) {
+        return gameTables.call(gameId, () -> lifecycleService.purgeIfStale(gameId, cutoff));
     }
 
     @Override
     public void startNewHand(String gameId) {
-        handService.startNewHand(gameId);
+        mutate(gameId, () -> handService.startNewHand(gameId));
     }
 
     @Override
     public void executeAllInAction(String gameId) {
-        handService.executeAllInAction(gameId);
+        mutate(gameId, () -> handService.executeAllInAction(gameId));
     }
 
     @Override
     public void placeBet(String gameId, String playerId, double amount) {
-        actionService.placeBet(gameId, playerId, amount);
+        mutate(gameId, () -> actionService.placeBet(gameId, playerId, amount));
     }
 
     @Override
     public void check(String gameId, String playerId) {
-        actionService.check(gameId, playerId);
+        mutate(gameId, () -> actionService.check(gameId, playerId));
     }
 
     @Override
     public void fold(String gameId, String playerId) {
-        actionService.fold(gameId, playerId);
+        mutate(gameId, () -> actionService.fold(gameId, playerId));
+    }
+
+    private void mutate(String gameId, Runnable action) {
+        mutate(gameId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T mutate(String gameId, Supplier<T> action) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return gameTables.call(gameId, action);
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                conflicts.incrementAndGet();
+                if (attempt >= maxRetries) {
+                    retriesExhausted.incrementAndGet();
+                    logger.warn("Giving up on game {} after {} conflicting writes", gameId, attempt + 1);
+                    throw e;
+                }
+                retries.incrementAndGet();
+                logger.debug("Retrying game {} after a conflicting write (attempt {})", gameId, attempt + 1);
+            }
+        }
+    }
+
+    // Services wrap failures in RuntimeException("Failed to ...", e), so look down the chain
+    private static boolean isConflict(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        logger.info("Game mutation metrics: conflicts={}, retries={}, retriesExhausted={}",
+                conflicts.get(), retries.get(), retriesExhausted.get());
     }
 }
@@ -0,0 +1,133 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.entity.GameSnapshot;
+import com.example.backend.event.GameDeletedEvent;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.event.GameEvent;
+import com.example.backend.event.GameStartedEvent;
+import com.example.backend.event.PlayerActionEvent;
+import com.example.backend.event.RoundStartedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes periodic full-state snapshots next to the event journal: at the end of every hand,
+ * and mid-hand once {@code game.snapshot.interval-events} events have passed since the last
+ * one. The state is copied on the publishing thread and written off it.
+ */
+@Service
+public class GameSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(GameSnapshotService.class);
+
+    static final String COLLECTION = "game_snapshots";
+
+    private final MongoTemplate mongoTemplate;
+    private final long intervalEvents;
+    private final Map<String, Long> lastSnapshotSeq = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public GameSnapshotService(MongoTemplate mongoTemplate,
+                               @Value("${game.snapshot.interval-events:100}") long intervalEvents) {
+        this.mongoTemplate = mongoTemplate;
+        this.intervalEvents = intervalEvents;
+    }
+
+    /**
+     * Called once the event has been given its journal sequence number.
+     */
+    public void onJournaled(GameEvent event, long seq) {
+        if (event instanceof GameDeletedEvent) {
+            lastSnapshotSeq.remove(event.getGameId());
+            return;
+        }
+        Game state = stateOf(event);
+        if (state == null) {
+            return;
+        }
+        long last = lastSnapshotSeq.getOrDefault(event.getGameId(), 0L);
+        if (!(event instanceof GameEndedEvent) && seq - last < intervalEvents) {
+            return;
+        }
+        lastSnapshotSeq.put(event.getGameId(), seq);
+        // The event's copy is shared with other listeners; snapshot a private one
+        GameSnapshot snapshot = new GameSnapshot(event.getGameId() + ":" + seq, event.getGameId(), seq,
+                event.getTimestamp(), new Game(state));
+        taken.incrementAndGet();
+        writers.execute(() -> write(snapshot));
+    }
+
+    /**
+     * The latest snapshot at or before {@code maxSeq}, or null if there is none.
+     */
+    public GameSnapshot latest(String gameId, long maxSeq) {
+        Query query = new Query(Criteria.where("gameId").is(gameId).and("seq").lte(maxSeq))
+                .with(Sort.by(Sort.Direction.DESC, "seq"))
+                .limit(1);
+        return mongoTemplate.findOne(query, GameSnapshot.class, COLLECTION);
+    }
+
+    public void purge(Collection<String> gameIds) {
+        mongoTemplate.remove(new Query(Criteria.where("gameId").in(gameIds)), COLLECTION);
+    }
+
+    private static Game stateOf(GameEvent event) {
+        return switch (event) {
+            case GameEndedEvent ended -> ended.getGame();
+            case GameStartedEvent started -> started.getGame();
+            case RoundStartedEvent round -> round.getGame();
+            case PlayerActionEvent action -> action.getGameState();
+            default -> null;
+        };
+    }
+
+    private void write(GameSnapshot snapshot) {
+        try {
+            mongoTemplate.save(snapshot, COLLECTION);
+            written.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            if (e.getMessage() != null && (e.getMessage().contains("server session pool is open")
+                    || e.getMessage().contains("state should be: open"))) {
+                logger.debug("Could not write snapshot {} (MongoDB shutting down): {}", snapshot.getId(), e.getMessage());
+            } else {
+                logger.error("Failed to write snapshot {}: {}", snapshot.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+        try {
+            writers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        logger.info("Game snapshots: taken={}, written={}, failed={}", taken.get(), written.get(), failed.get());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns two JSON views of the same game into a JSON Patch (RFC 6902) between them.
+ * <p>
+ * Objects and equally sized arrays (e.g. {@code players}) are compared element by element,
+ * so a bet becomes a {@code replace} of {@code /players/2/chips} and {@code /pot} rather
+ * than a new copy of the table. Arrays that grew or shrank, such as the community cards,
+ * are replaced whole.
+ */
+final class GameStateDiff {
+
+    private GameStateDiff() {
+    }
+
+    static ArrayNode diff(JsonNode before, JsonNode after) {
+        ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+        diffValue(patch, "", before, after);
+        return patch;
+    }
+
+    private static void diffValue(ArrayNode patch, String path, JsonNode old, JsonNode now) {
+        if (old.equals(now)) {
+            return;
+        }
+        if (old.isObject() && now.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = now.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String fieldPath = path + "/" + escape(field.getKey());
+                JsonNode previous = old.get(field.getKey());
+                if (previous == null) {
+                    op(patch, "add", fieldPath).set("value", field.getValue());
+                } else {
+                    diffValue(patch, fieldPath, previous, field.getValue());
+                }
+            }
+            Iterator<String> names = old.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!now.has(name)) {
+                    op(patch, "remove", path + "/" + escape(name));
+                }
+            }
+        } else if (old.isArray() && now.isArray() && old.size() == now.size()) {
+            for (int i = 0; i < now.size(); i++) {
+                diffValue(patch, path + "/" + i, old.get(i), now.get(i));
+            }
+        } else {
+            op(patch, "replace", path).set("value", now);
+        }
+    }
+
+    /**
+     * Applies a patch made by {@link #diff} to a copy of {@code base}; what a client does with
+     * each update it receives.
+     */
+    static JsonNode apply(JsonNode base, JsonNode patch) {
+        JsonNode result = base.deepCopy();
+        for (JsonNode op : patch) {
+            List<String> path = tokens(op.get("path").asText());
+            if (path.isEmpty()) {
+                result = op.get("value").deepCopy();
+                continue;
+            }
+            JsonNode parent = result;
+            for (String token : path.subList(0, path.size() - 1)) {
+                parent = parent.isArray() ? parent.get(Integer.parseInt(token)) : parent.get(token);
+            }
+            String last = path.get(path.size() - 1);
+            String kind = op.get("op").asText();
+            if (parent instanceof ArrayNode array) {
+                int index = Integer.parseInt(last);
+                if ("remove".equals(kind)) {
+                    array.remove(index);
+                } else if ("add".equals(kind)) {
+                    array.insert(index, op.get("value").deepCopy());
+                } else {
+                    array.set(index, op.get("value").deepCopy());
+                }
+            } else if (parent instanceof ObjectNode object) {
+                if ("remove".equals(kind)) {
+                    object.remove(last);
+                } else {
+                    object.set(last, op.get("value").deepCopy());
+                }
+            } else {
+                throw new IllegalArgumentException("Patch path does not exist: " + op.get("path").asText());
+            }
+        }
+        return result;
+    }
+
+    private static ObjectNode op(ArrayNode patch, String kind, String path) {
+        return patch.addObject().put("op", kind).put("path", path);
+    }
+
+    // JSON Pointer (RFC 6901) escaping of one path segment
+    private static String escape(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static List<String> tokens(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
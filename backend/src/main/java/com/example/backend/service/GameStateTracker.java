@@ -0,0 +1,196 @@
+package com.example.backend.service;
+
+import com.example.backend.model.GameUpdate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions each table's public view for the delta form of {@code gameUpdated}.
+ * <p>
+ * An update that carries the table's state bumps the table's version and is diffed, once,
+ * against the view before it into a JSON Patch whose {@code baseVersion} is the version it
+ * applies on. Delta subscribers open with a {@code SNAPSHOT} of the current view and then
+ * receive only patches; one that sees a {@code baseVersion} other than the version it holds
+ * has missed an update and asks for {@link #resync(String)}. Updates without table state,
+ * such as chat, go out unchanged with the current version and no patch. Payloads are
+ * rendered once per update by the {@link GameViewRenderer}, whose view is also what is
+ * diffed.
+ */
+@Service
+public class GameStateTracker {
+    private static final Logger logger = LoggerFactory.getLogger(GameStateTracker.class);
+
+    private static final class View {
+        // Guarded by this
+        long version;
+        JsonNode state;
+    }
+
+    private final GameBroadcastHub broadcastHub;
+    private final GameViewRenderer renderer;
+    private final GameService gameService;
+
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+
+    private final AtomicLong patches = new AtomicLong();
+    private final AtomicLong patchOps = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    public GameStateTracker(GameBroadcastHub broadcastHub, GameViewRenderer renderer, @Lazy GameService gameService) {
+        this.broadcastHub = broadcastHub;
+        this.renderer = renderer;
+        this.gameService = gameService;
+    }
+
+    public Flux<GameUpdate> updates(String gameId) {
+        return updates(gameId, null, null);
+    }
+
+    /**
+     * The delta stream, resumed after {@code fromSeq} of {@code fromEpoch} when given.
+     */
+    public Flux<GameUpdate> updates(String gameId, Long fromSeq, String fromEpoch) {
+        return broadcastHub.deltaUpdates(gameId, fromSeq, fromEpoch, () -> {
+            snapshots.incrementAndGet();
+            return snapshot(gameId);
+        });
+    }
+
+    /**
+     * The full public stream after {@code fromSeq}, or from a snapshot of the table when the
+     * updates since are no longer held.
+     */
+    public Flux<GameUpdate> resume(String gameId, long fromSeq, String fromEpoch) {
+        return broadcastHub.gameUpdates(gameId, fromSeq, fromEpoch, () -> {
+            snapshots.incrementAndGet();
+            return snapshot(gameId);
+        });
+    }
+
+    /**
+     * A player's private stream after {@code fromSeq}, or from a snapshot of the table as the
+     * player sees it, own hand included.
+     */
+    public Flux<GameUpdate> resumePlayer(String gameId, String playerId, long fromSeq, String fromEpoch) {
+        return broadcastHub.playerUpdates(gameId, playerId, fromSeq, fromEpoch, () -> {
+            snapshots.incrementAndGet();
+            return GameUpdate.builder()
+                    .gameId(gameId)
+                    .type(GameUpdate.GameUpdateType.SNAPSHOT)
+                    .payload(gameService.getGameForPlayer(gameId, playerId))
+                    .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+                    .build();
+        });
+    }
+
+    public GameUpdate resync(String gameId) {
+        resyncs.incrementAndGet();
+        return snapshot(gameId);
+    }
+
+    /**
+     * Renders a public update's payload for spectators and publishes it to both kinds of
+     * subscriber.
+     */
+    public void publish(GameUpdate update) {
+        String gameId = update.getGameId();
+        GameViewRenderer.View rendered = renderer.render(update.getPayload());
+        update.setPayload(rendered.encoded());
+        if (rendered.state() == null) {
+            View view = views.get(gameId);
+            Long version = null;
+            if (view != null) {
+                synchronized (view) {
+                    version = view.version;
+                }
+            }
+            broadcastHub.publish(gameId, update, version == null ? update : delta(update, update.getPayload(), version));
+            return;
+        }
+
+        JsonNode state = rendered.state();
+        View view = views.computeIfAbsent(gameId, id -> new View());
+        // Held while publishing so the delta subscribers see the versions in order
+        synchronized (view) {
+            // A table's first state is a patch of everything
+            JsonNode base = view.state != null ? view.state : JsonNodeFactory.instance.objectNode();
+            ArrayNode patch = GameStateDiff.diff(base, state);
+            view.version++;
+            view.state = state;
+            patches.incrementAndGet();
+            patchOps.addAndGet(patch.size());
+
+            GameUpdate delta = delta(update, rendered.rest(), view.version);
+            delta.setBaseVersion(view.version - 1);
+            delta.setPatch(patch);
+            broadcastHub.publish(gameId, update, delta);
+        }
+    }
+
+    public void close(String gameId) {
+        views.remove(gameId);
+    }
+
+    private GameUpdate snapshot(String gameId) {
+        View view = views.get(gameId);
+        if (view == null || currentState(view) == null) {
+            // Nothing published since startup: read the table outside the lock, which a table
+            // publishing inline may be waiting on
+            JsonNode loaded = renderer.renderState(gameService.getGameForPlayer(gameId, null));
+            view = views.computeIfAbsent(gameId, id -> new View());
+            synchronized (view) {
+                if (view.state == null) {
+                    view.state = loaded;
+                    view.version = 1;
+                }
+            }
+        }
+        synchronized (view) {
+            return GameUpdate.builder()
+                    .gameId(gameId)
+                    .type(GameUpdate.GameUpdateType.SNAPSHOT)
+                    .payload(view.state)
+                    .version(view.version)
+                    .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+                    .build();
+        }
+    }
+
+    private static JsonNode currentState(View view) {
+        synchronized (view) {
+            return view.state;
+        }
+    }
+
+    private static GameUpdate delta(GameUpdate update, Object payload, long version) {
+        return GameUpdate.builder()
+                .gameId(update.getGameId())
+                .type(update.getType())
+                .payload(payload)
+                .timestamp(update.getTimestamp())
+                .version(version)
+                .build();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        long count = Math.max(patches.get(), 1);
+        logger.info("Game state metrics: tables={}, patches={}, avgOps={}, snapshots={}, resyncs={}",
+                views.size(), patches.get(), String.format("%.1f", patchOps.get() / (double) count),
+                snapshots.get(), resyncs.get());
+    }
+}
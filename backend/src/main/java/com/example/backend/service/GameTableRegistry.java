@@ -0,0 +1,618 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.repository.GameRepository;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Owns the authoritative in-memory {@link Game} of every active table.
+ * <p>
+ * Each table is an actor: a virtual thread draining a mailbox, so actions on one table
+ * (human moves, timeouts, bot turns, hand starts) apply strictly one after another while
+ * different tables run in parallel. The game is loaded from Mongo on the table's first
+ * action and stays in memory until the table has been idle for
+ * {@code game.table.idle-timeout-ms}.
+ * <p>
+ * Persistence is write-behind. {@link #save(Game)} only marks the table dirty; the table
+ * flushes at most once per {@code game.table.flush-interval-ms}, snapshotting the game
+ * into a BSON document on its own thread and writing it in the background, in order per
+ * table. When a hand ends, and when a table retires or the application stops, the flush
+ * is synchronous, so a crash loses at most the hand in progress.
+ * <p>
+ * A flush sends only the fields that changed since the last one ({@link GameDocumentDiff}),
+ * guarded by {@link Game#getVersion()}. If the stored version has moved on, someone else
+ * wrote the game: the update is dropped and the table reloads before its next action.
+ * A conflict found by the synchronous flush at the end of an action fails that action with
+ * an {@link OptimisticLockingFailureException}, so the caller can retry on fresh state.
+ * What the action announced through {@link #afterSettle(String, Runnable)}, its events and
+ * timers, is released only once that flush has landed and is dropped with a failed action,
+ * so a retried action is heard once.
+ * <p>
+ * A failed action, a rejected move included, is rolled back to the state it started from:
+ * a checkpoint of the game taken on entry while unflushed changes exist, otherwise the last
+ * flushed document. Earlier actions waiting for the next flush survive it.
+ */
+@Service
+public class GameTableRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(GameTableRegistry.class);
+
+    private static final ThreadLocal<Table> CURRENT = new ThreadLocal<>();
+    private static final Runnable STOP = () -> { };
+
+    private final GameRepository gameRepository;
+    private final MongoTemplate mongoTemplate;
+    private final long idleTimeoutMs;
+    private final long flushIntervalMs;
+
+    private final ConcurrentHashMap<String, Table> tables = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean shuttingDown;
+
+    // Totals across all tables, including retired ones
+    private final AtomicLong totalSaves = new AtomicLong();
+    private final AtomicLong totalFlushes = new AtomicLong();
+    private final AtomicLong totalWriteErrors = new AtomicLong();
+    private final AtomicLong totalDeltaFlushes = new AtomicLong();
+    private final AtomicLong totalConflicts = new AtomicLong();
+
+    public GameTableRegistry(GameRepository gameRepository, MongoTemplate mongoTemplate,
+                             @Value("${game.table.idle-timeout-ms:600000}") long idleTimeoutMs,
+                             @Value("${game.table.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.gameRepository = gameRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Runs an action on the table's thread and waits for its result. Calls made from the
+     * table's own thread run inline, so services can call each other freely.
+     */
+    public <T> T call(String gameId, Supplier<T> action) {
+        if (gameId == null || gameId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Game ID cannot be null or empty");
+        }
+        Table current = CURRENT.get();
+        if (current != null && current.gameId.equals(gameId)) {
+            return action.get();
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            Table table = CURRENT.get();
+            Document checkpoint = table.checkpoint();
+            try {
+                T value = action.get();
+                table.settle();
+                table.release();
+                result.complete(value);
+            } catch (Throwable t) {
+                // The action may have left the game half changed
+                table.rollback(checkpoint);
+                result.completeExceptionally(t);
+            }
+        };
+        while (true) {
+            if (shuttingDown) {
+                throw new IllegalStateException("Game tables are shutting down");
+            }
+            Table table = tables.computeIfAbsent(gameId, Table::new);
+            if (table.offer(task)) {
+                break;
+            }
+            // The table retired between lookup and offer
+            tables.remove(gameId, table);
+        }
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for game " + gameId, e);
+        }
+    }
+
+    public void run(String gameId, Runnable action) {
+        call(gameId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * The live game when called from its table, otherwise a copy taken on the table.
+     * Copies carry no deck and are never saved.
+     */
+    public Game load(String gameId) {
+        Table current = CURRENT.get();
+        if (current != null && current.gameId.equals(gameId)) {
+            return current.game();
+        }
+        return call(gameId, () -> new Game(CURRENT.get().game()));
+    }
+
+    /**
+     * A copy of the in-memory game if its table is resident; Mongo may lag behind it.
+     */
+    public Optional<Game> residentSnapshot(String gameId) {
+        Table table = tables.get(gameId);
+        if (table == null || !table.loaded) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(load(gameId));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isResident(String gameId) {
+        return tables.containsKey(gameId);
+    }
+
+    /**
+     * Marks the game dirty; it reaches Mongo on the table's next flush.
+     */
+    public void save(Game game) {
+        Table table = owner(game.getId());
+        if (table.deleted) {
+            logger.debug("Ignoring save of deleted game {}", game.getId());
+            return;
+        }
+        table.game = game;
+        table.markDirty();
+        totalSaves.incrementAndGet();
+    }
+
+    /**
+     * Writes the game now and waits until Mongo has it.
+     */
+    public void flush(Game game) {
+        Table table = owner(game.getId());
+        table.game = game;
+        table.flush(true);
+    }
+
+    public void delete(Game game) {
+        Table table = owner(game.getId());
+        table.game = null;
+        table.deleted = true;
+        table.dirty = false;
+        table.write("delete", () -> gameRepository.deleteById(game.getId()));
+    }
+
+    /**
+     * Hand boundary: persist the settled hand once the action running on the table returns.
+     */
+    public void flushOnSettle(String gameId) {
+        Table current = CURRENT.get();
+        if (current != null && current.gameId.equals(gameId)) {
+            current.flushRequested = true;
+        }
+    }
+
+    /**
+     * Runs the effect once the action running on the game's table has settled, or now when
+     * called off the table.
+     */
+    public void afterSettle(String gameId, Runnable effect) {
+        Table current = CURRENT.get();
+        if (current != null && current.gameId.equals(gameId)) {
+            current.effects.add(effect);
+        } else {
+            effect.run();
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        StringBuilder sb = new StringBuilder("Game table metrics:\n");
+        sb.append(String.format("  resident=%d, saves=%d, flushes=%d (delta=%d), coalesced=%d, conflicts=%d, writeErrors=%d\n",
+                tables.size(), totalSaves.get(), totalFlushes.get(), totalDeltaFlushes.get(),
+                totalSaves.get() - totalFlushes.get(), totalConflicts.get(), totalWriteErrors.get()));
+        for (Table table : tables.values()) {
+            sb.append(String.format("  %s: saves=%d, flushes=%d, lastLag=%dms, maxLag=%dms\n",
+                    table.gameId, table.saves.get(), table.flushes.get(),
+                    table.lastLagMs.get(), table.maxLagMs.get()));
+        }
+        logger.info(sb.toString());
+    }
+
+    private Table owner(String gameId) {
+        Table current = CURRENT.get();
+        if (current == null || !current.gameId.equals(gameId)) {
+            throw new IllegalStateException("Game " + gameId + " can only be written from its table");
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        tables.values().forEach(Table::close);
+        for (Table table : tables.values()) {
+            try {
+                if (!table.thread.join(Duration.ofSeconds(10))) {
+                    logger.warn("Table {} did not stop within 10s", table.gameId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writers.shutdown();
+        try {
+            writers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Stopped {} game tables", tables.size());
+    }
+
+    private final class Table {
+        private final String gameId;
+        private final BlockingQueue<Runnable> mailbox = new LinkedBlockingQueue<>();
+        private final Thread thread;
+
+        // Confined to the table thread, except `loaded` which readers peek at
+        private Game game;
+        private volatile boolean loaded;
+        private boolean deleted;
+        private boolean dirty;
+        private boolean flushRequested;
+        // Held back until the running action settles
+        private final List<Runnable> effects = new ArrayList<>();
+        private long dirtySince;
+        private long lastActivity = System.currentTimeMillis();
+        private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+        // What Mongo holds as of the last flush; deltas are diffed against it
+        private Document persisted;
+
+        // Set by writer threads: a failed write needs a full rewrite, a conflict a reload
+        private volatile boolean resync;
+        private volatile boolean stale;
+        // The version Mongo holds, as of the last write that landed; a rewrite is guarded by it
+        private volatile long storedVersion;
+
+        // Written by writer threads, read by logMetrics
+        private final AtomicLong saves = new AtomicLong();
+        private final AtomicLong flushes = new AtomicLong();
+        private final AtomicLong lastLagMs = new AtomicLong();
+        private final AtomicLong maxLagMs = new AtomicLong();
+
+        // Guarded by this
+        private boolean closed;
+
+        Table(String gameId) {
+            this.gameId = gameId;
+            this.thread = Thread.ofVirtual().name("table-" + gameId).start(this::runLoop);
+        }
+
+        synchronized boolean offer(Runnable task) {
+            if (closed) {
+                return false;
+            }
+            mailbox.add(task);
+            return true;
+        }
+
+        synchronized void close() {
+            closed = true;
+            mailbox.add(STOP);
+        }
+
+        Game game() {
+            if (deleted) {
+                throw new RuntimeException("Game not found: " + gameId);
+            }
+            if (stale) {
+                logger.warn("Reloading game {} after a conflicting write", gameId);
+                stale = false;
+                game = null;
+                dirty = false;
+            }
+            if (game == null) {
+                game = gameRepository.findById(gameId)
+                        .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
+                game.restoreDeck();
+                persisted = toDocument(game);
+                storedVersion = game.getVersion();
+                // What was just read is what Mongo holds
+                resync = false;
+                loaded = true;
+            }
+            return game;
+        }
+
+        private Document toDocument(Game source) {
+            source.refreshOpenSeats();
+            source.refreshGuestOnly();
+            Document document = new Document();
+            mongoTemplate.getConverter().write(source, document);
+            return document;
+        }
+
+        void markDirty() {
+            saves.incrementAndGet();
+            if (!dirty) {
+                dirty = true;
+                dirtySince = System.currentTimeMillis();
+            }
+        }
+
+        /**
+         * Snapshots the game on this thread and writes it behind the previous writes;
+         * {@code sync} waits for the write to land.
+         */
+        void flush(boolean sync) {
+            if ((dirty || resync) && game != null && !stale) {
+                writeDirtyGame();
+            }
+            if (sync) {
+                awaitWrites();
+            }
+        }
+
+        private void writeDirtyGame() {
+            long dirtyAt = dirtySince;
+            dirty = false;
+            Document document = toDocument(game);
+            String collection = mongoTemplate.getCollectionName(Game.class);
+            boolean inserting = persisted == null;
+
+            Update update = null;
+            if (!inserting && !resync) {
+                update = GameDocumentDiff.diff(persisted, document);
+                if (update.getUpdateObject().isEmpty()) {
+                    return;
+                }
+            }
+
+            // A failed write never bumped the stored version, so a rewrite starts from the last that landed
+            long expectedVersion = update == null && !inserting ? storedVersion : game.getVersion();
+            game.setVersion(expectedVersion + 1);
+            document.put("version", expectedVersion + 1);
+            persisted = document;
+
+            if (update == null) {
+                // Only a game never written may be inserted; anything else could resurrect a deleted one
+                Bson filter = Filters.and(Filters.eq("_id", document.get("_id")), expectedVersion == 0
+                        ? Filters.in("version", 0L, null)
+                        : Filters.eq("version", expectedVersion));
+                write("save", () -> {
+                    UpdateResult result = mongoTemplate.getCollection(collection).replaceOne(
+                            filter, document, new ReplaceOptions().upsert(inserting));
+                    if (result.getMatchedCount() == 0 && result.getUpsertedId() == null) {
+                        conflict(expectedVersion);
+                        return;
+                    }
+                    resync = false;
+                    storedVersion = expectedVersion + 1;
+                    recordFlush(dirtyAt);
+                });
+                return;
+            }
+
+            update.inc("version", 1);
+            // Documents written before versioning have no field, which matches null
+            Criteria version = expectedVersion == 0
+                    ? Criteria.where("version").in(0L, null)
+                    : Criteria.where("version").is(expectedVersion);
+            Query query = new Query(Criteria.where("_id").is(document.get("_id")).andOperator(version));
+            Update delta = update;
+            write("update", () -> {
+                UpdateResult result = mongoTemplate.updateFirst(query, delta, collection);
+                if (result.getMatchedCount() == 0) {
+                    conflict(expectedVersion);
+                    return;
+                }
+                storedVersion = expectedVersion + 1;
+                totalDeltaFlushes.incrementAndGet();
+                recordFlush(dirtyAt);
+            });
+        }
+
+        private void conflict(long expectedVersion) {
+            totalConflicts.incrementAndGet();
+            stale = true;
+            logger.warn("Version conflict writing game {} at version {}; the table will reload",
+                    gameId, expectedVersion);
+        }
+
+        private void recordFlush(long dirtyAt) {
+            long lag = System.currentTimeMillis() - dirtyAt;
+            lastLagMs.set(lag);
+            maxLagMs.accumulateAndGet(lag, Math::max);
+            flushes.incrementAndGet();
+            totalFlushes.incrementAndGet();
+        }
+
+        void write(String operation, Runnable write) {
+            lastWrite = lastWrite.thenRunAsync(() -> {
+                try {
+                    write.run();
+                } catch (Exception e) {
+                    totalWriteErrors.incrementAndGet();
+                    resync = true;
+                    if (e.getMessage() != null && (e.getMessage().contains("server session pool is open")
+                            || e.getMessage().contains("state should be: open"))) {
+                        logger.debug("Could not {} game {} (database shutting down): {}", operation, gameId, e.getMessage());
+                    } else {
+                        logger.error("Failed to {} game {}: {}", operation, gameId, e.getMessage(), e);
+                    }
+                }
+            }, writers);
+        }
+
+        private void runLoop() {
+            CURRENT.set(this);
+            try {
+                while (true) {
+                    Runnable task = mailbox.poll(nextWakeUpMs(), TimeUnit.MILLISECONDS);
+                    if (task == STOP) {
+                        return;
+                    }
+                    long now = System.currentTimeMillis();
+                    if (task != null) {
+                        task.run();
+                        lastActivity = now;
+                    }
+
+                    // Hand-end flushes already landed in settle()
+                    if (dirty && now - dirtySince >= flushIntervalMs) {
+                        flush(false);
+                    }
+
+                    // Idle tables and lookups of unknown games give their thread back
+                    boolean idle = task == null && !dirty && now - lastActivity >= idleTimeoutMs;
+                    if ((idle || (task != null && game == null)) && retire()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                flush(true);
+                CURRENT.remove();
+            }
+        }
+
+        /**
+         * Runs after each mailbox action: lands the hand-end flush the action asked for and
+         * fails the action if that write lost to a concurrent one.
+         */
+        void settle() {
+            if (flushRequested) {
+                flushRequested = false;
+                flush(true);
+            }
+            if (stale) {
+                throw new OptimisticLockingFailureException("Game " + gameId + " was modified concurrently");
+            }
+        }
+
+        /**
+         * The game as an action finds it, for {@link #rollback(Document)}. Only taken while
+         * there are unflushed changes; a clean game matches {@link #persisted}.
+         */
+        Document checkpoint() {
+            return game != null && dirty && !stale ? toDocument(game) : null;
+        }
+
+        /**
+         * Undoes a failed action: drops its effects and restores the game it started from,
+         * keeping the unflushed changes of the actions before it. Falls back to
+         * {@link #discard()} when the action flushed or lost a conflict on the way.
+         */
+        void rollback(Document checkpoint) {
+            effects.clear();
+            flushRequested = false;
+            if (game == null) {
+                return;
+            }
+            Document before = checkpoint != null ? checkpoint : persisted;
+            if (stale || before == null || !(before.get("version") instanceof Number version)
+                    || version.longValue() != game.getVersion()) {
+                discard();
+                return;
+            }
+            game = mongoTemplate.getConverter().read(Game.class, before);
+            dirty = checkpoint != null;
+        }
+
+        /**
+         * Drops the in-memory game so the next action reloads what was last written.
+         * Changes not yet flushed are lost with it.
+         */
+        void discard() {
+            effects.clear();
+            if (game == null) {
+                return;
+            }
+            if (dirty) {
+                logger.warn("Discarding unflushed changes to game {} after a failed action", gameId);
+            }
+            game = null;
+            persisted = null;
+            dirty = false;
+            flushRequested = false;
+            // The reload must see the writes already queued
+            awaitWrites();
+        }
+
+        void release() {
+            // An effect may call back into this table and add more
+            for (int i = 0; i < effects.size(); i++) {
+                try {
+                    effects.get(i).run();
+                } catch (RuntimeException e) {
+                    // The action has landed; one failing effect must not undo it
+                    logger.error("Effect after an action on game {} failed: {}", gameId, e.getMessage(), e);
+                }
+            }
+            effects.clear();
+        }
+
+        private long nextWakeUpMs() {
+            long now = System.currentTimeMillis();
+            long wakeUp = dirty ? dirtySince + flushIntervalMs : lastActivity + idleTimeoutMs;
+            return Math.max(1, wakeUp - now);
+        }
+
+        private void awaitWrites() {
+            lastWrite.exceptionally(e -> null).join();
+        }
+
+        private boolean retire() {
+            flush(true);
+            synchronized (this) {
+                if (!mailbox.isEmpty()) {
+                    return false;
+                }
+                closed = true;
+            }
+            tables.remove(gameId, this);
+            logger.debug("Table {} retired", gameId);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.GameUpdate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges a table's bursts of public updates, such as bots acting back to back or an all-in
+ * board being run out, before they are rendered and published.
+ * <p>
+ * With {@code game.broadcast.conflate-window-ms} above 0, an update that finds the table
+ * quiet goes out at once and opens a window of that length. {@code PLAYER_ACTION},
+ * {@code ROUND_STARTED} and {@code COMMUNITY_CARDS} arriving inside the window are held,
+ * and one that carries the whole table replaces everything held before it; what is left
+ * goes out when the window ends, which opens the next one. Any other update, and any
+ * private one such as {@code CARDS_DEALT}, first sends what is held and is never held or
+ * dropped itself, so {@code GAME_ENDED} always follows the state it ends.
+ */
+@Service
+public class GameUpdateConflator {
+    private static final Logger logger = LoggerFactory.getLogger(GameUpdateConflator.class);
+
+    private static final Set<GameUpdate.GameUpdateType> CONFLATED = EnumSet.of(
+            GameUpdate.GameUpdateType.PLAYER_ACTION,
+            GameUpdate.GameUpdateType.ROUND_STARTED,
+            GameUpdate.GameUpdateType.COMMUNITY_CARDS);
+
+    private final long windowMillis;
+    private final TaskScheduler taskScheduler;
+    private final GameStateTracker stateTracker;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private final AtomicLong passed = new AtomicLong();
+    private final AtomicLong held = new AtomicLong();
+    private final AtomicLong saved = new AtomicLong();
+
+    public GameUpdateConflator(@Value("${game.broadcast.conflate-window-ms:0}") long windowMillis,
+                               TaskScheduler taskScheduler, GameStateTracker stateTracker) {
+        this.windowMillis = windowMillis;
+        this.taskScheduler = taskScheduler;
+        this.stateTracker = stateTracker;
+    }
+
+    public void publish(GameUpdate update) {
+        if (windowMillis <= 0) {
+            stateTracker.publish(update);
+            return;
+        }
+        Window window = windows.computeIfAbsent(update.getGameId(), Window::new);
+        synchronized (window) {
+            if (!CONFLATED.contains(update.getType())) {
+                window.send();
+                passed.incrementAndGet();
+                stateTracker.publish(update);
+                return;
+            }
+            if (window.timer == null) {
+                passed.incrementAndGet();
+                stateTracker.publish(update);
+                window.open();
+                return;
+            }
+            held.incrementAndGet();
+            if (carriesTable(update)) {
+                saved.addAndGet(window.pending.size());
+                window.pending.clear();
+            }
+            window.pending.add(update);
+        }
+    }
+
+    /**
+     * Sends what the table holds, e.g. ahead of a private update.
+     */
+    public void flush(String gameId) {
+        Window window = windows.get(gameId);
+        if (window != null) {
+            synchronized (window) {
+                window.send();
+            }
+        }
+    }
+
+    public void close(String gameId) {
+        Window window = windows.remove(gameId);
+        if (window != null) {
+            synchronized (window) {
+                window.send();
+                window.cancel();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        for (String gameId : new ArrayList<>(windows.keySet())) {
+            close(gameId);
+        }
+    }
+
+    private static boolean carriesTable(GameUpdate update) {
+        return update.getType() != GameUpdate.GameUpdateType.COMMUNITY_CARDS && update.getPayload() instanceof Game;
+    }
+
+    private final class Window {
+        final String gameId;
+        // Guarded by this
+        final List<GameUpdate> pending = new ArrayList<>();
+        ScheduledFuture<?> timer; // null while the table is quiet
+
+        Window(String gameId) {
+            this.gameId = gameId;
+        }
+
+        void open() {
+            timer = taskScheduler.schedule(this::end, Instant.now().plusMillis(windowMillis));
+        }
+
+        void end() {
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    timer = null;
+                    return;
+                }
+                send();
+                // Still busy: keep merging
+                open();
+            }
+        }
+
+        void send() {
+            for (GameUpdate update : pending) {
+                stateTracker.publish(update);
+            }
+            pending.clear();
+        }
+
+        void cancel() {
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        if (windowMillis <= 0) {
+            return;
+        }
+        logger.info("Game update conflation metrics: window={}ms, tables={}, passed={}, held={}, saved={}",
+                windowMillis, windows.size(), passed.get(), held.get(), saved.get());
+    }
+}
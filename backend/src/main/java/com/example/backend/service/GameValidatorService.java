@@ -2,7 +2,6 @@ package com.example.backend.service;
 
 import com.example.backend.entity.Game;
 import com.example.backend.model.Player;
-import com.example.backend.repository.GameRepository;
 import com.example.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -14,7 +13,7 @@ import org.springframework.stereotype.Service;
 public class GameValidatorService {
     private static final Logger logger = LoggerFactory.getLogger(GameValidatorService.class);
 
-    private final GameRepository gameRepository;
+    private final GameTableRegistry gameTables;
     private final UserRepository userRepository;
 
     public Game validateGameExists(String gameId) {
@@ -22,11 +21,12 @@ public class GameValidatorService {
             logger.error("Game ID cannot be null or empty");
             throw new IllegalArgumentException("Game ID cannot be null or empty");
         }
-        return gameRepository.findById(gameId)
-                .orElseThrow(() -> {
-                    logger.error("Game not found with ID: {}", gameId);
-                    return new RuntimeException("Game not found: " + gameId);
-                });
+        try {
+            return gameTables.load(gameId);
+        } catch (RuntimeException e) {
+            logger.error("Could not load game {}: {}", gameId, e.getMessage());
+            throw e;
+        }
     }
 
     public void validateGameNotFull(Game game) {
@@ -86,4 +86,4 @@ public class GameValidatorService {
             throw new IllegalArgumentException("Insufficient bet amount");
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
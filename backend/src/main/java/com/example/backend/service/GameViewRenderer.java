@@ -0,0 +1,104 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.Player;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the public payload of a game update once for every subscriber of the table.
+ * <p>
+ * The payload becomes a JSON tree straight from the event's game, and hands are hidden (but
+ * at showdown) and the deck dropped in the tree, where the notification path used to copy
+ * the whole {@link Game} to do it. The tree is then encoded once; the encoded JSON goes out
+ * as a {@link RawValue}, which every session's response writer copies as is instead of
+ * serializing the game again. Private payloads, such as a player's hole cards, stay on the
+ * player's own stream and are not rendered here.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameViewRenderer {
+    private static final Logger logger = LoggerFactory.getLogger(GameViewRenderer.class);
+
+    /**
+     * A rendered payload: the encoded JSON, the table's view when the payload carries one,
+     * and the encoded rest of the payload beside that view.
+     */
+    public record View(RawValue encoded, JsonNode state, RawValue rest) {
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong encodedChars = new AtomicLong();
+
+    public View render(Object payload) {
+        if (payload == null) {
+            return new View(null, null, null);
+        }
+        JsonNode tree = objectMapper.valueToTree(payload);
+        JsonNode state = null;
+        RawValue rest = null;
+        if (payload instanceof Game) {
+            state = hideGame((ObjectNode) tree);
+        } else if (payload instanceof Player) {
+            hidePlayer((ObjectNode) tree);
+        } else if (payload instanceof Map<?, ?> map && map.get("game") instanceof Game) {
+            ObjectNode fields = (ObjectNode) tree;
+            state = hideGame((ObjectNode) fields.get("game"));
+            ObjectNode others = fields.deepCopy();
+            others.remove("game");
+            rest = encode(others);
+        }
+        rendered.incrementAndGet();
+        return new View(encode(tree), state, rest);
+    }
+
+    /**
+     * The table's view on its own, e.g. for a snapshot read from the game.
+     */
+    public JsonNode renderState(Game game) {
+        return hideGame(objectMapper.valueToTree(game));
+    }
+
+    private static JsonNode hideGame(ObjectNode game) {
+        if (!Game.GameStatus.SHOWDOWN.name().equals(game.path("status").asText())) {
+            for (JsonNode player : game.path("players")) {
+                hidePlayer((ObjectNode) player);
+            }
+        }
+        game.putNull("deck");
+        return game;
+    }
+
+    private static void hidePlayer(ObjectNode player) {
+        player.putArray("hand");
+    }
+
+    private RawValue encode(JsonNode tree) {
+        try {
+            String json = objectMapper.writeValueAsString(tree);
+            encodedChars.addAndGet(json.length());
+            return new RawValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode game update", e);
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        long count = Math.max(rendered.get(), 1);
+        logger.info("Game view metrics: rendered={}, avgChars={}", rendered.get(), encodedChars.get() / count);
+    }
+}
@@ -1,279 +1,263 @@
 package com.example.backend.service;
 
 import com.example.backend.model.Card;
+import com.example.backend.model.CardMask;
 import com.example.backend.model.HandResult;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Scores 5-, 6- and 7-card poker hands into a single comparable int.
+ * <p>
+ * Cards are packed into a {@link CardMask} (bit = {@link Card#toIndex()}), which splits
+ * into four 13-bit suit lanes. Straights and kicker ordering come from 8192-entry
+ * tables indexed by a rank lane, so scoring a hand is a handful of bit operations
+ * and array reads with no allocation.
+ * <p>
+ * Strength layout: {@code category << 20 | r1 << 16 | r2 << 12 | r3 << 8 | r4 << 4 | r5},
+ * where category is the {@link HandResult.HandRank} ordinal and r1..r5 are rank
+ * ordinals (TWO = 0 .. ACE = 12) in tie-break order. A higher int is a stronger hand.
+ */
 @Service
 public class HandEvaluator {
 
+    private static final int RANKS = 13;
+    private static final int LANE = (1 << RANKS) - 1;
+    private static final int CATEGORY_SHIFT = 20;
+    private static final HandResult.HandRank[] CATEGORIES = HandResult.HandRank.values();
+
+    // Highest rank + 1 of the best straight in a rank lane, 0 if none
+    private static final byte[] STRAIGHT_HIGH = new byte[1 << RANKS];
+    // Top five ranks of a rank lane packed as nibbles (r1 << 16 | ... | r5)
+    private static final int[] TOP_FIVE = new int[1 << RANKS];
+
+    static {
+        for (int lane = 0; lane <= LANE; lane++) {
+            for (int high = RANKS - 1; high >= 4; high--) {
+                int run = 0x1F << (high - 4);
+                if ((lane & run) == run) {
+                    STRAIGHT_HIGH[lane] = (byte) (high + 1);
+                    break;
+                }
+            }
+            // Wheel: A-2-3-4-5 plays as a five-high straight
+            if (STRAIGHT_HIGH[lane] == 0 && (lane & 0x100F) == 0x100F) {
+                STRAIGHT_HIGH[lane] = 4;
+            }
+
+            int packed = 0;
+            int taken = 0;
+            for (int rank = RANKS - 1; rank >= 0 && taken < 5; rank--) {
+                if ((lane & (1 << rank)) != 0) {
+                    packed |= rank << (4 * (4 - taken));
+                    taken++;
+                }
+            }
+            TOP_FIVE[lane] = packed;
+        }
+    }
+
     public HandResult evaluateHand(List<Card> playerCards, List<Card> communityCards) {
+        long mask = toMask(playerCards, communityCards);
+        if (Long.bitCount(mask) < 5) {
+            return null;
+        }
+        return toHandResult(evaluate(mask), mask);
+    }
+
+    /**
+     * Scores the best five-card hand available from hole and community cards.
+     */
+    public int evaluateStrength(List<Card> playerCards, List<Card> communityCards) {
+        return evaluate(toMask(playerCards, communityCards));
+    }
+
+    private long toMask(List<Card> playerCards, List<Card> communityCards) {
         if (playerCards == null || playerCards.size() != 2) {
             throw new IllegalArgumentException("Player must have exactly 2 cards");
         }
-        
+
         if (communityCards == null || communityCards.size() > 5) {
             throw new IllegalArgumentException("Community cards must be 5 or fewer");
         }
-        
-        List<Card> allCards = new ArrayList<>();
-        allCards.addAll(playerCards);
-        allCards.addAll(communityCards);
-        
-        return findBestHand(allCards);
+
+        return CardMask.of(playerCards) | CardMask.of(communityCards);
     }
-    
-    private HandResult findBestHand(List<Card> allCards) {
-        List<List<Card>> combinations = generateCombinations(allCards, 5);
-        
-        HandResult bestHand = null;
-        
-        for (List<Card> combo : combinations) {
-            HandResult current = evaluate5CardHand(combo);
-            
-            if (bestHand == null || current.getRank().ordinal() > bestHand.getRank().ordinal()) {
-                bestHand = current;
-            } else if (current.getRank().ordinal() == bestHand.getRank().ordinal()) {
-                // Compare high cards
-                for (int i = 0; i < current.getHighCards().size(); i++) {
-                    int currentValue = current.getHighCards().get(i).getRank().getValue();
-                    int bestValue = bestHand.getHighCards().get(i).getRank().getValue();
-                    
-                    if (currentValue > bestValue) {
-                        bestHand = current;
-                        break;
-                    } else if (currentValue < bestValue) {
-                        break;
-                    }
-                }
+
+    public static HandResult.HandRank rankOf(int strength) {
+        return CATEGORIES[strength >>> CATEGORY_SHIFT];
+    }
+
+    /**
+     * Scores the best five-card hand contained in a card mask of up to seven cards.
+     */
+    public static int evaluate(long mask) {
+        int c0 = (int) mask & LANE;
+        int c1 = (int) (mask >>> RANKS) & LANE;
+        int c2 = (int) (mask >>> (2 * RANKS)) & LANE;
+        int c3 = (int) (mask >>> (3 * RANKS)) & LANE;
+
+        int flushLane = flushLane(c0, c1, c2, c3);
+        if (flushLane != 0) {
+            int high = STRAIGHT_HIGH[flushLane];
+            if (high == RANKS) {
+                return score(HandResult.HandRank.ROYAL_FLUSH, (RANKS - 1) << 16);
+            }
+            if (high != 0) {
+                return score(HandResult.HandRank.STRAIGHT_FLUSH, (high - 1) << 16);
             }
         }
-        
-        return bestHand;
-    }
-    
-    private List<List<Card>> generateCombinations(List<Card> cards, int k) {
-        List<List<Card>> result = new ArrayList<>();
-        generateCombinationsHelper(cards, k, 0, new ArrayList<>(), result);
-        return result;
-    }
-    
-    private void generateCombinationsHelper(List<Card> cards, int k, int start, 
-                                          List<Card> current, List<List<Card>> result) {
-        if (current.size() == k) {
-            result.add(new ArrayList<>(current));
-            return;
+
+        int ranks = c0 | c1 | c2 | c3;
+        int quads = c0 & c1 & c2 & c3;
+        if (quads != 0) {
+            int quad = highest(quads);
+            return score(HandResult.HandRank.FOUR_OF_A_KIND,
+                    quad << 16 | highest(ranks & ~(1 << quad)) << 12);
         }
-        
-        for (int i = start; i < cards.size(); i++) {
-            current.add(cards.get(i));
-            generateCombinationsHelper(cards, k, i + 1, current, result);
-            current.remove(current.size() - 1);
+
+        int trips = (c0 & c1 & c2) | (c0 & c1 & c3) | (c0 & c2 & c3) | (c1 & c2 & c3);
+        int pairs = (c0 & c1) | (c0 & c2) | (c0 & c3) | (c1 & c2) | (c1 & c3) | (c2 & c3);
+        if (trips != 0) {
+            int trip = highest(trips);
+            int rest = pairs & ~(1 << trip);
+            if (rest != 0) {
+                return score(HandResult.HandRank.FULL_HOUSE, trip << 16 | highest(rest) << 12);
+            }
         }
-    }
-    
-    private HandResult evaluate5CardHand(List<Card> hand) {
-        if (hand.size() != 5) {
-            throw new IllegalArgumentException("Hand must contain exactly 5 cards");
+
+        if (flushLane != 0) {
+            return score(HandResult.HandRank.FLUSH, TOP_FIVE[flushLane]);
         }
-        
-        // Sort by rank in descending order
-        hand.sort(Comparator.comparing(card -> card.getRank().getValue(), Comparator.reverseOrder()));
-        
-        boolean isFlush = isFlush(hand);
-        boolean isStraight = isStraight(hand);
-        
-        // Count occurrences of each rank
-        Map<Card.Rank, Integer> rankCounts = new HashMap<>();
-        for (Card card : hand) {
-            rankCounts.put(card.getRank(), rankCounts.getOrDefault(card.getRank(), 0) + 1);
+
+        int straightHigh = STRAIGHT_HIGH[ranks];
+        if (straightHigh != 0) {
+            return score(HandResult.HandRank.STRAIGHT, (straightHigh - 1) << 16);
         }
-        
-        List<Map.Entry<Card.Rank, Integer>> sortedCounts = rankCounts.entrySet().stream()
-            .sorted((e1, e2) -> {
-                int countComparison = e2.getValue().compareTo(e1.getValue());
-                return countComparison != 0 ? countComparison : 
-                    e2.getKey().getValue() - e1.getKey().getValue();
-            })
-            .collect(Collectors.toList());
-        
-        // Royal flush
-        if (isFlush && isStraight && hand.get(0).getRank() == Card.Rank.ACE) {
-            return new HandResult(HandResult.HandRank.FLUSH, hand);
+
+        if (trips != 0) {
+            int trip = highest(trips);
+            return score(HandResult.HandRank.THREE_OF_A_KIND,
+                    trip << 16 | (TOP_FIVE[ranks & ~(1 << trip)] >>> 12) << 8);
         }
-        
-        // Straight flush
-        if (isFlush && isStraight) {
-            return new HandResult(HandResult.HandRank.STRAIGHT_FLUSH, hand);
+
+        if (Integer.bitCount(pairs) >= 2) {
+            int high = highest(pairs);
+            int low = highest(pairs & ~(1 << high));
+            int kicker = highest(ranks & ~(1 << high) & ~(1 << low));
+            return score(HandResult.HandRank.TWO_PAIR, high << 16 | low << 12 | kicker << 8);
         }
-        
-        // Four of a kind
-        if (sortedCounts.get(0).getValue() == 4) {
-            List<Card> highCards = new ArrayList<>();
-            
-            // Add the four of a kind cards first
-            Card.Rank fourOfAKindRank = sortedCounts.get(0).getKey();
-            for (Card card : hand) {
-                if (card.getRank() == fourOfAKindRank) {
-                    highCards.add(card);
-                }
-            }
-            
-            // Add the kicker
-            for (Card card : hand) {
-                if (card.getRank() != fourOfAKindRank) {
-                    highCards.add(card);
-                }
-            }
-            
-            return new HandResult(HandResult.HandRank.FOUR_OF_A_KIND, highCards);
+
+        if (pairs != 0) {
+            int pair = highest(pairs);
+            return score(HandResult.HandRank.ONE_PAIR,
+                    pair << 16 | (TOP_FIVE[ranks & ~(1 << pair)] >>> 8) << 4);
         }
-        
-        // Full house
-        if (sortedCounts.get(0).getValue() == 3 && sortedCounts.get(1).getValue() == 2) {
-            List<Card> highCards = new ArrayList<>();
-            
-            // Add the three of a kind cards first
-            Card.Rank threeOfAKindRank = sortedCounts.get(0).getKey();
-            for (Card card : hand) {
-                if (card.getRank() == threeOfAKindRank) {
-                    highCards.add(card);
+
+        return score(HandResult.HandRank.HIGH_CARD, TOP_FIVE[ranks]);
+    }
+
+    /**
+     * Builds the display form of a strength: the five cards that make the hand,
+     * in tie-break order. Only needed for hands that are shown to players.
+     */
+    public HandResult toHandResult(int strength, long mask) {
+        HandResult.HandRank rank = rankOf(strength);
+        List<Card> highCards = new ArrayList<>(5);
+
+        switch (rank) {
+            case ROYAL_FLUSH, STRAIGHT_FLUSH, STRAIGHT -> {
+                int suit = rank == HandResult.HandRank.STRAIGHT ? -1 : flushSuit(mask);
+                int high = (strength >>> 16) & 0xF;
+                for (int i = 0; i < 5; i++) {
+                    // Wheel wraps from TWO back to ACE
+                    int r = high - i < 0 ? RANKS - 1 : high - i;
+                    takeCards(mask, suit, r, 1, highCards);
                 }
             }
-            
-            // Add the pair cards
-            Card.Rank pairRank = sortedCounts.get(1).getKey();
-            for (Card card : hand) {
-                if (card.getRank() == pairRank) {
-                    highCards.add(card);
+            case FLUSH -> {
+                int suit = flushSuit(mask);
+                for (int i = 0; i < 5; i++) {
+                    takeCards(mask, suit, kicker(strength, i), 1, highCards);
                 }
             }
-            
-            return new HandResult(HandResult.HandRank.FULL_HOUSE, highCards);
-        }
-        
-        // Flush
-        if (isFlush) {
-            return new HandResult(HandResult.HandRank.FLUSH, hand);
-        }
-        
-        // Straight
-        if (isStraight) {
-            return new HandResult(HandResult.HandRank.STRAIGHT, hand);
-        }
-        
-        // Three of a kind
-        if (sortedCounts.get(0).getValue() == 3) {
-            List<Card> highCards = new ArrayList<>();
-            
-            // Add the three of a kind cards first
-            Card.Rank threeOfAKindRank = sortedCounts.get(0).getKey();
-            for (Card card : hand) {
-                if (card.getRank() == threeOfAKindRank) {
-                    highCards.add(card);
-                }
+            case FOUR_OF_A_KIND -> {
+                takeCards(mask, -1, kicker(strength, 0), 4, highCards);
+                takeCards(mask, -1, kicker(strength, 1), 1, highCards);
             }
-            
-            // Add the remaining cards in order
-            for (Card card : hand) {
-                if (card.getRank() != threeOfAKindRank) {
-                    highCards.add(card);
-                }
+            case FULL_HOUSE -> {
+                takeCards(mask, -1, kicker(strength, 0), 3, highCards);
+                takeCards(mask, -1, kicker(strength, 1), 2, highCards);
             }
-            
-            return new HandResult(HandResult.HandRank.THREE_OF_A_KIND, highCards);
-        }
-        
-        // Two pair
-        if (sortedCounts.get(0).getValue() == 2 && sortedCounts.get(1).getValue() == 2) {
-            List<Card> highCards = new ArrayList<>();
-            
-            // Add the higher pair first
-            Card.Rank firstPairRank = sortedCounts.get(0).getKey();
-            for (Card card : hand) {
-                if (card.getRank() == firstPairRank) {
-                    highCards.add(card);
-                }
+            case THREE_OF_A_KIND -> {
+                takeCards(mask, -1, kicker(strength, 0), 3, highCards);
+                takeCards(mask, -1, kicker(strength, 1), 1, highCards);
+                takeCards(mask, -1, kicker(strength, 2), 1, highCards);
             }
-            
-            // Add the lower pair
-            Card.Rank secondPairRank = sortedCounts.get(1).getKey();
-            for (Card card : hand) {
-                if (card.getRank() == secondPairRank) {
-                    highCards.add(card);
-                }
+            case TWO_PAIR -> {
+                takeCards(mask, -1, kicker(strength, 0), 2, highCards);
+                takeCards(mask, -1, kicker(strength, 1), 2, highCards);
+                takeCards(mask, -1, kicker(strength, 2), 1, highCards);
             }
-            
-            // Add the kicker
-            for (Card card : hand) {
-                if (card.getRank() != firstPairRank && card.getRank() != secondPairRank) {
-                    highCards.add(card);
+            case ONE_PAIR -> {
+                takeCards(mask, -1, kicker(strength, 0), 2, highCards);
+                for (int i = 1; i < 4; i++) {
+                    takeCards(mask, -1, kicker(strength, i), 1, highCards);
                 }
             }
-            
-            return new HandResult(HandResult.HandRank.TWO_PAIR, highCards);
-        }
-        
-        // One pair
-        if (sortedCounts.get(0).getValue() == 2) {
-            List<Card> highCards = new ArrayList<>();
-            
-            // Add the pair first
-            Card.Rank pairRank = sortedCounts.get(0).getKey();
-            for (Card card : hand) {
-                if (card.getRank() == pairRank) {
-                    highCards.add(card);
-                }
-            }
-            
-            // Add the remaining cards in order
-            for (Card card : hand) {
-                if (card.getRank() != pairRank) {
-                    highCards.add(card);
+            default -> {
+                for (int i = 0; i < 5; i++) {
+                    takeCards(mask, -1, kicker(strength, i), 1, highCards);
                 }
             }
-            
-            return new HandResult(HandResult.HandRank.ONE_PAIR, highCards);
         }
-        
-        // High card
-        return new HandResult(HandResult.HandRank.HIGH_CARD, hand);
+
+        return new HandResult(rank, highCards);
+    }
+
+    private static int score(HandResult.HandRank rank, int kickers) {
+        return rank.ordinal() << CATEGORY_SHIFT | kickers;
+    }
+
+    private static int flushLane(int c0, int c1, int c2, int c3) {
+        // Seven cards can make at most one flush
+        if (Integer.bitCount(c0) >= 5) return c0;
+        if (Integer.bitCount(c1) >= 5) return c1;
+        if (Integer.bitCount(c2) >= 5) return c2;
+        if (Integer.bitCount(c3) >= 5) return c3;
+        return 0;
     }
-    
-    private boolean isFlush(List<Card> hand) {
-        Card.Suit suit = hand.get(0).getSuit();
-        for (Card card : hand) {
-            if (card.getSuit() != suit) {
-                return false;
+
+    private static int flushSuit(long mask) {
+        for (int suit = 0; suit < 4; suit++) {
+            if (Integer.bitCount((int) (mask >>> (suit * RANKS)) & LANE) >= 5) {
+                return suit;
             }
         }
-        return true;
+        return -1;
     }
-    
-    private boolean isStraight(List<Card> hand) {
-        // Special case: A-5-4-3-2
-        if (hand.get(0).getRank() == Card.Rank.ACE && 
-            hand.get(1).getRank() == Card.Rank.FIVE &&
-            hand.get(2).getRank() == Card.Rank.FOUR &&
-            hand.get(3).getRank() == Card.Rank.THREE &&
-            hand.get(4).getRank() == Card.Rank.TWO) {
-            return true;
-        }
-        
-        // Regular case: check for consecutive ranks
-        for (int i = 0; i < hand.size() - 1; i++) {
-            if (hand.get(i).getRank().getValue() != hand.get(i + 1).getRank().getValue() + 1) {
-                return false;
+
+    private static int highest(int lane) {
+        return 31 - Integer.numberOfLeadingZeros(lane);
+    }
+
+    private static int kicker(int strength, int position) {
+        return (strength >>> (16 - 4 * position)) & 0xF;
+    }
+
+    // Appends up to count cards of the given rank from the mask, optionally restricted to one suit
+    private static void takeCards(long mask, int suit, int rank, int count, List<Card> out) {
+        for (int s = 0; s < 4 && count > 0; s++) {
+            if (suit >= 0 && s != suit) {
+                continue;
+            }
+            int index = s * RANKS + rank;
+            if ((mask & (1L << index)) != 0) {
+                out.add(Card.fromIndex(index));
+                count--;
             }
         }
-        
-        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,287 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.LeaderboardSnapshot;
+import com.example.backend.entity.User;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.model.LeaderboardEntry;
+import com.example.backend.model.LeaderboardMetric;
+import com.example.backend.model.LeaderboardPage;
+import com.example.backend.model.LeaderboardWindow;
+import com.example.backend.model.Player;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Leaderboards per metric and window (today, this ISO week, all time), kept in memory and
+ * updated from each recorded hand instead of sorted out of the users collection.
+ * <p>
+ * Each board is a {@link RankedScores}, so a hand, a page and the caller's own rank all cost
+ * O(log n). Paging stops at the top {@code game.leaderboard.size}; the caller's rank is
+ * exact wherever it is. Daily and weekly boards are saved every
+ * {@code game.leaderboard.persist-interval-ms} and when their period ends, and are loaded
+ * back when the application is ready. All-time boards are rebuilt from the users' counters.
+ */
+@Service
+public class LeaderboardService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final class Board {
+        final LeaderboardMetric metric;
+        final LeaderboardWindow window;
+        final RankedScores scores = new RankedScores();
+        String period;
+        boolean dirty;
+
+        Board(LeaderboardMetric metric, LeaderboardWindow window) {
+            this.metric = metric;
+            this.window = window;
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final int size;
+    private final Map<LeaderboardMetric, Map<LeaderboardWindow, Board>> boards = new EnumMap<>(LeaderboardMetric.class);
+
+    private final AtomicLong hands = new AtomicLong();
+    private final AtomicLong pages = new AtomicLong();
+    private final AtomicLong saves = new AtomicLong();
+
+    public LeaderboardService(MongoTemplate mongoTemplate, @Value("${game.leaderboard.size:1000}") int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Leaderboard size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.size = size;
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            Map<LeaderboardWindow, Board> windows = new EnumMap<>(LeaderboardWindow.class);
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                windows.put(window, new Board(metric, window));
+            }
+            boards.put(metric, windows);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Query scored = new Query(Criteria.where("isBot").ne(true)
+                .orOperator(Criteria.where("netProfit").gt(0), Criteria.where("handsWon").gt(0)));
+        scored.fields().include("username").include("netProfit").include("handsWon");
+        int users = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(scored, Document.class,
+                mongoTemplate.getCollectionName(User.class))) {
+            for (Iterator<Document> it = documents.iterator(); it.hasNext(); ) {
+                Document user = it.next();
+                // The counters already hold every flushed hand, so they replace what was
+                // recorded since startup rather than add to it
+                put(LeaderboardMetric.NET_PROFIT, user.getString("username"), user.getInteger("netProfit", 0));
+                put(LeaderboardMetric.HANDS_WON, user.getString("username"), user.getInteger("handsWon", 0));
+                users++;
+            }
+        }
+
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            for (LeaderboardWindow window : List.of(LeaderboardWindow.DAILY, LeaderboardWindow.WEEKLY)) {
+                Board board = boards.get(metric).get(window);
+                String period = period(window, now);
+                LeaderboardSnapshot saved = mongoTemplate.findById(metric + ":" + period, LeaderboardSnapshot.class);
+                if (saved == null || saved.getScores() == null) {
+                    continue;
+                }
+                synchronized (board) {
+                    roll(board, now);
+                    for (LeaderboardSnapshot.Score score : saved.getScores()) {
+                        board.scores.add(score.getUsername(), score.getScore());
+                    }
+                }
+            }
+        }
+        logger.info("Leaderboards warmed from {} users", users);
+    }
+
+    private void put(LeaderboardMetric metric, String username, long score) {
+        if (username == null || score <= 0) {
+            return;
+        }
+        Board board = boards.get(metric).get(LeaderboardWindow.ALL_TIME);
+        synchronized (board) {
+            board.scores.put(username, score);
+        }
+    }
+
+    public void record(GameEndedEvent event) {
+        record(event, OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    void record(GameEndedEvent event, OffsetDateTime now) {
+        if (event.getGame() == null || event.getGame().getPlayers() == null || event.getWinners() == null) {
+            return;
+        }
+        hands.incrementAndGet();
+        Set<String> winners = event.getWinners().stream()
+                .map(Player::getUsername)
+                .collect(Collectors.toSet());
+        // Same rules as the users' counters, so the all-time board agrees with them
+        for (Player player : event.getGame().getPlayers()) {
+            if (player.isBot() || player.getUsername() == null || player.getUsername().startsWith("guest-")
+                    || !winners.contains(player.getUsername())) {
+                continue;
+            }
+            add(LeaderboardMetric.HANDS_WON, player.getUsername(), 1, now);
+            add(LeaderboardMetric.NET_PROFIT, player.getUsername(), (int) player.getLastWinAmount(), now);
+        }
+    }
+
+    private void add(LeaderboardMetric metric, String username, long delta, OffsetDateTime now) {
+        if (delta == 0) {
+            return;
+        }
+        for (Board board : boards.get(metric).values()) {
+            synchronized (board) {
+                roll(board, now);
+                board.scores.add(username, delta);
+                board.dirty = true;
+            }
+        }
+    }
+
+    public LeaderboardPage page(LeaderboardMetric metric, LeaderboardWindow window, Integer first, Integer offset,
+                                String username) {
+        return page(metric, window, first, offset, username, OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    LeaderboardPage page(LeaderboardMetric metric, LeaderboardWindow window, Integer first, Integer offset,
+                         String username, OffsetDateTime now) {
+        pages.incrementAndGet();
+        int from = offset == null ? 0 : Math.max(offset, 0);
+        int limit = Math.min(LobbyService.pageSize(first), Math.max(size - from, 0));
+        Board board = boards.get(metric).get(window);
+        List<RankedScores.Entry> top;
+        int total;
+        int rank;
+        long score;
+        synchronized (board) {
+            roll(board, now);
+            top = board.scores.range(from, limit);
+            total = board.scores.size();
+            rank = username == null ? 0 : board.scores.rank(username);
+            score = rank == 0 ? 0 : board.scores.score(username);
+        }
+
+        List<LeaderboardEntry> entries = new ArrayList<>(top.size());
+        for (RankedScores.Entry entry : top) {
+            entries.add(new LeaderboardEntry(from + entries.size() + 1, entry.key(), entry.score()));
+        }
+        int next = from + entries.size();
+        Integer nextOffset = !entries.isEmpty() && next < Math.min(total, size) ? next : null;
+        LeaderboardEntry me = rank == 0 ? null : new LeaderboardEntry(rank, username, score);
+        return new LeaderboardPage(entries, nextOffset, total, me);
+    }
+
+    static String period(LeaderboardWindow window, OffsetDateTime now) {
+        return switch (window) {
+            case DAILY -> now.toLocalDate().toString();
+            case WEEKLY -> String.format("%d-W%02d", now.get(IsoFields.WEEK_BASED_YEAR),
+                    now.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case ALL_TIME -> "all";
+        };
+    }
+
+    // Caller holds the board. Saves the period that ended and starts the board over.
+    private void roll(Board board, OffsetDateTime now) {
+        String period = period(board.window, now);
+        if (period.equals(board.period)) {
+            return;
+        }
+        if (board.period != null && board.dirty) {
+            save(snapshotOf(board));
+        }
+        if (board.period != null && board.window != LeaderboardWindow.ALL_TIME) {
+            board.scores.clear();
+        }
+        board.period = period;
+        board.dirty = false;
+    }
+
+    private LeaderboardSnapshot snapshotOf(Board board) {
+        List<LeaderboardSnapshot.Score> scores = board.scores.range(0, board.scores.size()).stream()
+                .map(entry -> new LeaderboardSnapshot.Score(entry.key(), entry.score()))
+                .toList();
+        board.dirty = false;
+        return new LeaderboardSnapshot(board.metric + ":" + board.period, board.metric, board.period, scores,
+                OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    private void save(LeaderboardSnapshot snapshot) {
+        try {
+            mongoTemplate.save(snapshot);
+            saves.incrementAndGet();
+        } catch (Exception e) {
+            if (e.getMessage() != null && e.getMessage().contains("server session pool is open")) {
+                logger.debug("Could not save leaderboard {} (MongoDB shutting down): {}", snapshot.getId(), e.getMessage());
+            } else {
+                logger.error("Error saving leaderboard {}: {}", snapshot.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.leaderboard.persist-interval-ms:60000}")
+    public void persist() {
+        for (Map<LeaderboardWindow, Board> windows : boards.values()) {
+            for (Board board : windows.values()) {
+                if (board.window == LeaderboardWindow.ALL_TIME) {
+                    continue;
+                }
+                LeaderboardSnapshot snapshot;
+                synchronized (board) {
+                    if (!board.dirty) {
+                        continue;
+                    }
+                    snapshot = snapshotOf(board);
+                }
+                save(snapshot);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        persist();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        StringBuilder sb = new StringBuilder();
+        for (Map<LeaderboardWindow, Board> windows : boards.values()) {
+            for (Board board : windows.values()) {
+                synchronized (board) {
+                    sb.append(String.format(" %s/%s=%d", board.metric, board.window, board.scores.size()));
+                }
+            }
+        }
+        logger.info("Leaderboards: hands={}, pages={}, saves={}, players:{}", hands.get(), pages.get(), saves.get(), sb);
+    }
+}
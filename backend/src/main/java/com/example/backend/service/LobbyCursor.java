@@ -0,0 +1,36 @@
+package com.example.backend.service;
+
+import com.example.backend.model.GameSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a lobby row in page order (createdAt desc, id desc), as handed to clients.
+ * Mongo and the in-memory index use the same cursors, so a client can page across both.
+ */
+record LobbyCursor(long createdAtMillis, String id) {
+
+    static LobbyCursor of(GameSummary row) {
+        return new LobbyCursor(row.getCreatedAt() != null ? row.getCreatedAt().toInstant().toEpochMilli() : 0,
+                row.getId());
+    }
+
+    static LobbyCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid lobby cursor");
+            }
+            return new LobbyCursor(Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid lobby cursor");
+        }
+    }
+
+    String encode() {
+        String raw = createdAtMillis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
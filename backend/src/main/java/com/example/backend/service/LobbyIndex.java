@@ -0,0 +1,256 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.event.GameCreatedEvent;
+import com.example.backend.event.GameDeletedEvent;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.event.GameStartedEvent;
+import com.example.backend.event.PlayerActionEvent;
+import com.example.backend.event.PlayerJoinedEvent;
+import com.example.backend.model.GameSummary;
+import com.example.backend.model.LobbyFilter;
+import com.example.backend.model.LobbyPage;
+import com.example.backend.model.LobbyUpdate;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory lobby: one {@link GameSummary} row per table, kept current from game events
+ * and served to {@code games} and {@code lobby} without a database round trip.
+ * <p>
+ * Rows are bucketed by big blind and open seats, each bucket in page order, so a filtered
+ * page merges at most a page from each matching bucket. The index is warmed from the
+ * {@link LobbyService} projection once the application is ready; until then queries fall
+ * through to Mongo. Every row change is pushed to {@code lobbyUpdated} subscribers; a
+ * subscriber that falls behind misses updates and should re-query the lobby.
+ */
+@Service
+@RequiredArgsConstructor
+public class LobbyIndex {
+    private static final Logger logger = LoggerFactory.getLogger(LobbyIndex.class);
+
+    private static final Comparator<GameSummary> PAGE_ORDER = Comparator
+            .comparingLong(LobbyIndex::createdAtMillis).reversed()
+            .thenComparing(GameSummary::getId, Comparator.reverseOrder());
+
+    private record Bucket(double bigBlind, int openSeats) {
+    }
+
+    private final LobbyService lobbyService;
+
+    // Guarded by this
+    private final Map<String, GameSummary> rows = new HashMap<>();
+    private final NavigableSet<GameSummary> all = new TreeSet<>(PAGE_ORDER);
+    private final Map<Bucket, NavigableSet<GameSummary>> buckets = new HashMap<>();
+    private final Set<String> deletedWhileWarming = new HashSet<>();
+
+    // Emitted while holding the lock, so emissions are serialized
+    private final Sinks.Many<LobbyUpdate> updates = Sinks.many().multicast().directBestEffort();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<GameSummary> summaries = lobbyService.getAllSummaries();
+        synchronized (this) {
+            for (GameSummary row : summaries) {
+                // Rows put in by events since startup are newer than the projection
+                if (!rows.containsKey(row.getId()) && !deletedWhileWarming.contains(row.getId())) {
+                    insert(row);
+                }
+            }
+            deletedWhileWarming.clear();
+            ready = true;
+            logger.info("Lobby index warmed with {} games", rows.size());
+        }
+    }
+
+    public List<GameSummary> getAll() {
+        if (!ready) {
+            return lobbyService.getAllSummaries();
+        }
+        synchronized (this) {
+            return new ArrayList<>(all);
+        }
+    }
+
+    public LobbyPage getLobby(LobbyFilter filter, Integer first, String after) {
+        if (!ready) {
+            return lobbyService.getLobby(filter, first, after);
+        }
+        int pageSize = LobbyService.pageSize(first);
+        GameSummary probe = null;
+        if (after != null && !after.isEmpty()) {
+            LobbyCursor cursor = LobbyCursor.decode(after);
+            probe = new GameSummary();
+            probe.setId(cursor.id());
+            probe.setCreatedAt(Instant.ofEpochMilli(cursor.createdAtMillis()).atOffset(ZoneOffset.UTC));
+        }
+
+        List<GameSummary> items = new ArrayList<>();
+        synchronized (this) {
+            for (NavigableSet<GameSummary> source : sources(filter)) {
+                int taken = 0;
+                for (GameSummary row : probe != null ? source.tailSet(probe, false) : source) {
+                    if (filter != null && filter.getStatus() != null && row.getStatus() != filter.getStatus()) {
+                        continue;
+                    }
+                    items.add(row);
+                    // Each source only needs to offer one row more than a page
+                    if (++taken > pageSize) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        items.sort(PAGE_ORDER);
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            nextCursor = LobbyCursor.of(items.get(pageSize - 1)).encode();
+        }
+        return new LobbyPage(items, nextCursor);
+    }
+
+    public Flux<LobbyUpdate> updates() {
+        return updates.asFlux();
+    }
+
+    @EventListener
+    public void onGameCreated(GameCreatedEvent event) {
+        upsert(summaryOf(event.getGame()));
+    }
+
+    @EventListener
+    public synchronized void onPlayerJoined(PlayerJoinedEvent event) {
+        GameSummary row = rows.get(event.getGameId());
+        if (row == null) {
+            return;
+        }
+        GameSummary joined = copy(row);
+        joined.setPlayerCount(Math.min(row.getPlayerCount() + 1, row.getMaxPlayers()));
+        upsert(joined);
+    }
+
+    @EventListener
+    public void onGameStarted(GameStartedEvent event) {
+        upsert(summaryOf(event.getGame()));
+    }
+
+    @EventListener
+    public void onGameEnded(GameEndedEvent event) {
+        // The event carries the showdown; once it returns the table waits for the next hand
+        GameSummary row = summaryOf(event.getGame());
+        row.setStatus(Game.GameStatus.WAITING);
+        row.setPot(0);
+        upsert(row);
+    }
+
+    @EventListener
+    public void onPlayerAction(PlayerActionEvent event) {
+        if (event.getActionType() == PlayerActionEvent.ActionType.LEAVE && event.getGameState() != null) {
+            upsert(summaryOf(event.getGameState()));
+        }
+    }
+
+    @EventListener
+    public synchronized void onGameDeleted(GameDeletedEvent event) {
+        GameSummary row = rows.remove(event.getGameId());
+        if (!ready) {
+            deletedWhileWarming.add(event.getGameId());
+        }
+        if (row == null) {
+            return;
+        }
+        unlink(row);
+        updates.tryEmitNext(new LobbyUpdate(LobbyUpdate.LobbyUpdateType.REMOVED, event.getGameId(), null,
+                OffsetDateTime.now(ZoneOffset.UTC)));
+    }
+
+    private synchronized void upsert(GameSummary row) {
+        GameSummary old = rows.get(row.getId());
+        if (row.equals(old)) {
+            return;
+        }
+        if (old != null) {
+            unlink(old);
+        }
+        insert(row);
+        updates.tryEmitNext(new LobbyUpdate(LobbyUpdate.LobbyUpdateType.UPSERTED, row.getId(), row,
+                OffsetDateTime.now(ZoneOffset.UTC)));
+    }
+
+    private void insert(GameSummary row) {
+        rows.put(row.getId(), row);
+        all.add(row);
+        buckets.computeIfAbsent(bucketOf(row), k -> new TreeSet<>(PAGE_ORDER)).add(row);
+    }
+
+    private void unlink(GameSummary row) {
+        all.remove(row);
+        Bucket bucket = bucketOf(row);
+        NavigableSet<GameSummary> members = buckets.get(bucket);
+        if (members != null) {
+            members.remove(row);
+            if (members.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    private List<NavigableSet<GameSummary>> sources(LobbyFilter filter) {
+        if (filter == null || (filter.getBigBlindAmount() == null && filter.getMinOpenSeats() == null)) {
+            return List.of(all);
+        }
+        List<NavigableSet<GameSummary>> sources = new ArrayList<>();
+        buckets.forEach((bucket, members) -> {
+            if ((filter.getBigBlindAmount() == null || bucket.bigBlind() == filter.getBigBlindAmount())
+                    && (filter.getMinOpenSeats() == null || bucket.openSeats() >= filter.getMinOpenSeats())) {
+                sources.add(members);
+            }
+        });
+        return sources;
+    }
+
+    private static Bucket bucketOf(GameSummary row) {
+        return new Bucket(row.getBigBlindAmount(), Math.max(0, row.getMaxPlayers() - row.getPlayerCount()));
+    }
+
+    private static long createdAtMillis(GameSummary row) {
+        return row.getCreatedAt() != null ? row.getCreatedAt().toInstant().toEpochMilli() : 0;
+    }
+
+    private static GameSummary copy(GameSummary row) {
+        return new GameSummary(row.getId(), row.getStatus(), row.getPlayerCount(), row.getMaxPlayers(),
+                row.getSmallBlindAmount(), row.getBigBlindAmount(), row.getPot(), row.getCreatedAt());
+    }
+
+    static GameSummary summaryOf(Game game) {
+        // Mongo keeps milliseconds; truncate so cursors match rows read back from it
+        OffsetDateTime createdAt = game.getCreatedAt() != null
+                ? game.getCreatedAt().truncatedTo(ChronoUnit.MILLIS)
+                : null;
+        return new GameSummary(game.getId(), game.getStatus(), game.getPlayerCount(), game.getMaxPlayers(),
+                game.getSmallBlindAmount(), game.getBigBlindAmount(), game.getPot(), createdAt);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.GameSummary;
+import com.example.backend.model.LobbyFilter;
+import com.example.backend.model.LobbyPage;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.MongoExpression;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Lobby reads. Only the summary fields of each game leave Mongo, so listing tables does
+ * not load players, cards or decks.
+ * <p>
+ * Pages are ordered newest first on {@code (createdAt, _id)}, and the cursor is the
+ * position of the last row, so a page costs the same however deep it is. The filters and
+ * the order are covered by the {@code lobby_*} indexes on {@link Game}. Rows come from
+ * Mongo, so they can trail a live table by up to one write-behind flush.
+ */
+@Service
+@RequiredArgsConstructor
+public class LobbyService {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public LobbyPage getLobby(LobbyFilter filter, Integer first, String after) {
+        int pageSize = pageSize(first);
+
+        Query query = summaryQuery(filter);
+        if (after != null && !after.isEmpty()) {
+            query.addCriteria(afterCursor(after));
+        }
+        // One extra row tells us whether there is a next page
+        query.limit(pageSize + 1);
+
+        List<GameSummary> items = find(query);
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            nextCursor = LobbyCursor.of(items.get(pageSize - 1)).encode();
+        }
+        return new LobbyPage(items, nextCursor);
+    }
+
+    static int pageSize(Integer first) {
+        return first == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(first, 1), MAX_PAGE_SIZE);
+    }
+
+    public List<GameSummary> getAllSummaries() {
+        return find(summaryQuery(null));
+    }
+
+    private Query summaryQuery(LobbyFilter filter) {
+        Query query = new Query();
+        if (filter != null) {
+            if (filter.getStatus() != null) {
+                query.addCriteria(Criteria.where("status").is(filter.getStatus().name()));
+            }
+            if (filter.getBigBlindAmount() != null) {
+                query.addCriteria(Criteria.where("bigBlindAmount").is(filter.getBigBlindAmount()));
+            }
+            if (filter.getMinOpenSeats() != null) {
+                query.addCriteria(Criteria.where("openSeats").gte(filter.getMinOpenSeats()));
+            }
+        }
+        query.fields()
+                .include("status", "MAX_PLAYERS", "smallBlindAmount", "bigBlindAmount", "pot", "createdAt");
+        query.fields()
+                .project(MongoExpression.create("'$size' : { '$ifNull' : ['$players', []] }"))
+                .as("playerCount");
+        query.with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("_id")));
+        return query;
+    }
+
+    private List<GameSummary> find(Query query) {
+        String collection = mongoTemplate.getCollectionName(Game.class);
+        List<GameSummary> summaries = new ArrayList<>();
+        for (Document row : mongoTemplate.find(query, Document.class, collection)) {
+            summaries.add(toSummary(row));
+        }
+        return summaries;
+    }
+
+    private static GameSummary toSummary(Document row) {
+        Date createdAt = row.getDate("createdAt");
+        String status = row.getString("status");
+        return new GameSummary(
+                row.getString("_id"),
+                status != null ? Game.GameStatus.valueOf(status) : Game.GameStatus.WAITING,
+                number(row, "playerCount").intValue(),
+                row.containsKey("MAX_PLAYERS") ? number(row, "MAX_PLAYERS").intValue() : 6,
+                number(row, "smallBlindAmount").doubleValue(),
+                number(row, "bigBlindAmount").doubleValue(),
+                number(row, "pot").doubleValue(),
+                createdAt != null ? createdAt.toInstant().atOffset(ZoneOffset.UTC) : null);
+    }
+
+    private static Number number(Document row, String key) {
+        Object value = row.get(key);
+        return value instanceof Number number ? number : 0;
+    }
+
+    // Rows strictly after the cursor in (createdAt desc, _id desc) order
+    private static Criteria afterCursor(String cursor) {
+        LobbyCursor position = LobbyCursor.decode(cursor);
+        Date createdAt = new Date(position.createdAtMillis());
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                new Criteria().andOperator(Criteria.where("createdAt").is(createdAt),
+                        Criteria.where("_id").lt(position.id())));
+    }
+}
@@ -0,0 +1,661 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameEvent;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Local append-only event store on memory-mapped segment files, for tables that should not
+ * cost a Mongo write per event. Enabled with {@code game.events.store=mapped}.
+ * <p>
+ * A record is {@code [length][crc32c][seq][flags][gameId][BSON record]}, the checksum
+ * covering everything after it. Segments are preallocated to
+ * {@code game.events.mapped.segment-bytes}; a record that does not fit starts the next one.
+ * Each game's (seq, position) list is held in memory, so a seek is a binary search, and is
+ * rebuilt at startup by scanning the segments, which also cuts off a torn last record.
+ * <p>
+ * {@code game.events.mapped.fsync} sets durability: {@code ALWAYS} forces every record to
+ * disk before returning, {@code INTERVAL} forces dirty pages every
+ * {@code fsync-interval-ms}, {@code NEVER} leaves it to the OS. Compaction rewrites sealed
+ * segments whose share of records from deleted games reaches
+ * {@code compaction-threshold}, dropping those records.
+ * <p>
+ * A purge appends a tombstone flagged as a purge, so the game stays deleted and hidden
+ * across restarts while its records wait for compaction.
+ */
+@Service
+@ConditionalOnProperty(name = "game.events.store", havingValue = "mapped")
+public class MappedGameEventStore implements GameEventStore {
+    private static final Logger logger = LoggerFactory.getLogger(MappedGameEventStore.class);
+
+    public enum FsyncPolicy {
+        NEVER, INTERVAL, ALWAYS
+    }
+
+    // length + crc
+    private static final int HEADER_BYTES = 8;
+    // seq + flags + gameId length
+    private static final int FIXED_BODY_BYTES = 11;
+    private static final byte FLAG_TOMBSTONE = 1;
+    private static final byte FLAG_PURGE = 2;
+    private static final String SUFFIX = ".log";
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    private final MongoConverter converter;
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final double compactionThreshold;
+
+    // Guarded by this
+    private final NavigableMap<Integer, Segment> segments = new TreeMap<>();
+    private final Map<String, GameIndex> index = new HashMap<>();
+    private final Set<String> deleted = new HashSet<>();
+    // Deleted games whose records are no longer served
+    private final Set<String> purged = new HashSet<>();
+    private Segment active;
+    private boolean dirty;
+    private boolean closed;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong bytesAppended = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final MappedByteBuffer buffer;
+        int end;        // first free byte
+        long liveBytes; // bytes of records whose game has not been deleted
+
+        Segment(int id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    // One game's records in seq order; positions are segment id << 32 | offset
+    private static final class GameIndex {
+        long[] seqs = new long[16];
+        long[] positions = new long[16];
+        int[] sizes = new int[16];
+        int size;
+
+        void put(long seq, long position, int bytes) {
+            int i = lowerBound(seq);
+            if (i < size && seqs[i] == seq) {
+                positions[i] = position;
+                sizes[i] = bytes;
+                return;
+            }
+            if (size == seqs.length) {
+                seqs = Arrays.copyOf(seqs, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+                sizes = Arrays.copyOf(sizes, size * 2);
+            }
+            // Appends arrive in seq order, so this shifts nothing outside compaction
+            System.arraycopy(seqs, i, seqs, i + 1, size - i);
+            System.arraycopy(positions, i, positions, i + 1, size - i);
+            System.arraycopy(sizes, i, sizes, i + 1, size - i);
+            seqs[i] = seq;
+            positions[i] = position;
+            sizes[i] = bytes;
+            size++;
+        }
+
+        // First index whose seq is >= the given one
+        int lowerBound(long seq) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (seqs[mid] < seq) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void removeSegment(int segmentId) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (segmentOf(positions[i]) != segmentId) {
+                    seqs[kept] = seqs[i];
+                    positions[kept] = positions[i];
+                    sizes[kept] = sizes[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    private record Ref(Segment segment, int offset) {
+    }
+
+    public MappedGameEventStore(MongoConverter converter,
+                                @Value("${game.events.mapped.dir:data/events}") Path directory,
+                                @Value("${game.events.mapped.segment-bytes:67108864}") int segmentBytes,
+                                @Value("${game.events.mapped.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+                                @Value("${game.events.mapped.compaction-threshold:0.5}") double compactionThreshold) {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Event segments must be at least 4096 bytes");
+        }
+        this.converter = converter;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.compactionThreshold = compactionThreshold;
+        open();
+    }
+
+    private synchronized void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+            }
+            for (int i = 0; i < files.size(); i++) {
+                Path path = files.get(i);
+                String name = path.getFileName().toString();
+                Segment segment = map(Integer.parseInt(name.substring(0, name.length() - SUFFIX.length())), path, -1);
+                scan(segment, i == files.size() - 1);
+                segments.put(segment.id, segment);
+            }
+            active = segments.isEmpty() ? create(0) : segments.lastEntry().getValue();
+            // Tombstones were indexed during the scan; now charge their games' records as dead
+            for (String gameId : new ArrayList<>(deleted)) {
+                chargeDeleted(gameId);
+            }
+            logger.info("Mapped event store at {}: {} segments, {} games", directory, segments.size(), index.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open event store at " + directory, e);
+        }
+    }
+
+    // Indexes a segment's records, stopping at the first empty, torn or corrupt one
+    private void scan(Segment segment, boolean last) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < FIXED_BODY_BYTES || position + HEADER_BYTES + length > buffer.capacity()
+                    || checksum(buffer, position + HEADER_BYTES, length) != buffer.getInt(position + 4)) {
+                if (last) {
+                    logger.warn("Cutting torn record at {}:{}", segment.path.getFileName(), position);
+                    zeroFrom(buffer, position);
+                } else {
+                    logger.error("Corrupt record at {}:{}; the rest of the segment is unreadable",
+                            segment.path.getFileName(), position);
+                }
+                break;
+            }
+            int size = HEADER_BYTES + length;
+            String gameId = gameIdAt(buffer, position);
+            index.computeIfAbsent(gameId, k -> new GameIndex())
+                    .put(buffer.getLong(position + HEADER_BYTES), position(segment.id, position), size);
+            byte flags = buffer.get(position + HEADER_BYTES + 8);
+            if ((flags & FLAG_TOMBSTONE) != 0) {
+                deleted.add(gameId);
+            }
+            if ((flags & FLAG_PURGE) != 0) {
+                purged.add(gameId);
+            }
+            segment.liveBytes += size;
+            position += size;
+        }
+        segment.end = position;
+    }
+
+    @Override
+    public boolean append(GameEvent record) {
+        return append(record, "GameDeletedEvent".equals(record.getEventType()) ? FLAG_TOMBSTONE : 0);
+    }
+
+    private boolean append(GameEvent record, byte flags) {
+        byte[] gameId = record.getGameId().getBytes(StandardCharsets.UTF_8);
+        byte[] body = encode(record);
+        boolean tombstone = (flags & FLAG_TOMBSTONE) != 0;
+        int length = FIXED_BODY_BYTES + gameId.length + body.length;
+        if (HEADER_BYTES + length > segmentBytes) {
+            dropped.incrementAndGet();
+            logger.error("Event {} #{} for game {} is larger than a segment; dropped",
+                    record.getEventType(), record.getSeq(), record.getGameId());
+            return false;
+        }
+
+        // The frame is built and checksummed before taking the lock; only the copy is inside
+        byte[] frame = new byte[HEADER_BYTES + length];
+        ByteBuffer.wrap(frame)
+                .putInt(length)
+                .putInt(0)
+                .putLong(record.getSeq())
+                .put(flags)
+                .putShort((short) gameId.length)
+                .put(gameId)
+                .put(body);
+        CRC32C crc = new CRC32C();
+        crc.update(frame, HEADER_BYTES, length);
+        ByteBuffer.wrap(frame).putInt(4, (int) crc.getValue());
+
+        synchronized (this) {
+            if (closed) {
+                dropped.incrementAndGet();
+                logger.debug("Event store closed, dropped {} for game {}", record.getEventType(), record.getGameId());
+                return false;
+            }
+            if (active.end + frame.length > active.buffer.capacity()) {
+                roll();
+            }
+            int offset = active.end;
+            active.buffer.put(offset, frame);
+            active.end += frame.length;
+            active.liveBytes += frame.length;
+            index.computeIfAbsent(record.getGameId(), k -> new GameIndex())
+                    .put(record.getSeq(), position(active.id, offset), frame.length);
+            if (tombstone && deleted.add(record.getGameId())) {
+                chargeDeleted(record.getGameId());
+            }
+            if ((flags & FLAG_PURGE) != 0) {
+                purged.add(record.getGameId());
+            }
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                active.buffer.force(offset, frame.length);
+                syncs.incrementAndGet();
+            } else {
+                dirty = true;
+            }
+        }
+        appended.incrementAndGet();
+        bytesAppended.addAndGet(frame.length);
+        return true;
+    }
+
+    @Override
+    public Stream<GameEvent> stream(String gameId, long afterSeq, long untilSeq) {
+        Ref[] refs;
+        synchronized (this) {
+            GameIndex game = index.get(gameId);
+            if (game == null || purged.contains(gameId)) {
+                return Stream.empty();
+            }
+            int from = game.lowerBound(afterSeq == Long.MAX_VALUE ? afterSeq : afterSeq + 1);
+            int to = untilSeq == Long.MAX_VALUE ? game.size : game.lowerBound(untilSeq + 1);
+            refs = new Ref[Math.max(0, to - from)];
+            for (int i = 0; i < refs.length; i++) {
+                long position = game.positions[from + i];
+                refs[i] = new Ref(segments.get(segmentOf(position)), offsetOf(position));
+            }
+        }
+        // Records are immutable once indexed, so they are decoded outside the lock
+        return Arrays.stream(refs).map(ref -> read(ref.segment(), ref.offset()));
+    }
+
+    @Override
+    public List<GameEvent> range(String gameId, long fromSeq, long toSeq, int limit) {
+        try (Stream<GameEvent> records = stream(gameId, Math.max(fromSeq, 1) - 1, toSeq)) {
+            return records.limit(limit).toList();
+        }
+    }
+
+    @Override
+    public List<GameEvent> findByType(String gameId, String eventType) {
+        try (Stream<GameEvent> records = stream(gameId, 0, Long.MAX_VALUE)) {
+            return records.filter(r -> eventType.equals(r.getEventType())).toList();
+        }
+    }
+
+    @Override
+    public GameEvent findById(String id) {
+        // Ids here are gameId:seq
+        int colon = id.lastIndexOf(':');
+        if (colon < 0) {
+            return null;
+        }
+        long seq;
+        try {
+            seq = Long.parseLong(id.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        try (Stream<GameEvent> records = stream(id.substring(0, colon), seq - 1, seq)) {
+            return records.findFirst().orElse(null);
+        }
+    }
+
+    @Override
+    public synchronized long lastSeq(String gameId) {
+        GameIndex game = index.get(gameId);
+        return game == null || game.size == 0 || purged.contains(gameId) ? 0 : game.seqs[game.size - 1];
+    }
+
+    // Their records become dead space for the next compaction, as after a deletion record
+    @Override
+    public void purge(Collection<String> gameIds) {
+        for (String gameId : gameIds) {
+            long seq;
+            synchronized (this) {
+                GameIndex game = index.get(gameId);
+                if (game == null || game.size == 0 || purged.contains(gameId)) {
+                    continue;
+                }
+                seq = game.seqs[game.size - 1] + 1;
+            }
+            GameEvent tombstone = new GameEvent();
+            tombstone.setGameId(gameId);
+            tombstone.setSeq(seq);
+            tombstone.setTimestamp(OffsetDateTime.now(ZoneOffset.UTC));
+            tombstone.setEventType("GameDeletedEvent");
+            append(tombstone, (byte) (FLAG_TOMBSTONE | FLAG_PURGE));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.events.mapped.fsync-interval-ms:1000}")
+    public void sync() {
+        if (fsyncPolicy != FsyncPolicy.INTERVAL) {
+            return;
+        }
+        Segment segment;
+        synchronized (this) {
+            if (!dirty || closed) {
+                return;
+            }
+            dirty = false;
+            segment = active;
+        }
+        segment.buffer.force();
+        syncs.incrementAndGet();
+    }
+
+    /**
+     * Rewrites every sealed segment whose dead share has reached the threshold.
+     */
+    @Scheduled(fixedDelayString = "${game.events.mapped.compaction-interval-ms:600000}")
+    public void compact() {
+        List<Segment> candidates = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments.values()) {
+                if (segment != active && segment.end > 0
+                        && (double) (segment.end - segment.liveBytes) / segment.end >= compactionThreshold) {
+                    candidates.add(segment);
+                }
+            }
+        }
+        for (Segment segment : candidates) {
+            try {
+                compact(segment);
+            } catch (IOException e) {
+                logger.error("Failed to compact {}: {}", segment.path.getFileName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        record Moved(String gameId, long seq, int offset, int size) {
+        }
+
+        Set<String> dead;
+        // Deleted games with records elsewhere keep their tombstone, or a restart would revive them
+        Set<String> keepTombstone = new HashSet<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            dead = new HashSet<>(deleted);
+            for (String gameId : dead) {
+                GameIndex game = index.get(gameId);
+                for (int i = 0; game != null && i < game.size; i++) {
+                    if (segmentOf(game.positions[i]) != segment.id) {
+                        keepTombstone.add(gameId);
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Sealed segments never change, so the copy runs without the lock
+        ByteBuffer source = segment.buffer;
+        Path copy = directory.resolve(segment.path.getFileName() + ".compact");
+        List<Moved> moved = new ArrayList<>();
+        int written = 0;
+        try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int position = 0; position < segment.end; ) {
+                int size = HEADER_BYTES + source.getInt(position);
+                String gameId = gameIdAt(source, position);
+                boolean tombstone = (source.get(position + HEADER_BYTES + 8) & FLAG_TOMBSTONE) != 0;
+                if (!dead.contains(gameId) || (tombstone && keepTombstone.contains(gameId))) {
+                    ByteBuffer frame = source.slice(position, size);
+                    while (frame.hasRemaining()) {
+                        channel.write(frame, written + frame.position());
+                    }
+                    moved.add(new Moved(gameId, source.getLong(position + HEADER_BYTES), written, size));
+                    written += size;
+                }
+                position += size;
+            }
+            channel.force(true);
+        }
+
+        Segment compacted = null;
+        if (written > 0) {
+            Files.move(copy, segment.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            compacted = map(segment.id, segment.path, -1);
+            compacted.end = written;
+        } else {
+            Files.delete(copy);
+            Files.delete(segment.path);
+        }
+
+        synchronized (this) {
+            // Readers holding the old mapping finish on it; new lookups see the compacted one
+            if (compacted != null) {
+                segments.put(segment.id, compacted);
+            } else {
+                segments.remove(segment.id);
+            }
+            for (String gameId : dead) {
+                GameIndex game = index.get(gameId);
+                if (game != null) {
+                    game.removeSegment(segment.id);
+                }
+            }
+            for (Moved record : moved) {
+                GameIndex game = index.computeIfAbsent(record.gameId(), k -> new GameIndex());
+                game.put(record.seq(), position(segment.id, record.offset()), record.size());
+                if (!deleted.contains(record.gameId())) {
+                    compacted.liveBytes += record.size();
+                }
+            }
+            for (String gameId : dead) {
+                GameIndex game = index.get(gameId);
+                if (game != null && game.size == 0) {
+                    index.remove(gameId);
+                    deleted.remove(gameId);
+                    purged.remove(gameId);
+                }
+            }
+        }
+        compactions.incrementAndGet();
+        bytesReclaimed.addAndGet(segment.end - written);
+        logger.info("Compacted {}: {} -> {} bytes", segment.path.getFileName(), segment.end, written);
+    }
+
+    // Caller holds the lock
+    private void chargeDeleted(String gameId) {
+        GameIndex game = index.get(gameId);
+        for (int i = 0; game != null && i < game.size; i++) {
+            Segment segment = segments.get(segmentOf(game.positions[i]));
+            if (segment != null) {
+                segment.liveBytes -= game.sizes[i];
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void roll() {
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            active.buffer.force();
+            syncs.incrementAndGet();
+        }
+        try {
+            active = create(active.id + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start event segment " + (active.id + 1), e);
+        }
+    }
+
+    private Segment create(int id) throws IOException {
+        Path path = directory.resolve(String.format("%010d%s", id, SUFFIX));
+        Segment segment = map(id, path, segmentBytes);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    // A fresh segment is preallocated to capacity; an existing one is mapped at its file size
+    private static Segment map(int id, Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = capacity > 0 ? capacity : channel.size();
+            return new Segment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private GameEvent read(Segment segment, int offset) {
+        ByteBuffer buffer = segment.buffer;
+        int length = buffer.getInt(offset);
+        byte[] frame = new byte[length];
+        buffer.get(offset + HEADER_BYTES, frame);
+        CRC32C crc = new CRC32C();
+        crc.update(frame);
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            throw new IllegalStateException("Corrupt event record at " + segment.path.getFileName() + ":" + offset);
+        }
+        int idLength = ByteBuffer.wrap(frame).getShort(9);
+        int bodyStart = FIXED_BODY_BYTES + idLength;
+        GameEvent record = decode(frame, bodyStart, frame.length - bodyStart);
+        record.setId(new String(frame, FIXED_BODY_BYTES, idLength, StandardCharsets.UTF_8) + ":" + record.getSeq());
+        return record;
+    }
+
+    private byte[] encode(GameEvent record) {
+        Document document = new Document();
+        converter.write(record, document);
+        RawBsonDocument raw = new RawBsonDocument(document, CODEC);
+        ByteBuffer bytes = raw.getByteBuffer().asNIO();
+        byte[] body = new byte[bytes.remaining()];
+        bytes.get(body);
+        return body;
+    }
+
+    private GameEvent decode(byte[] frame, int offset, int length) {
+        Document document = new RawBsonDocument(frame, offset, length).decode(CODEC);
+        return converter.read(GameEvent.class, document);
+    }
+
+    private static String gameIdAt(ByteBuffer buffer, int position) {
+        int idLength = buffer.getShort(position + HEADER_BYTES + 9);
+        byte[] id = new byte[idLength];
+        buffer.get(position + HEADER_BYTES + FIXED_BODY_BYTES, id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private static void zeroFrom(ByteBuffer buffer, int position) {
+        byte[] zeros = new byte[64 * 1024];
+        for (int at = position; at < buffer.capacity(); at += zeros.length) {
+            buffer.put(at, zeros, 0, Math.min(zeros.length, buffer.capacity() - at));
+        }
+    }
+
+    private static long position(int segmentId, int offset) {
+        return (long) segmentId << 32 | offset;
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                active.buffer.force();
+                syncs.incrementAndGet();
+            }
+        }
+        logMetrics();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        int segmentCount;
+        int games;
+        synchronized (this) {
+            segmentCount = segments.size();
+            games = index.size();
+        }
+        logger.info("Mapped event store: segments={}, games={}, appended={}, bytes={}, dropped={}, syncs={}, "
+                        + "compactions={}, reclaimed={} bytes",
+                segmentCount, games, appended.get(), bytesAppended.get(), dropped.get(), syncs.get(),
+                compactions.get(), bytesReclaimed.get());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameEvent;
+import com.example.backend.repository.GameEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The {@code game_events} collection: appends go through the batching
+ * {@link GameEventJournal}, reads are seeks on the {gameId, seq} index. That index is partial
+ * over {@code seq > 0}, so seeks bound {@code seq} above 0 for the planner to pick it.
+ * Games moved to the {@link GameEventArchive} are read back from there.
+ */
+@Service
+@ConditionalOnProperty(name = "game.events.store", havingValue = "mongo", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MongoGameEventStore implements GameEventStore {
+
+    private final GameEventJournal journal;
+    private final GameEventRepository gameEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final GameEventArchive archive;
+
+    @Override
+    public boolean append(GameEvent record) {
+        return journal.append(record);
+    }
+
+    @Override
+    public Stream<GameEvent> stream(String gameId, long afterSeq, long untilSeq) {
+        if (archive.contains(gameId)) {
+            return archive.read(gameId).stream()
+                    .filter(r -> r.getSeq() > afterSeq && r.getSeq() <= untilSeq || afterSeq == 0 && r.getSeq() == 0);
+        }
+        Query query;
+        if (afterSeq > 0) {
+            query = new Query(Criteria.where("gameId").is(gameId).and("seq").gt(afterSeq).lte(untilSeq))
+                    .with(Sort.by(Sort.Direction.ASC, "seq"));
+        } else {
+            // From the start, including records that predate sequence numbers
+            query = new Query(Criteria.where("gameId").is(gameId).orOperator(
+                            Criteria.where("seq").lte(untilSeq), Criteria.where("seq").exists(false)))
+                    .with(Sort.by(Sort.Order.asc("timestamp"), Sort.Order.asc("seq")));
+        }
+        return mongoTemplate.stream(query, GameEvent.class, GameEventJournal.COLLECTION);
+    }
+
+    @Override
+    public List<GameEvent> range(String gameId, long fromSeq, long toSeq, int limit) {
+        // Records without a sequence number are only read by stream()
+        long from = Math.max(fromSeq, 1);
+        if (archive.contains(gameId)) {
+            return archive.read(gameId).stream()
+                    .filter(r -> r.getSeq() >= from && r.getSeq() <= toSeq)
+                    .limit(limit)
+                    .toList();
+        }
+        return gameEventRepository.findBySeqRange(gameId, from, toSeq,
+                limit == Integer.MAX_VALUE ? Limit.unlimited() : Limit.of(limit));
+    }
+
+    @Override
+    public List<GameEvent> findByType(String gameId, String eventType) {
+        if (archive.contains(gameId)) {
+            return archive.read(gameId).stream().filter(r -> eventType.equals(r.getEventType())).toList();
+        }
+        return gameEventRepository.findByGameIdAndEventTypeOrderByTimestampAsc(gameId, eventType);
+    }
+
+    @Override
+    public GameEvent findById(String id) {
+        return gameEventRepository.findById(id).orElse(null);
+    }
+
+    @Override
+    public long lastSeq(String gameId) {
+        if (archive.contains(gameId)) {
+            return archive.lastSeq(gameId);
+        }
+        Query query = new Query(Criteria.where("gameId").is(gameId).and("seq").gt(0))
+                .with(Sort.by(Sort.Direction.DESC, "seq"))
+                .limit(1);
+        query.fields().include("seq");
+        GameEvent last = mongoTemplate.findOne(query, GameEvent.class, GameEventJournal.COLLECTION);
+        return last != null ? last.getSeq() : 0;
+    }
+
+    @Override
+    public void purge(Collection<String> gameIds) {
+        // Behind the appends still queued in the journal
+        journal.purge(gameIds);
+    }
+}
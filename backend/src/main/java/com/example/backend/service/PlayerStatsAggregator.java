@@ -0,0 +1,192 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.model.Player;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the users' hand counters ({@code handsPlayed}, {@code handsWon}, {@code netProfit}).
+ * <p>
+ * {@link #record(GameEndedEvent)} only adds the hand to per-user totals in memory; every
+ * {@code game.stats.flush-interval-ms} the totals go out as one unordered bulk of
+ * {@code $inc} updates, one per user, so two tables ending hands for the same user add up
+ * instead of overwriting each other. A hand is identified by its game and sequence number
+ * and counted once even if its event is seen twice. Each update also pushes its hand ids to
+ * the user's {@code statsHands} and only matches while none of them are there, so retrying
+ * an update that did reach the server changes nothing. Failed updates are retried as they
+ * were, never merged with newer hands.
+ */
+@Service
+public class PlayerStatsAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(PlayerStatsAggregator.class);
+
+    // Hand ids kept on each user; comfortably more than one flush brings
+    static final int RECENT_HANDS = 64;
+    private static final int RECORDED_HANDS = 10000;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private record Delta(int handsPlayed, int handsWon, int netProfit, List<String> hands) {
+        Delta plus(Delta other) {
+            List<String> merged = new ArrayList<>(hands);
+            merged.addAll(other.hands);
+            return new Delta(handsPlayed + other.handsPlayed, handsWon + other.handsWon,
+                    netProfit + other.netProfit, merged);
+        }
+    }
+
+    private record Pending(String username, Delta delta, int attempts) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, Delta> pending = new ConcurrentHashMap<>();
+    private final Queue<Pending> retries = new ConcurrentLinkedQueue<>();
+    // Recently recorded hand ids, oldest first
+    private final Map<String, Boolean> recorded = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECORDED_HANDS;
+        }
+    };
+
+    private final AtomicLong hands = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lastFlushMs = new AtomicLong();
+
+    public PlayerStatsAggregator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adds the hand to its players' pending totals. Returns false if the hand was already recorded.
+     */
+    public boolean record(GameEndedEvent event) {
+        if (event.getGame() == null || event.getGame().getPlayers() == null) {
+            return false;
+        }
+        String handId = event.getGameId() + ":" + event.getSeq();
+        synchronized (recorded) {
+            if (recorded.putIfAbsent(handId, Boolean.TRUE) != null) {
+                duplicates.incrementAndGet();
+                return false;
+            }
+        }
+        hands.incrementAndGet();
+
+        Set<String> winners = event.getWinners() == null ? Set.of() : event.getWinners().stream()
+                .map(Player::getUsername)
+                .collect(Collectors.toSet());
+        for (Player player : event.getGame().getPlayers()) {
+            // Bots and guests have no user document
+            if (player.isBot() || player.getUsername() == null || player.getUsername().startsWith("guest-")) {
+                continue;
+            }
+            boolean won = winners.contains(player.getUsername());
+            Delta delta = new Delta(1, won ? 1 : 0, won ? (int) player.getLastWinAmount() : 0, List.of(handId));
+            pending.merge(player.getUsername(), delta, Delta::plus);
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${game.stats.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        List<Pending> batch = new ArrayList<>();
+        for (Pending retry; (retry = retries.poll()) != null; ) {
+            batch.add(retry);
+        }
+        for (String username : pending.keySet()) {
+            Delta delta = pending.remove(username);
+            if (delta != null) {
+                batch.add(new Pending(username, delta, 0));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (Pending update : batch) {
+            Delta delta = update.delta();
+            bulk.updateOne(
+                    new Query(Criteria.where("username").is(update.username()).and("statsHands").nin(delta.hands())),
+                    new Update()
+                            .inc("handsPlayed", delta.handsPlayed())
+                            .inc("handsWon", delta.handsWon())
+                            .inc("netProfit", delta.netProfit())
+                            .push("statsHands").slice(-RECENT_HANDS).each(delta.hands().toArray()));
+        }
+        try {
+            bulk.execute();
+            updates.addAndGet(batch.size());
+        } catch (BulkOperationException e) {
+            List<BulkWriteError> errors = e.getErrors();
+            updates.addAndGet(batch.size() - errors.size());
+            for (BulkWriteError error : errors) {
+                retry(batch.get(error.getIndex()), error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            for (Pending update : batch) {
+                retry(update, e.getMessage());
+            }
+        } finally {
+            flushes.incrementAndGet();
+            lastFlushMs.set(System.currentTimeMillis() - start);
+        }
+    }
+
+    private void retry(Pending update, String error) {
+        if (update.attempts() + 1 >= MAX_ATTEMPTS) {
+            dropped.incrementAndGet();
+            logger.error("Dropping stats update for {} after {} attempts: {}", update.username(), MAX_ATTEMPTS, error);
+            return;
+        }
+        retried.incrementAndGet();
+        if (error != null && error.contains("server session pool is open")) {
+            logger.debug("Stats update for {} failed (MongoDB shutting down): {}", update.username(), error);
+        } else {
+            logger.warn("Stats update for {} failed, will retry: {}", update.username(), error);
+        }
+        retries.add(new Pending(update.username(), update.delta(), update.attempts() + 1));
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        logger.info("Player stats: hands={}, duplicates={}, flushes={}, updates={}, retried={}, dropped={}, "
+                        + "pending={}, lastFlush={}ms",
+                hands.get(), duplicates.get(), flushes.get(), updates.get(), retried.get(), dropped.get(),
+                pending.size() + retries.size(), lastFlushMs.get());
+    }
+}
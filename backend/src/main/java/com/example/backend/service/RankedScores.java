@@ -0,0 +1,213 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Scores by key, highest first (ties by key), as a skip list whose links also count the
+ * entries they skip. Updating a score, finding a key's rank and reading the entries at a
+ * rank are all O(log n) expected. Not thread-safe.
+ */
+final class RankedScores {
+    private static final int MAX_LEVEL = 32;
+
+    record Entry(String key, long score) {
+    }
+
+    private static final class Node {
+        final String key;
+        final long score;
+        final Node[] next;
+        // span[i]: entries from this node to next[i], or to the end when next[i] is null
+        final int[] span;
+
+        Node(String key, long score, int levels) {
+            this.key = key;
+            this.score = score;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private final Map<String, Node> nodes = new HashMap<>();
+    private int level = 1;
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * The key's score, or 0 if it has none.
+     */
+    long score(String key) {
+        Node node = nodes.get(key);
+        return node == null ? 0 : node.score;
+    }
+
+    /**
+     * Adds {@code delta} to the key's score and returns the new score.
+     */
+    long add(String key, long delta) {
+        long score = score(key) + delta;
+        put(key, score);
+        return score;
+    }
+
+    void put(String key, long score) {
+        Node old = nodes.remove(key);
+        if (old != null) {
+            if (old.score == score) {
+                nodes.put(key, old);
+                return;
+            }
+            unlink(old);
+        }
+        // insert() counts the entries through nodes, so the key is out of it until linked
+        nodes.put(key, insert(key, score));
+    }
+
+    void remove(String key) {
+        Node node = nodes.remove(key);
+        if (node != null) {
+            unlink(node);
+        }
+    }
+
+    void clear() {
+        nodes.clear();
+        for (int i = 0; i < level; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+    }
+
+    /**
+     * 1-based rank of the key, or 0 if it has no score.
+     */
+    int rank(String key) {
+        Node node = nodes.get(key);
+        if (node == null) {
+            return 0;
+        }
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !after(x.next[i], node.key, node.score)) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Up to {@code limit} entries in rank order, skipping the first {@code offset}.
+     */
+    List<Entry> range(int offset, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.max(Math.min(limit, size() - offset), 0));
+        if (offset < 0 || offset >= size() || limit <= 0) {
+            return entries;
+        }
+        // Walk down to the entry at rank offset + 1, then along the bottom level
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= offset + 1) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == offset + 1) {
+                break;
+            }
+        }
+        while (x != null && entries.size() < limit) {
+            entries.add(new Entry(x.key, x.score));
+            x = x.next[0];
+        }
+        return entries;
+    }
+
+    // True if the node ranks below (key, score)
+    private static boolean after(Node node, String key, long score) {
+        return node.score < score || (node.score == score && node.key.compareTo(key) > 0);
+    }
+
+    private static boolean before(Node node, String key, long score) {
+        return node.score > score || (node.score == score && node.key.compareTo(key) < 0);
+    }
+
+    private Node insert(String key, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], key, score)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int levels = randomLevel();
+        if (levels > level) {
+            for (int i = level; i < levels; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = nodes.size();
+            }
+            level = levels;
+        }
+
+        Node node = new Node(key, score, levels);
+        for (int i = 0; i < levels; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = levels; i < level; i++) {
+            update[i].span[i]++;
+        }
+        return node;
+    }
+
+    private void unlink(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], node.key, node.score)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    // Each level up with probability 1/4
+    private static int randomLevel() {
+        int levels = 1;
+        while (levels < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) {
+            levels++;
+        }
+        return levels;
+    }
+}
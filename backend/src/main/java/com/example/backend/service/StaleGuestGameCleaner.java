@@ -0,0 +1,191 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.event.GameDeletedEvent;
+import com.example.backend.publisher.GameEventPublisher;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Deletes tables that only guests ever sat at once they have been idle for
+ * {@code game.cleanup.guest-idle-hours}.
+ * <p>
+ * Candidates come from the {guestOnly, updatedAt} index through a cursor that returns ids
+ * only, and are handled {@code game.cleanup.batch-size} at a time: one bulk delete of the
+ * games. Memory stays at one batch however many games there are. Documents written before
+ * {@code guestOnly} existed are given the flag first, the same way.
+ * <p>
+ * The games' events and snapshots are purged by the journal's listener when it takes the
+ * purging {@link GameDeletedEvent}, behind whatever the tables journaled before, so no
+ * record of a purged game is written after the purge and the deletion is not journaled.
+ */
+@Service
+public class StaleGuestGameCleaner {
+    private static final Logger logger = LoggerFactory.getLogger(StaleGuestGameCleaner.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final GameTableRegistry gameTables;
+    private final GameService gameService;
+    private final GameEventPublisher eventPublisher;
+    private final long idleHours;
+    private final int batchSize;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong backfilled = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong lastRunMs = new AtomicLong();
+    // Games looked at by the run in progress, 0 when idle
+    private final AtomicLong inProgress = new AtomicLong();
+
+    public StaleGuestGameCleaner(MongoTemplate mongoTemplate, GameTableRegistry gameTables,
+                                 @Lazy GameService gameService, GameEventPublisher eventPublisher,
+                                 @Value("${game.cleanup.guest-idle-hours:24}") long idleHours,
+                                 @Value("${game.cleanup.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Cleanup batch size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.gameTables = gameTables;
+        this.gameService = gameService;
+        this.eventPublisher = eventPublisher;
+        this.idleHours = idleHours;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the number of games deleted.
+     */
+    public long cleanup() {
+        long start = System.currentTimeMillis();
+        String collection = mongoTemplate.getCollectionName(Game.class);
+        OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minusHours(idleHours);
+        backfill(collection);
+
+        Query stale = new Query(Criteria.where("guestOnly").is(true).and("updatedAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt"))
+                .cursorBatchSize(batchSize);
+        stale.fields().include("_id");
+        long removed = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try {
+            try (Stream<Document> games = mongoTemplate.stream(stale, Document.class, collection)) {
+                for (Iterator<Document> it = games.iterator(); it.hasNext(); ) {
+                    batch.add(it.next().getString("_id"));
+                    scanned.incrementAndGet();
+                    inProgress.incrementAndGet();
+                    if (batch.size() == batchSize) {
+                        removed += delete(batch, cutoff, collection);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                removed += delete(batch, cutoff, collection);
+            }
+        } finally {
+            runs.incrementAndGet();
+            lastRunMs.set(System.currentTimeMillis() - start);
+            inProgress.set(0);
+        }
+        return removed;
+    }
+
+    private long delete(List<String> gameIds, OffsetDateTime cutoff, String collection) {
+        batches.incrementAndGet();
+        List<String> removed = new ArrayList<>(gameIds.size());
+        List<String> stored = new ArrayList<>(gameIds.size());
+        for (String gameId : gameIds) {
+            if (gameTables.isResident(gameId)) {
+                // Through the table, so a resident copy cannot write the game back; the
+                // filter is checked there against the live game
+                try {
+                    if (gameService.purgeIfStale(gameId, cutoff)) {
+                        removed.add(gameId);
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Could not delete stale guest game {}: {}", gameId, e.getMessage());
+                }
+            } else {
+                stored.add(gameId);
+            }
+        }
+
+        if (!stored.isEmpty()) {
+            // The filter is checked again, so a game someone joined since the scan stays
+            Query query = new Query(Criteria.where("_id").in(stored)
+                    .and("guestOnly").is(true).and("updatedAt").lt(cutoff));
+            query.fields().include("_id");
+            List<String> bulk = mongoTemplate.findAllAndRemove(query, Document.class, collection).stream()
+                    .map(document -> document.getString("_id"))
+                    .toList();
+            for (String gameId : bulk) {
+                eventPublisher.publishEvent(new GameDeletedEvent(gameId, true));
+            }
+            removed.addAll(bulk);
+        }
+
+        deleted.addAndGet(removed.size());
+        logger.debug("Stale guest cleanup batch: {} candidates, {} deleted", gameIds.size(), removed.size());
+        return removed.size();
+    }
+
+    // Stamps guestOnly on documents from before the flag, in bulk updates of one batch each
+    private void backfill(String collection) {
+        Query missing = new Query(Criteria.where("guestOnly").is(null)).cursorBatchSize(batchSize);
+        missing.fields().include("_id").include("players.username");
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Document> games = mongoTemplate.stream(missing, Document.class, collection)) {
+            for (Iterator<Document> it = games.iterator(); it.hasNext(); ) {
+                Document game = it.next();
+                List<Document> players = game.getList("players", Document.class, List.of());
+                boolean guestOnly = players.stream().allMatch(p -> p.getString("username") != null
+                        && p.getString("username").startsWith("guest-"));
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(game.get("_id"))),
+                        new Update().set("guestOnly", guestOnly));
+                if (++pending == batchSize) {
+                    bulk.execute();
+                    backfilled.addAndGet(pending);
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+            backfilled.addAndGet(pending);
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logMetrics() {
+        logger.info("Stale guest cleanup: runs={}, scanned={}, deleted={}, backfilled={}, batches={}, lastRun={}ms, "
+                        + "inProgress={}",
+                runs.get(), scanned.get(), deleted.get(), backfilled.get(), batches.get(), lastRunMs.get(),
+                inProgress.get());
+    }
+}
@@ -3,6 +3,11 @@ package com.example.backend.service;
 import com.example.backend.entity.User;
 import com.example.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,6 +25,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
@@ -42,8 +50,12 @@ public class UserService implements UserDetailsService {
         return userRepository.save(user);
     }
     public User addBalance(String username, int amount) {
-        User user = userRepository.findByUsername(username).get();
-        user.setBalance(user.getBalance() + amount);
-        return userRepository.save(user);
+        // $inc, so it cannot overwrite the hand counters PlayerStatsAggregator updates the same way
+        User user = mongoTemplate.findAndModify(new Query(Criteria.where("username").is(username)),
+                new Update().inc("balance", amount), FindAndModifyOptions.options().returnNew(true), User.class);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        return user;
     }
 }
\ No newline at end of file
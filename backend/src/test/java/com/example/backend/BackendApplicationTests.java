@@ -3,7 +3,7 @@ package com.example.backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "game.events.dispatch=SYNC")
 class BackendApplicationTests {
 
 	@Test
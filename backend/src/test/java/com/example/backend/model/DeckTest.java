@@ -0,0 +1,36 @@
+package com.example.backend.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeckTest {
+
+    @Test
+    void aLegacyDeckNeverDealsTheCardsWithheld() {
+        Deck deck = new Deck(null, 0);
+        assertTrue(deck.isLegacy());
+        List<Card> dealt = List.of(
+                Card.of(Card.Suit.SPADES, Card.Rank.ACE),
+                Card.of(Card.Suit.HEARTS, Card.Rank.KING),
+                Card.of(Card.Suit.CLUBS, Card.Rank.TWO));
+
+        deck.withhold(CardMask.of(dealt));
+
+        assertFalse(deck.isLegacy());
+        assertEquals(3, deck.getPosition());
+        Set<Integer> rest = new HashSet<>();
+        while (deck.getPosition() < Deck.STANDARD_DECK_SIZE) {
+            int index = deck.drawIndex();
+            assertFalse(CardMask.contains(CardMask.of(dealt), index));
+            rest.add(index);
+        }
+        assertEquals(Deck.STANDARD_DECK_SIZE - 3, rest.size());
+    }
+}
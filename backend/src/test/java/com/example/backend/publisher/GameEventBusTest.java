@@ -0,0 +1,165 @@
+package com.example.backend.publisher;
+
+import com.example.backend.event.GameDeletedEvent;
+import com.example.backend.event.GameEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEventBusTest {
+
+    private static SmartApplicationListener listener(String id, Consumer<GameEvent> body) {
+        return new SmartApplicationListener() {
+            @Override
+            public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+                return PayloadApplicationEvent.class.isAssignableFrom(eventType);
+            }
+
+            @Override
+            public void onApplicationEvent(ApplicationEvent event) {
+                body.accept((GameEvent) ((PayloadApplicationEvent<?>) event).getPayload());
+            }
+
+            @Override
+            public String getListenerId() {
+                return id;
+            }
+        };
+    }
+
+    private static void publish(GameEventBus bus, String gameId, long seq) {
+        GameEvent event = new GameDeletedEvent(gameId);
+        event.setSeq(seq);
+        bus.multicastEvent(new PayloadApplicationEvent<>(bus, event));
+    }
+
+    @Test
+    void syncModeDeliversOnThePublishingThread() {
+        GameEventBus bus = new GameEventBus(GameEventBus.Dispatch.SYNC, 4, 16);
+        List<Thread> threads = new ArrayList<>();
+        bus.addApplicationListener(listener("stats", event -> threads.add(Thread.currentThread())));
+
+        publish(bus, "g1", 1);
+
+        assertEquals(List.of(Thread.currentThread()), threads);
+    }
+
+    @Test
+    void eachListenerSeesATablesEventsInOrderOffThePublishingThread() throws InterruptedException {
+        GameEventBus bus = new GameEventBus(GameEventBus.Dispatch.ASYNC, 4, 8);
+        int games = 6;
+        int events = 200;
+        CountDownLatch done = new CountDownLatch(2 * games * events);
+        Map<String, List<Long>> slow = new ConcurrentHashMap<>();
+        Map<String, List<Long>> fast = new ConcurrentHashMap<>();
+        List<Thread> inlineThreads = Collections.synchronizedList(new ArrayList<>());
+        Thread publisher = Thread.currentThread();
+
+        bus.addApplicationListener(listener("slow", event -> {
+            assertNotSame(publisher, Thread.currentThread());
+            slow.computeIfAbsent(event.getGameId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(event.getSeq());
+            if (event.getSeq() % 50 == 0) {
+                sleep(5);
+            }
+            done.countDown();
+        }));
+        bus.addApplicationListener(listener("fast", event -> {
+            fast.computeIfAbsent(event.getGameId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(event.getSeq());
+            done.countDown();
+        }));
+        bus.addApplicationListener(listener(GameEventBus.INLINE + "table",
+                event -> inlineThreads.add(Thread.currentThread())));
+
+        for (long seq = 1; seq <= events; seq++) {
+            for (int g = 0; g < games; g++) {
+                publish(bus, "game-" + g, seq);
+            }
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        List<Long> expected = new ArrayList<>();
+        for (long seq = 1; seq <= events; seq++) {
+            expected.add(seq);
+        }
+        for (int g = 0; g < games; g++) {
+            assertEquals(expected, slow.get("game-" + g));
+            assertEquals(expected, fast.get("game-" + g));
+        }
+        assertEquals(games * events, inlineThreads.size());
+        inlineThreads.forEach(thread -> assertSame(publisher, thread));
+        bus.close();
+    }
+
+    @Test
+    void methodsOfOneBeanShareItsLanes() throws InterruptedException {
+        GameEventBus bus = new GameEventBus(GameEventBus.Dispatch.ASYNC, 4, 16);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(100);
+        bus.addApplicationListener(listener("com.example.Notifier.onAction(com.example.Event)",
+                event -> seen.add("action-" + event.getSeq())));
+        bus.addApplicationListener(listener("com.example.Notifier.onEnded(com.example.Event)", event -> {
+            seen.add("ended-" + event.getSeq());
+            done.countDown();
+        }));
+
+        for (long seq = 1; seq <= 100; seq++) {
+            publish(bus, "g1", seq);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        List<String> expected = new ArrayList<>();
+        for (long seq = 1; seq <= 100; seq++) {
+            expected.add("action-" + seq);
+            expected.add("ended-" + seq);
+        }
+        assertEquals(expected, seen);
+        bus.close();
+    }
+
+    @Test
+    void closeDeliversWhatIsQueued() {
+        GameEventBus bus = new GameEventBus(GameEventBus.Dispatch.ASYNC, 2, 1024);
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+        SmartApplicationListener stats = listener("stats", event -> {
+            sleep(1);
+            seen.add(event.getSeq());
+        });
+        bus.addApplicationListener(stats);
+
+        for (long seq = 1; seq <= 100; seq++) {
+            publish(bus, "g1", seq);
+        }
+        bus.close();
+
+        assertEquals(100, seen.size());
+        assertEquals(0, bus.depth(stats));
+        // After close, events are delivered inline
+        publish(bus, "g1", 101);
+        assertEquals(101, seen.size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
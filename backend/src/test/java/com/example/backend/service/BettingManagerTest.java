@@ -0,0 +1,80 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.Player;
+import com.example.backend.model.Pot;
+import com.example.backend.publisher.GameEventPublisher;
+import com.example.backend.scheduler.GameScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Chips bet in a round reach the pots exactly once: the running total and the main and
+ * side pots built from the round's bets all add up to what the players put in.
+ */
+class BettingManagerTest {
+
+    private BettingManager bettingManager;
+    private Game game;
+    private Player first;
+    private Player second;
+    private Player third;
+
+    @BeforeEach
+    void setUp() {
+        bettingManager = new BettingManager(mock(GameEventPublisher.class), new HandEvaluator(),
+                mock(GameScheduler.class));
+        game = new Game(10, 20);
+        first = new Player("First", "first", 1000);
+        second = new Player("Second", "second", 1000);
+        third = new Player("Third", "third", 1000);
+        game.getPlayers().addAll(List.of(first, second, third));
+    }
+
+    @Test
+    void callsAndRaisesLandInTheMainPotOnce() {
+        bettingManager.placeBet(game, first, 20, Game.PlayerAction.CALL);
+        bettingManager.placeBet(game, second, 20, Game.PlayerAction.CALL);
+        bettingManager.placeBet(game, third, 60, Game.PlayerAction.RAISE);
+        bettingManager.placeBet(game, first, 40, Game.PlayerAction.CALL);
+        bettingManager.fold(game, second);
+
+        bettingManager.updatePotAmounts(game);
+
+        assertEquals(140, game.getPot());
+        assertEquals(1, game.getPots().size());
+        Pot main = game.getPots().get(0);
+        assertEquals(140, main.getAmount());
+        assertEquals(Set.of(first.getId(), third.getId()), main.getEligiblePlayerIds());
+        assertEquals(3000 - 140, chipsBehind());
+    }
+
+    @Test
+    void shortAllInSplitsTheRoundIntoMainAndSidePots() {
+        first.setChips(50);
+        bettingManager.placeBet(game, first, 50, Game.PlayerAction.ALL_IN);
+        bettingManager.placeBet(game, second, 100, Game.PlayerAction.RAISE);
+        bettingManager.placeBet(game, third, 100, Game.PlayerAction.CALL);
+
+        bettingManager.updatePotAmounts(game);
+
+        assertEquals(250, game.getPot());
+        assertEquals(2, game.getPots().size());
+        assertEquals(150, game.getPots().get(0).getAmount());
+        assertEquals(Set.of(first.getId(), second.getId(), third.getId()),
+                game.getPots().get(0).getEligiblePlayerIds());
+        assertEquals(100, game.getPots().get(1).getAmount());
+        assertEquals(Set.of(second.getId(), third.getId()), game.getPots().get(1).getEligiblePlayerIds());
+        assertEquals(game.getPot(), game.getPots().stream().mapToDouble(Pot::getAmount).sum());
+    }
+
+    private double chipsBehind() {
+        return game.getPlayers().stream().mapToDouble(Player::getChips).sum();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Card;
+import com.example.backend.model.CardMask;
+import com.example.backend.model.EquityResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EquityCalculatorTest {
+
+    private static final long BUDGET_MS = 60_000;
+
+    private static long mask(Card... cards) {
+        return CardMask.of(List.of(cards));
+    }
+
+    @Test
+    void seededSamplingIsIndependentOfPoolSize() {
+        long aces = mask(Card.of(Card.Suit.SPADES, Card.Rank.ACE), Card.of(Card.Suit.HEARTS, Card.Rank.ACE));
+        EquityCalculator single = new EquityCalculator(1, 0);
+        EquityCalculator wide = new EquityCalculator(4, 0);
+        try {
+            EquityResult a = single.calculate(aces, CardMask.EMPTY, 1, 20_000, BUDGET_MS, 7L);
+            EquityResult b = wide.calculate(aces, CardMask.EMPTY, 1, 20_000, BUDGET_MS, 7L);
+            assertEquals(a, b);
+            assertFalse(a.isExhaustive());
+            assertTrue(a.isComplete());
+            assertEquals(20_000, a.getSamples());
+            // Pocket aces win roughly 85% heads-up
+            assertEquals(0.85, a.getEquity(), 0.02);
+        } finally {
+            single.shutdown();
+            wide.shutdown();
+        }
+    }
+
+    @Test
+    void samplingRunsExactlyTheSamplesAsked() {
+        long aces = mask(Card.of(Card.Suit.SPADES, Card.Rank.ACE), Card.of(Card.Suit.HEARTS, Card.Rank.ACE));
+        EquityCalculator calculator = new EquityCalculator(2, 0);
+        try {
+            // Fewer samples than chunks, and a count that does not divide evenly
+            assertEquals(10, calculator.calculate(aces, CardMask.EMPTY, 1, 10, BUDGET_MS, 3L).getSamples());
+            assertEquals(1_000, calculator.calculate(aces, CardMask.EMPTY, 1, 1_000, BUDGET_MS, 3L).getSamples());
+        } finally {
+            calculator.shutdown();
+        }
+    }
+
+    @Test
+    void riverHeadsUpIsEnumerated() {
+        EquityCalculator calculator = new EquityCalculator(2, 200_000);
+        try {
+            long hole = mask(Card.of(Card.Suit.SPADES, Card.Rank.ACE), Card.of(Card.Suit.SPADES, Card.Rank.KING));
+            long board = mask(
+                    Card.of(Card.Suit.SPADES, Card.Rank.QUEEN),
+                    Card.of(Card.Suit.SPADES, Card.Rank.JACK),
+                    Card.of(Card.Suit.SPADES, Card.Rank.TEN),
+                    Card.of(Card.Suit.HEARTS, Card.Rank.TWO),
+                    Card.of(Card.Suit.CLUBS, Card.Rank.THREE));
+            EquityResult result = calculator.calculate(hole, board, 1, 1000, BUDGET_MS, 1L);
+            assertTrue(result.isExhaustive());
+            assertTrue(result.isComplete());
+            assertEquals(990, result.getSamples()); // C(45, 2) opponent holdings
+            assertEquals(1.0, result.getEquity());
+        } finally {
+            calculator.shutdown();
+        }
+    }
+
+    @Test
+    void noOpponentsMeansFullEquity() {
+        EquityCalculator calculator = new EquityCalculator(1, 200_000);
+        try {
+            long hole = mask(Card.of(Card.Suit.CLUBS, Card.Rank.SEVEN), Card.of(Card.Suit.DIAMONDS, Card.Rank.TWO));
+            assertEquals(1.0, calculator.calculate(hole, CardMask.EMPTY, 0).getEquity());
+        } finally {
+            calculator.shutdown();
+        }
+    }
+}
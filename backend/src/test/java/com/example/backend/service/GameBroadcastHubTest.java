@@ -0,0 +1,196 @@
+package com.example.backend.service;
+
+import com.example.backend.model.GameUpdate;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameBroadcastHubTest {
+
+    // Requests nothing until told to, like a client that stopped reading
+    private static final class Client extends BaseSubscriber<GameUpdate> {
+        final List<Object> received = new ArrayList<>();
+        final List<Long> seqs = new ArrayList<>();
+        Throwable error;
+        boolean completed;
+
+        static Client of(Flux<GameUpdate> updates) {
+            Client client = new Client();
+            updates.subscribe(client);
+            return client;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(GameUpdate update) {
+            received.add(update.getPayload());
+            seqs.add(update.getSeq());
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+
+    private static GameUpdate update(int n) {
+        return GameUpdate.builder().gameId("g1").type(GameUpdate.GameUpdateType.PLAYER_ACTION).payload(n).build();
+    }
+
+    private static GameUpdate snapshot() {
+        return GameUpdate.builder().gameId("g1").type(GameUpdate.GameUpdateType.SNAPSHOT).payload("snapshot").build();
+    }
+
+    private static void publish(GameBroadcastHub hub, int from, int to) {
+        for (int n = from; n <= to; n++) {
+            hub.publish("g1", update(n));
+        }
+    }
+
+    @Test
+    void slowSubscriberKeepsOnlyTheNewestUpdates() {
+        GameBroadcastHub hub = new GameBroadcastHub(4, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 64);
+        Client slow = Client.of(hub.gameUpdates("g1"));
+        Client fast = Client.of(hub.gameUpdates("g1"));
+        fast.request(Long.MAX_VALUE);
+
+        publish(hub, 1, 10);
+
+        assertEquals(4, hub.lag("g1"));
+        assertEquals(2, hub.subscriberCount("g1"));
+        slow.request(100);
+        assertEquals(List.of(7, 8, 9, 10), slow.received);
+        assertEquals(10, fast.received.size());
+        assertEquals(0, hub.lag("g1"));
+    }
+
+    @Test
+    void conflatingReplacesTheBacklogWithTheNewestUpdate() {
+        GameBroadcastHub hub = new GameBroadcastHub(4, GameBroadcastHub.SlowConsumerPolicy.CONFLATE, 64);
+        Client slow = Client.of(hub.gameUpdates("g1"));
+
+        publish(hub, 1, 10);
+
+        slow.request(100);
+        assertEquals(List.of(9, 10), slow.received);
+    }
+
+    @Test
+    void disconnectingEndsTheSlowSubscription() {
+        GameBroadcastHub hub = new GameBroadcastHub(4, GameBroadcastHub.SlowConsumerPolicy.DISCONNECT, 64);
+        Client slow = Client.of(hub.gameUpdates("g1"));
+
+        publish(hub, 1, 5);
+
+        assertTrue(slow.error instanceof IllegalStateException);
+        assertEquals(0, hub.subscriberCount("g1"));
+    }
+
+    @Test
+    void privateUpdatesReachOnlyTheirPlayerAndCloseDrainsFirst() {
+        GameBroadcastHub hub = new GameBroadcastHub(16, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 64);
+        Client alice = Client.of(hub.playerUpdates("g1", "alice"));
+        Client bob = Client.of(hub.playerUpdates("g1", "bob"));
+        Client table = Client.of(hub.gameUpdates("g1"));
+        Client other = Client.of(hub.gameUpdates("g2"));
+        alice.request(Long.MAX_VALUE);
+        bob.request(Long.MAX_VALUE);
+
+        hub.publishToPlayer("g1", "alice", update(1));
+        hub.publish("g1", update(2));
+        hub.close("g1");
+
+        assertEquals(List.of(1), alice.received);
+        assertTrue(bob.received.isEmpty());
+        assertTrue(alice.completed && bob.completed);
+        // Completes after the update it still had buffered
+        assertTrue(!table.completed && table.received.isEmpty());
+        table.request(1);
+        assertEquals(List.of(2), table.received);
+        assertTrue(table.completed);
+        assertNull(other.error);
+        assertTrue(!other.completed);
+        assertEquals(0, hub.subscriberCount("g1"));
+        assertEquals(1, hub.subscriberCount("g2"));
+    }
+
+    @Test
+    void resumingReplaysWhatItsStreamMissed() {
+        GameBroadcastHub hub = new GameBroadcastHub(16, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 8);
+        publish(hub, 1, 3);
+        hub.publishToPlayer("g1", "alice", update(99));
+        publish(hub, 4, 5);
+
+        String epoch = hub.epoch("g1");
+        Client table = Client.of(hub.gameUpdates("g1", 2, epoch, GameBroadcastHubTest::snapshot));
+        Client alice = Client.of(hub.playerUpdates("g1", "alice", 0, epoch, GameBroadcastHubTest::snapshot));
+        table.request(Long.MAX_VALUE);
+        alice.request(Long.MAX_VALUE);
+        publish(hub, 6, 6);
+
+        assertEquals(List.of(3, 4, 5, 6), table.received);
+        assertEquals(List.of(3L, 5L, 6L, 7L), table.seqs);
+        assertEquals(List.of(99), alice.received);
+        assertEquals(List.of(4L), alice.seqs);
+    }
+
+    @Test
+    void aGapOlderThanTheRingGetsASnapshot() {
+        GameBroadcastHub hub = new GameBroadcastHub(16, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 4);
+        publish(hub, 1, 10);
+
+        String epoch = hub.epoch("g1");
+        Client late = Client.of(hub.gameUpdates("g1", 5, epoch, GameBroadcastHubTest::snapshot));
+        Client ahead = Client.of(hub.gameUpdates("g1", 500, epoch, GameBroadcastHubTest::snapshot));
+        Client recent = Client.of(hub.gameUpdates("g1", 6, epoch, GameBroadcastHubTest::snapshot));
+        late.request(Long.MAX_VALUE);
+        ahead.request(Long.MAX_VALUE);
+        recent.request(Long.MAX_VALUE);
+        publish(hub, 11, 11);
+
+        assertEquals(List.of("snapshot", 11), late.received);
+        assertEquals(List.of(10L, 11L), late.seqs);
+        assertEquals(List.of("snapshot", 11), ahead.received);
+        assertEquals(List.of(7, 8, 9, 10, 11), recent.received);
+    }
+
+    @Test
+    void aSeqFromAnotherEpochGetsASnapshot() {
+        GameBroadcastHub hub = new GameBroadcastHub(16, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 8);
+        publish(hub, 1, 3);
+        String before = hub.epoch("g1");
+        // The table closes and opens again, as after a restart: seqs count from 1 under a new epoch
+        hub.close("g1");
+        publish(hub, 1, 4);
+        assertNotEquals(before, hub.epoch("g1"));
+
+        Client stale = Client.of(hub.gameUpdates("g1", 2, before, GameBroadcastHubTest::snapshot));
+        Client unnamed = Client.of(hub.gameUpdates("g1", 2, null, GameBroadcastHubTest::snapshot));
+        Client current = Client.of(hub.gameUpdates("g1", 2, hub.epoch("g1"), GameBroadcastHubTest::snapshot));
+        stale.request(Long.MAX_VALUE);
+        unnamed.request(Long.MAX_VALUE);
+        current.request(Long.MAX_VALUE);
+
+        assertEquals(List.of("snapshot"), stale.received);
+        assertEquals(List.of(4L), stale.seqs);
+        assertEquals(List.of("snapshot"), unnamed.received);
+        assertEquals(List.of(3, 4), current.received);
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.model.Player;
+import com.example.backend.publisher.GameEventPublisher;
+import com.example.backend.repository.GameRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.scheduler.GameScheduler;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers one table from many threads through {@link GameServiceImpl} while the store
+ * rejects some hand-end writes as version conflicts, and checks that no chips are created
+ * or lost along the way and that only hands that were written are announced.
+ */
+class GameConcurrencyStressTest {
+
+    private static final int PLAYERS = 6;
+    private static final double STACK = 10_000;
+    private static final double TOTAL_CHIPS = PLAYERS * STACK;
+    private static final int THREADS = 12;
+    private static final int ACTIONS_PER_THREAD = 400;
+    // One in CONFLICT_ODDS writes loses to a simulated concurrent writer
+    private static final int CONFLICT_ODDS = 8;
+
+    // What the fake store holds: the last game state that was written successfully
+    private final AtomicReference<Game> stored = new AtomicReference<>();
+    private final AtomicReference<Game> lastConverted = new AtomicReference<>();
+    private final AtomicInteger handsEnded = new AtomicInteger();
+    private final AtomicInteger conflictsInjected = new AtomicInteger();
+    private final AtomicInteger writesLanded = new AtomicInteger();
+
+    private GameTableRegistry gameTables;
+    private GameServiceImpl gameService;
+    private String gameId;
+    private List<String> playerIds;
+
+    @BeforeEach
+    void setUp() {
+        Game seed = new Game(10, 20);
+        for (int i = 0; i < PLAYERS; i++) {
+            seed.getPlayers().add(new Player("Player " + i, "player" + i, STACK));
+        }
+        stored.set(seed);
+        gameId = seed.getId();
+        playerIds = seed.getPlayers().stream().map(Player::getId).toList();
+
+        GameRepository gameRepository = mock(GameRepository.class);
+        when(gameRepository.findById(anyString())).thenAnswer(inv -> Optional.of(new Game(stored.get())));
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoConverter converter = mock(MongoConverter.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Game.class)).thenReturn("games");
+        doAnswer(inv -> {
+            Game game = inv.getArgument(0);
+            Document document = inv.getArgument(1);
+            document.put("_id", game.getId());
+            document.put("status", game.getStatus().name());
+            document.put("pot", game.getPot());
+            document.put("chips", game.getPlayers().stream().map(Player::getChips).toList());
+            lastConverted.set(new Game(game));
+            return null;
+        }).when(converter).write(any(), any());
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), anyString())).thenAnswer(inv -> {
+            if (ThreadLocalRandom.current().nextInt(CONFLICT_ODDS) == 0) {
+                conflictsInjected.incrementAndGet();
+                return UpdateResult.acknowledged(0, 0L, null);
+            }
+            Game written = lastConverted.get();
+            written.setVersion(written.getVersion() + 1);
+            stored.set(written);
+            writesLanded.incrementAndGet();
+            return UpdateResult.acknowledged(1, 1L, null);
+        });
+
+        // Hand-end flushes are the only writes, so every conflict surfaces to a caller
+        gameTables = new GameTableRegistry(gameRepository, mongoTemplate, 60_000, 3_600_000);
+        GameEventPublisher eventPublisher = new GameEventPublisher(event -> {
+            if (event instanceof GameEndedEvent) {
+                handsEnded.incrementAndGet();
+            }
+        }, new GameEventSequencer(mock(GameEventStore.class)), gameTables);
+
+        GameScheduler gameScheduler = mock(GameScheduler.class);
+        GameLifecycleService lifecycleService = mock(GameLifecycleService.class);
+        GameValidatorService validator = new GameValidatorService(gameTables, mock(UserRepository.class));
+        BettingManager bettingManager = new BettingManager(eventPublisher, new HandEvaluator(), gameScheduler);
+        GameActionService actionService = new GameActionService(
+                gameTables, validator, bettingManager, eventPublisher, gameScheduler);
+        GameHandService handService = new GameHandService(
+                gameTables, validator, bettingManager, eventPublisher, lifecycleService);
+        gameService = new GameServiceImpl(lifecycleService, handService, actionService, gameTables);
+        ReflectionTestUtils.setField(gameService, "maxRetries", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameTables.shutdown();
+    }
+
+    @Test
+    void chipsAreConservedUnderConcurrentActions() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                try {
+                    for (int i = 0; i < ACTIONS_PER_THREAD; i++) {
+                        act();
+                        if (i % 50 == 0) {
+                            assertChipsConserved();
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES), "stress run timed out");
+
+        assertTrue(failures.isEmpty(), () -> "invariant broken: " + failures.get(0));
+        assertChipsConserved();
+        assertTrue(handsEnded.get() > 0, "no hand was completed");
+        assertTrue(conflictsInjected.get() > 0, "no write conflict was exercised");
+        // A hand whose write lost, and the retry that replayed it, announce it once between them
+        assertEquals(writesLanded.get(), handsEnded.get());
+        assertEquals(conflictsInjected.get(), stat("conflicts"));
+        assertEquals(stat("conflicts"), stat("retries") + stat("retriesExhausted"));
+    }
+
+    private long stat(String name) {
+        return ((AtomicLong) ReflectionTestUtils.getField(gameService, name)).get();
+    }
+
+    private void act() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Game view = gameTables.load(gameId);
+        try {
+            if (view.getStatus() == Game.GameStatus.WAITING) {
+                gameService.startNewHand(gameId);
+                return;
+            }
+            // Mostly the player whose turn it is, sometimes anyone, to mix in rejected moves
+            int index = random.nextInt(4) == 0 || view.getCurrentPlayerIndex() < 0
+                    ? random.nextInt(PLAYERS) : view.getCurrentPlayerIndex();
+            Player player = view.getPlayers().get(index);
+            String playerId = playerIds.get(index);
+            double toCall = view.getCurrentBet()
+                    - view.getCurrentBettingRound().getBets().getOrDefault(playerId, 0.0);
+            double raise = toCall + view.getBigBlindAmount() * (1 + random.nextInt(3));
+
+            // Stay clear of all-ins: their run-out is driven by the (mocked) scheduler
+            int roll = random.nextInt(20);
+            if (roll < 3 || toCall >= player.getChips()) {
+                gameService.fold(gameId, playerId);
+            } else if (roll < 15) {
+                if (toCall > 0) {
+                    gameService.placeBet(gameId, playerId, toCall);
+                } else {
+                    gameService.check(gameId, playerId);
+                }
+            } else if (raise < player.getChips()) {
+                gameService.placeBet(gameId, playerId, raise);
+            }
+        } catch (RuntimeException e) {
+            // Out-of-turn moves, stale views and exhausted retries are expected here
+        }
+    }
+
+    private void assertChipsConserved() {
+        double total = gameTables.call(gameId, () -> {
+            Game game = gameTables.load(gameId);
+            return game.getPlayers().stream().mapToDouble(Player::getChips).sum() + game.getPot();
+        });
+        assertEquals(TOTAL_CHIPS, total, 1e-6);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.backend.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameDocumentDiffTest {
+
+    private static Document game() {
+        List<Document> players = new ArrayList<>();
+        players.add(new Document("_id", "p1").append("chips", 1000.0).append("hasFolded", false));
+        players.add(new Document("_id", "p2").append("chips", 1000.0).append("hasFolded", false));
+        return new Document("_id", "g1")
+                .append("players", players)
+                .append("currentPlayerIndex", 0)
+                .append("currentBettingRound", new Document("bets", new Document()))
+                .append("status", "PRE_FLOP_BETTING");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Document player(Document game, int index) {
+        return ((List<Document>) game.get("players")).get(index);
+    }
+
+    @Test
+    void betTouchesOnlyChangedPaths() {
+        Document before = game();
+        Document after = game();
+        player(after, 0).put("chips", 980.0);
+        after.put("currentPlayerIndex", 1);
+        after.get("currentBettingRound", Document.class).get("bets", Document.class).put("p1", 20.0);
+
+        Document update = GameDocumentDiff.diff(before, after).getUpdateObject();
+
+        assertEquals(new Document("players.0.chips", 980.0).append("currentBettingRound.bets.p1", 20.0),
+                update.get("$set"));
+        assertEquals(new Document("currentPlayerIndex", 1), update.get("$inc"));
+    }
+
+    @Test
+    void unchangedDocumentGivesEmptyUpdate() {
+        assertTrue(GameDocumentDiff.diff(game(), game()).getUpdateObject().isEmpty());
+    }
+
+    @Test
+    void resizedArraysAreReplacedAndRemovedFieldsUnset() {
+        Document before = game();
+        Document after = game();
+        @SuppressWarnings("unchecked")
+        List<Document> players = (List<Document>) after.get("players");
+        players.add(new Document("_id", "p3").append("chips", 500.0).append("hasFolded", false));
+        after.remove("status");
+
+        Document update = GameDocumentDiff.diff(before, after).getUpdateObject();
+
+        assertEquals(new Document("players", players), update.get("$set"));
+        assertTrue(update.get("$unset", Document.class).containsKey("status"));
+    }
+
+    @Test
+    void dottedMapKeysReplaceTheirParent() {
+        Document before = game();
+        Document after = game();
+        Document bets = new Document("a.b", 5.0);
+        after.get("currentBettingRound", Document.class).put("bets", bets);
+
+        Document update = GameDocumentDiff.diff(before, after).getUpdateObject();
+
+        assertEquals(new Document("currentBettingRound.bets", bets), update.get("$set"));
+    }
+}
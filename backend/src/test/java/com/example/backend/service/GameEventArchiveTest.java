@@ -0,0 +1,142 @@
+package com.example.backend.service;
+
+import com.example.backend.config.MongoConfig;
+import com.example.backend.entity.GameEvent;
+import com.example.backend.model.EventDelta;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameEventArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final Map<String, List<GameEvent>> journals = new HashMap<>();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.find(any(Query.class), eq(GameEvent.class), eq(GameEventJournal.COLLECTION)))
+                .thenAnswer(inv -> journals.keySet().stream().sorted().map(gameId -> {
+                    GameEvent deleted = new GameEvent();
+                    deleted.setGameId(gameId);
+                    return deleted;
+                }).toList());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(GameEventJournal.COLLECTION)))
+                .thenAnswer(inv -> {
+                    String gameId = inv.getArgument(0, Query.class).getQueryObject().getString("gameId");
+                    return journals.getOrDefault(gameId, List.of()).stream().map(record -> {
+                        Document document = new Document();
+                        converter.write(record, document);
+                        return document;
+                    });
+                });
+        when(mongoTemplate.remove(any(Query.class), any(String.class))).thenReturn(DeleteResult.acknowledged(0));
+    }
+
+    private void journal(String gameId, int events) {
+        List<GameEvent> records = new ArrayList<>();
+        for (int seq = 1; seq <= events; seq++) {
+            GameEvent record = new GameEvent();
+            record.setId(gameId + "-" + seq);
+            record.setGameId(gameId);
+            record.setSeq(seq);
+            // BSON dates keep milliseconds
+            record.setTimestamp(OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS));
+            record.setEventType(seq == events ? "GameDeletedEvent" : "PlayerActionEvent");
+            EventDelta delta = new EventDelta();
+            delta.setAction("CALL");
+            delta.setActor("player-" + (seq % 6));
+            delta.setPot(seq * 20.0);
+            record.setDelta(delta);
+            records.add(record);
+        }
+        journals.put(gameId, records);
+    }
+
+    private GameEventArchive open() {
+        return new GameEventArchive(mongoTemplate, directory, 24, 500, 6);
+    }
+
+    @Test
+    void archivedGamesReadBackAfterReopenAndLeaveMongo() {
+        journal("g1", 300);
+        journal("g2", 40);
+        GameEventArchive archive = open();
+        assertFalse(archive.contains("g1"));
+
+        archive.archiveDeletedGames();
+
+        verify(mongoTemplate).remove(any(Query.class), eq(GameEventJournal.COLLECTION));
+        verify(mongoTemplate).remove(any(Query.class), eq(GameSnapshotService.COLLECTION));
+
+        archive = open();
+        assertTrue(archive.contains("g1"));
+        assertEquals(300, archive.lastSeq("g1"));
+        List<GameEvent> g1 = archive.read("g1");
+        assertEquals(300, g1.size());
+        for (int i = 0; i < g1.size(); i++) {
+            GameEvent expected = journals.get("g1").get(i);
+            GameEvent actual = g1.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getSeq(), actual.getSeq());
+            assertEquals(expected.getEventType(), actual.getEventType());
+            assertEquals(expected.getTimestamp().toInstant(), actual.getTimestamp().toInstant());
+            assertEquals(expected.getDelta().getPot(), actual.getDelta().getPot());
+        }
+        assertEquals(40, archive.read("g2").size());
+        assertTrue(archive.read("g3").isEmpty());
+    }
+
+    @Test
+    void eventStoreReadsArchivedGamesFromTheArchive() {
+        journal("g1", 50);
+        GameEventArchive archive = open();
+        archive.archiveDeletedGames();
+        MongoGameEventStore store = new MongoGameEventStore(null, null, mongoTemplate, archive);
+
+        try (Stream<GameEvent> tail = store.stream("g1", 20, 30)) {
+            assertEquals(List.of(21L, 22L, 23L, 24L, 25L, 26L, 27L, 28L, 29L, 30L),
+                    tail.map(GameEvent::getSeq).toList());
+        }
+        assertEquals(5, store.range("g1", 10, Long.MAX_VALUE, 5).size());
+        assertEquals(1, store.findByType("g1", "GameDeletedEvent").size());
+        assertEquals(50, store.lastSeq("g1"));
+    }
+}
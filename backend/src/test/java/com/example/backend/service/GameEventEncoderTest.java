@@ -0,0 +1,190 @@
+package com.example.backend.service;
+
+import com.example.backend.config.MongoConfig;
+import com.example.backend.entity.Game;
+import com.example.backend.entity.GameEvent;
+import com.example.backend.event.CardsDealtEvent;
+import com.example.backend.event.GameCreatedEvent;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.event.GameStartedEvent;
+import com.example.backend.event.PlayerActionEvent;
+import com.example.backend.event.PlayerJoinedEvent;
+import com.example.backend.event.RoundStartedEvent;
+import com.example.backend.model.BettingRound;
+import com.example.backend.model.Card;
+import com.example.backend.model.Player;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEventEncoderTest {
+
+    private final List<GameEvent> journal = new ArrayList<>();
+
+    private void record(com.example.backend.event.GameEvent event) {
+        GameEvent record = new GameEvent();
+        record.setGameId(event.getGameId());
+        record.setSeq(journal.size() + 1);
+        record.setTimestamp(event.getTimestamp());
+        record.setEventType(event.getClass().getSimpleName());
+        record.setDelta(GameEventEncoder.deltaOf(event));
+        journal.add(record);
+    }
+
+    private void bet(Game game, Player player, double amount, Game.PlayerAction action) {
+        player.placeBet(amount);
+        game.addToPot(amount);
+        double total = game.getCurrentBettingRound().getBets().getOrDefault(player.getId(), 0.0) + amount;
+        game.getCurrentBettingRound().getBets().put(player.getId(), total);
+        game.setCurrentBet(Math.max(game.getCurrentBet(), total));
+        game.getLastActions().put(player.getUsername(), action);
+        game.moveToNextPlayer();
+        record(new PlayerActionEvent(game.getId(), player, PlayerActionEvent.ActionType.BET, amount, new Game(game)));
+    }
+
+    @Test
+    void replayingDeltasRebuildsTheHand() {
+        Game game = new Game(10, 20);
+        record(new GameCreatedEvent(game.getId(), new Game(game)));
+        for (int seat = 0; seat < 3; seat++) {
+            Player player = new Player("Player " + seat, "player" + seat, 1000);
+            game.getPlayers().add(player);
+            record(new PlayerJoinedEvent(game.getId(), new Player(player)));
+        }
+        List<Player> players = game.getPlayers();
+
+        game.resetForNewHand();
+        game.setStatus(Game.GameStatus.STARTING);
+        record(new GameStartedEvent(game.getId(), new Game(game)));
+
+        Map<String, List<Card>> hands = new HashMap<>();
+        for (Player player : players) {
+            player.addCard(game.getDeck().drawCard());
+            player.addCard(game.getDeck().drawCard());
+            hands.put(player.getId(), new ArrayList<>(player.getHand()));
+        }
+        record(new CardsDealtEvent(game.getId(), hands));
+
+        // Dealer is seat 1 after the rotation: seat 2 posts the small blind, seat 0 the big
+        players.get(2).placeBet(10);
+        players.get(0).placeBet(20);
+        game.addToPot(30);
+        game.getCurrentBettingRound().setRoundType(BettingRound.RoundType.PRE_FLOP);
+        game.getCurrentBettingRound().getBets().put(players.get(2).getId(), 10.0);
+        game.getCurrentBettingRound().getBets().put(players.get(0).getId(), 20.0);
+        game.setCurrentBet(20);
+        game.setStatus(Game.GameStatus.PRE_FLOP_BETTING);
+        game.setCurrentPlayerIndex(1);
+        record(new RoundStartedEvent(game.getId(), new Game(game), BettingRound.RoundType.PRE_FLOP));
+
+        bet(game, players.get(1), 60, Game.PlayerAction.RAISE);
+        bet(game, players.get(2), 50, Game.PlayerAction.CALL);
+        players.get(0).setHasFolded(true);
+        players.get(0).setActive(false);
+        game.getLastActions().put(players.get(0).getUsername(), Game.PlayerAction.FOLD);
+        game.moveToNextPlayer();
+        record(new PlayerActionEvent(game.getId(), players.get(0), PlayerActionEvent.ActionType.FOLD, null,
+                new Game(game)));
+
+        for (int i = 0; i < 3; i++) {
+            game.getCommunityCards().add(game.getDeck().drawCard());
+        }
+        record(new CardsDealtEvent(game.getId(), CardsDealtEvent.DealType.FLOP,
+                new ArrayList<>(game.getCommunityCards())));
+        game.setupNextRound();
+        game.getCurrentBettingRound().setRoundType(BettingRound.RoundType.FLOP);
+        game.setStatus(Game.GameStatus.FLOP_BETTING);
+        record(new RoundStartedEvent(game.getId(), new Game(game), BettingRound.RoundType.FLOP));
+        bet(game, players.get(2), 0, Game.PlayerAction.CHECK);
+
+        players.get(1).awardPot(game.getPot());
+        game.setStatus(Game.GameStatus.SHOWDOWN);
+        record(new GameEndedEvent(game.getId(), new Game(game), List.of(players.get(1)), null));
+
+        Game replayed = null;
+        for (GameEvent record : journal) {
+            replayed = GameReplayService.applyDelta(replayed, record);
+        }
+
+        assertEquals(game.getId(), replayed.getId());
+        assertEquals(game.getBigBlindAmount(), replayed.getBigBlindAmount());
+        assertEquals(game.getStatus(), replayed.getStatus());
+        assertEquals(game.getPot(), replayed.getPot());
+        assertEquals(game.getDealerPosition(), replayed.getDealerPosition());
+        assertEquals(game.getCommunityCards(), replayed.getCommunityCards());
+        for (int seat = 0; seat < 3; seat++) {
+            Player expected = players.get(seat);
+            Player actual = replayed.getPlayers().get(seat);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getUsername(), actual.getUsername());
+            assertEquals(expected.getChips(), actual.getChips());
+            assertEquals(expected.isHasFolded(), actual.isHasFolded());
+            assertEquals(expected.getLastWinAmount(), actual.getLastWinAmount());
+            assertEquals(expected.getHand(), actual.getHand());
+        }
+    }
+
+    @Test
+    void actionRecordIsAnOrderOfMagnitudeSmallerThanTheSnapshot() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Game game = new Game(10, 20);
+        for (int seat = 0; seat < 6; seat++) {
+            Player player = new Player("Player " + seat, "player" + seat, 1000);
+            player.addCard(game.getDeck().drawCard());
+            player.addCard(game.getDeck().drawCard());
+            game.getPlayers().add(player);
+        }
+        for (int i = 0; i < 3; i++) {
+            game.getCommunityCards().add(game.getDeck().drawCard());
+        }
+        game.setStatus(Game.GameStatus.FLOP_BETTING);
+        Player actor = game.getPlayers().get(2);
+        actor.placeBet(40);
+        game.addToPot(40);
+        game.getLastActions().put(actor.getUsername(), Game.PlayerAction.RAISE);
+        PlayerActionEvent event = new PlayerActionEvent(game.getId(), actor, PlayerActionEvent.ActionType.BET, 40.0,
+                new Game(game));
+
+        GameEvent snapshot = new GameEvent();
+        snapshot.setGameId(game.getId());
+        snapshot.setTimestamp(event.getTimestamp());
+        snapshot.setEventType("PlayerActionEvent");
+        snapshot.setEventData(event);
+        GameEvent compact = new GameEvent();
+        compact.setGameId(game.getId());
+        compact.setSeq(42);
+        compact.setTimestamp(event.getTimestamp());
+        compact.setEventType("PlayerActionEvent");
+        compact.setDelta(GameEventEncoder.deltaOf(event));
+
+        int snapshotBytes = bsonSize(converter, snapshot);
+        int compactBytes = bsonSize(converter, compact);
+        assertTrue(compactBytes * 10 <= snapshotBytes,
+                "compact record is " + compactBytes + " bytes, snapshot " + snapshotBytes);
+    }
+
+    private static int bsonSize(MappingMongoConverter converter, GameEvent record) {
+        Document document = new Document();
+        converter.write(record, document);
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameEvent;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameEventJournalTest {
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    private static GameEvent event(int i) {
+        GameEvent event = new GameEvent();
+        event.setGameId("g1");
+        event.setEventType("E" + i);
+        return event;
+    }
+
+    private static List<String> types(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "E" + i).toList();
+    }
+
+    private MongoTemplate recordingTemplate(CountDownLatch release) {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        doAnswer(inv -> {
+            release.await(10, TimeUnit.SECONDS);
+            Collection<GameEvent> batch = inv.getArgument(0);
+            synchronized (batches) {
+                batches.add(batch.stream().map(GameEvent::getEventType).toList());
+            }
+            return batch;
+        }).when(mongoTemplate).insert(anyCollection(), eq(GameEventJournal.COLLECTION));
+        return mongoTemplate;
+    }
+
+    @Test
+    void writesInOrderInBoundedBatchesAndDrainsOnShutdown() {
+        GameEventJournal journal = new GameEventJournal(recordingTemplate(new CountDownLatch(0)),
+                1000, 50, 10, 100, GameEventJournal.OverflowPolicy.BLOCK, 3, 1);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(journal.append(event(i)));
+        }
+        journal.shutdown();
+
+        List<String> written = new ArrayList<>();
+        batches.forEach(batch -> {
+            assertTrue(batch.size() <= 50);
+            written.addAll(batch);
+        });
+        assertEquals(500, written.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("E" + i, written.get(i));
+        }
+    }
+
+    @Test
+    void dropNewestRejectsEventsOnceTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        GameEventJournal journal = new GameEventJournal(recordingTemplate(release),
+                10, 10, 60_000, 0, GameEventJournal.OverflowPolicy.DROP_NEWEST, 3, 1);
+        try {
+            // A full batch wakes the drainer, which then blocks inside the insert
+            for (int i = 0; i < 10; i++) {
+                assertTrue(journal.append(event(i)));
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (journal.queueDepth() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            for (int i = 10; i < 20; i++) {
+                assertTrue(journal.append(event(i)));
+            }
+            assertFalse(journal.append(event(20)));
+        } finally {
+            release.countDown();
+            journal.shutdown();
+        }
+
+        assertEquals(20, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void aPurgeWaitsForTheEventsAppendedBeforeIt() {
+        MongoTemplate mongoTemplate = recordingTemplate(new CountDownLatch(0));
+        List<String> removed = new ArrayList<>();
+        doAnswer(inv -> {
+            synchronized (batches) {
+                removed.add(batches.stream().mapToInt(List::size).sum() + " written");
+            }
+            return null;
+        }).when(mongoTemplate).remove(any(Query.class), eq(GameEventJournal.COLLECTION));
+        GameEventJournal journal = new GameEventJournal(mongoTemplate,
+                100, 50, 60_000, 100, GameEventJournal.OverflowPolicy.BLOCK, 3, 1);
+        for (int i = 0; i < 5; i++) {
+            journal.append(event(i));
+        }
+        journal.purge(List.of("g1"));
+        journal.purge(List.of("g2"));
+        journal.append(event(5));
+        journal.shutdown();
+
+        // Both purges go out together, after the events queued ahead of them
+        assertEquals(List.of("5 written"), removed);
+        assertEquals(List.of(List.of("E0", "E1", "E2", "E3", "E4"), List.of("E5")), batches);
+    }
+
+    @Test
+    void dropOldestEvictsEventsButNeverAPurge() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MongoTemplate mongoTemplate = recordingTemplate(release);
+        List<String> removed = new ArrayList<>();
+        doAnswer(inv -> {
+            synchronized (batches) {
+                removed.add(batches.stream().mapToInt(List::size).sum() + " written");
+            }
+            return null;
+        }).when(mongoTemplate).remove(any(Query.class), eq(GameEventJournal.COLLECTION));
+        GameEventJournal journal = new GameEventJournal(mongoTemplate,
+                10, 10, 60_000, 0, GameEventJournal.OverflowPolicy.DROP_OLDEST, 3, 1);
+        try {
+            // A full batch wakes the drainer, which then blocks inside the insert
+            for (int i = 0; i < 10; i++) {
+                assertTrue(journal.append(event(i)));
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (journal.queueDepth() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            for (int i = 10; i < 15; i++) {
+                assertTrue(journal.append(event(i)));
+            }
+            journal.purge(List.of("g1"));
+            for (int i = 15; i < 20; i++) {
+                assertTrue(journal.append(event(i)));
+            }
+            // Each of these evicts the oldest event; the purge at the head goes back in line instead
+            for (int i = 20; i < 26; i++) {
+                assertTrue(journal.append(event(i)));
+            }
+            assertEquals(10, journal.queueDepth());
+        } finally {
+            release.countDown();
+            journal.shutdown();
+        }
+
+        assertEquals(List.of("19 written"), removed);
+        assertEquals(List.of(types(0, 10), types(16, 25), types(25, 26)), batches);
+    }
+
+    @Test
+    void aTransientFailureIsRetriedBeforeTheBatchIsDropped() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(inv -> {
+            if (calls.getAndIncrement() < 2) {
+                throw new DataAccessResourceFailureException("primary stepped down");
+            }
+            Collection<GameEvent> batch = inv.getArgument(0);
+            synchronized (batches) {
+                batches.add(batch.stream().map(GameEvent::getEventType).toList());
+            }
+            return batch;
+        }).when(mongoTemplate).insert(anyCollection(), eq(GameEventJournal.COLLECTION));
+        GameEventJournal journal = new GameEventJournal(mongoTemplate,
+                100, 10, 10, 100, GameEventJournal.OverflowPolicy.BLOCK, 3, 1);
+        for (int i = 0; i < 10; i++) {
+            journal.append(event(i));
+        }
+        journal.shutdown();
+
+        assertEquals(3, calls.get());
+        assertEquals(List.of(List.of("E0", "E1", "E2", "E3", "E4", "E5", "E6", "E7", "E8", "E9")), batches);
+    }
+
+    @Test
+    void aDuplicateKeyRewritesTheBatchUnorderedAndKeepsTheRest() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.insert(anyCollection(), eq(GameEventJournal.COLLECTION)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GameEventJournal.COLLECTION)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+        // The first event is already stored; the other four land
+        BulkWriteResult result = BulkWriteResult.acknowledged(4, 0, 0, 0, List.of(), List.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("duplicate",
+                new MongoBulkWriteException(result,
+                        List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)),
+                        null, new ServerAddress(), Set.of())));
+        GameEventJournal journal = new GameEventJournal(mongoTemplate,
+                100, 5, 10, 100, GameEventJournal.OverflowPolicy.BLOCK, 3, 1);
+        for (int i = 0; i < 5; i++) {
+            journal.append(event(i));
+        }
+        journal.shutdown();
+
+        // Nothing is left to retry
+        verify(bulk, times(1)).execute();
+    }
+}
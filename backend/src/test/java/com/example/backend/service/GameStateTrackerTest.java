@@ -0,0 +1,138 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.GameUpdate;
+import com.example.backend.model.Player;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameStateTrackerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final GameViewRenderer renderer = new GameViewRenderer(objectMapper);
+    private final GameService gameService = mock(GameService.class);
+
+    private static Game table() {
+        Game game = new Game(10, 20);
+        game.setId("g1");
+        game.setDeck(null);
+        for (int i = 0; i < 6; i++) {
+            game.getPlayers().add(new Player("p" + i, "user-" + i, 1000));
+        }
+        return game;
+    }
+
+    private static GameUpdate update(GameUpdate.GameUpdateType type, Object payload) {
+        return GameUpdate.builder().gameId("g1").type(type).payload(payload).build();
+    }
+
+    private static List<GameUpdate> collect(Flux<GameUpdate> updates) {
+        List<GameUpdate> received = new ArrayList<>();
+        updates.subscribe(received::add);
+        return received;
+    }
+
+    @Test
+    void patchesRebuildTheTableFromTheSnapshot() throws Exception {
+        GameBroadcastHub hub = new GameBroadcastHub(64, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 64);
+        GameStateTracker tracker = new GameStateTracker(hub, renderer, gameService);
+        Game game = table();
+        tracker.publish(update(GameUpdate.GameUpdateType.GAME_STARTED, new Game(game)));
+
+        List<GameUpdate> received = collect(tracker.updates("g1"));
+        List<GameUpdate> full = collect(hub.gameUpdates("g1"));
+        for (int i = 0; i < 6; i++) {
+            game.getPlayers().get(i).setChips(1000 - 10 * (i + 1));
+            game.setPot(game.getPot() + 10 * (i + 1));
+            tracker.publish(update(GameUpdate.GameUpdateType.PLAYER_ACTION, new Game(game)));
+        }
+        tracker.publish(update(GameUpdate.GameUpdateType.CHAT_MESSAGE, "gg"));
+        tracker.publish(update(GameUpdate.GameUpdateType.GAME_ENDED,
+                Map.of("game", new Game(game), "winners", List.of("p0"))));
+
+        GameUpdate snapshot = received.get(0);
+        assertEquals(GameUpdate.GameUpdateType.SNAPSHOT, snapshot.getType());
+        assertEquals(1L, snapshot.getVersion());
+        JsonNode state = (JsonNode) snapshot.getPayload();
+        long version = snapshot.getVersion();
+        for (GameUpdate delta : received.subList(1, received.size())) {
+            if (delta.getPatch() == null) {
+                assertEquals("\"gg\"", ((RawValue) delta.getPayload()).rawValue());
+                assertEquals(version, delta.getVersion());
+                continue;
+            }
+            assertEquals(version, delta.getBaseVersion());
+            state = GameStateDiff.apply(state, (JsonNode) delta.getPatch());
+            version = delta.getVersion();
+        }
+        assertEquals(objectMapper.valueToTree(new Game(game)), state);
+        assertEquals(8L, version);
+
+        // A bet touches the player and the pot, not the rest of the table
+        JsonNode bet = (JsonNode) received.get(2).getPatch();
+        assertEquals(2, bet.size());
+        assertEquals("/players/1/chips", bet.get(0).get("path").asText());
+        RawValue winners = (RawValue) received.get(received.size() - 1).getPayload();
+        assertEquals("{\"winners\":[\"p0\"]}", winners.rawValue());
+        // The full stream carries the whole view, encoded once
+        assertEquals(8, full.size());
+        assertEquals(objectMapper.valueToTree(new Game(game)),
+                objectMapper.readTree((String) ((RawValue) full.get(7).getPayload()).rawValue()).get("game"));
+        assertNull(full.get(0).getVersion());
+    }
+
+    @Test
+    void patchesAlreadyInTheSnapshotAreSkipped() {
+        GameBroadcastHub hub = new GameBroadcastHub(64, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 64);
+        GameStateTracker tracker = new GameStateTracker(hub, renderer, gameService);
+        Game game = table();
+        tracker.publish(update(GameUpdate.GameUpdateType.GAME_STARTED, new Game(game)));
+
+        // Publishes while the subscriber is registered but before its snapshot is read
+        List<GameUpdate> received = collect(hub.deltaUpdates("g1", () -> {
+            game.setPot(30);
+            tracker.publish(update(GameUpdate.GameUpdateType.PLAYER_ACTION, new Game(game)));
+            return tracker.resync("g1");
+        }));
+        game.setPot(60);
+        tracker.publish(update(GameUpdate.GameUpdateType.PLAYER_ACTION, new Game(game)));
+
+        assertEquals(2, received.size());
+        assertEquals(2L, received.get(0).getVersion());
+        assertEquals(2L, received.get(1).getBaseVersion());
+    }
+
+    @Test
+    void resyncReadsATableNotYetSeen() {
+        GameBroadcastHub hub = new GameBroadcastHub(64, GameBroadcastHub.SlowConsumerPolicy.DROP_OLDEST, 64);
+        GameStateTracker tracker = new GameStateTracker(hub, renderer, gameService);
+        Game game = table();
+        when(gameService.getGameForPlayer("g1", null)).thenReturn(game);
+
+        GameUpdate snapshot = tracker.resync("g1");
+        assertEquals(1L, snapshot.getVersion());
+        assertEquals(objectMapper.valueToTree(game), snapshot.getPayload());
+
+        game.setPot(30);
+        List<GameUpdate> received = collect(tracker.updates("g1"));
+        tracker.publish(update(GameUpdate.GameUpdateType.PLAYER_ACTION, new Game(game)));
+        assertEquals(1L, received.get(1).getBaseVersion());
+        assertEquals(2L, tracker.resync("g1").getVersion());
+
+        tracker.close("g1");
+        hub.close("g1");
+        assertEquals(1L, tracker.resync("g1").getVersion());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.backend.service;
+
+import com.example.backend.config.MongoConfig;
+import com.example.backend.entity.Game;
+import com.example.backend.model.Player;
+import com.example.backend.repository.GameRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameTableRegistryTest {
+
+    private GameRepository gameRepository;
+    private MongoTemplate mongoTemplate;
+    private GameTableRegistry gameTables;
+    private String gameId;
+
+    @BeforeEach
+    void setUp() {
+        Game seed = new Game(10, 20);
+        for (int i = 0; i < 3; i++) {
+            seed.getPlayers().add(new Player("Player " + i, "player" + i, 1000));
+        }
+        gameId = seed.getId();
+
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        gameRepository = mock(GameRepository.class);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(seed));
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Game.class)).thenReturn("games");
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), anyString()))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Flushes only happen when asked for
+        gameTables = new GameTableRegistry(gameRepository, mongoTemplate, 60_000, 3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameTables.shutdown();
+    }
+
+    @Test
+    void rejectedActionKeepsEarlierUnflushedActions() {
+        setChips(0, 900);
+        flush();
+        setChips(1, 850);
+
+        RuntimeException rejected = assertThrows(IllegalArgumentException.class, () -> gameTables.run(gameId, () -> {
+            Game game = gameTables.load(gameId);
+            game.getPlayers().get(2).setChips(0);
+            gameTables.save(game);
+            throw new IllegalArgumentException("Not player's turn");
+        }));
+        assertEquals("Not player's turn", rejected.getMessage());
+
+        List<Double> chips = gameTables.call(gameId, () ->
+                gameTables.load(gameId).getPlayers().stream().map(Player::getChips).toList());
+        assertEquals(List.of(900.0, 850.0, 1000.0), chips);
+
+        flush();
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), updates.capture(), eq("games"));
+        Document set = updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class);
+        assertEquals(850.0, set.get("players.1.chips"));
+        assertFalse(set.containsKey("players.2.chips"));
+        // Rolled back in memory, not reloaded
+        verify(gameRepository, times(1)).findById(gameId);
+    }
+
+    @Test
+    void rejectedActionOnCleanGameRestoresLastFlush() {
+        setChips(0, 900);
+        flush();
+
+        assertThrows(IllegalStateException.class, () -> gameTables.run(gameId, () -> {
+            Game game = gameTables.load(gameId);
+            game.getPlayers().get(0).setChips(0);
+            throw new IllegalStateException("Insufficient bet amount");
+        }));
+
+        double chips = gameTables.call(gameId, () -> gameTables.load(gameId).getPlayers().get(0).getChips());
+        assertEquals(900.0, chips);
+        verify(gameRepository, times(1)).findById(gameId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rewriteAfterFailedWriteIsGuardedByStoredVersion() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection("games")).thenReturn(collection);
+        when(collection.replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), anyString()))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        setChips(0, 900);
+        flush();
+        // The failed write never reached Mongo, so the rewrite still expects version 0
+        setChips(0, 800);
+        assertThrows(OptimisticLockingFailureException.class, this::flush);
+
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        ArgumentCaptor<ReplaceOptions> options = ArgumentCaptor.forClass(ReplaceOptions.class);
+        verify(collection).replaceOne(filter.capture(), any(Document.class), options.capture());
+        assertFalse(options.getValue().isUpsert());
+        assertEquals(Filters.and(Filters.eq("_id", gameId), Filters.in("version", 0L, null)).toBsonDocument(),
+                filter.getValue().toBsonDocument());
+
+        // Nothing matched: someone else moved or deleted the game, so the table reloads
+        gameTables.run(gameId, () -> gameTables.load(gameId));
+        verify(gameRepository, times(2)).findById(gameId);
+    }
+
+    private void setChips(int seat, double chips) {
+        gameTables.run(gameId, () -> {
+            Game game = gameTables.load(gameId);
+            game.getPlayers().get(seat).setChips(chips);
+            gameTables.save(game);
+        });
+    }
+
+    private void flush() {
+        gameTables.run(gameId, () -> gameTables.flush(gameTables.load(gameId)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.GameUpdate;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GameUpdateConflatorTest {
+
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final GameStateTracker stateTracker = mock(GameStateTracker.class);
+
+    private static GameUpdate update(GameUpdate.GameUpdateType type, Object payload) {
+        return GameUpdate.builder().gameId("g1").type(type).payload(payload).build();
+    }
+
+    private static GameUpdate action() {
+        return update(GameUpdate.GameUpdateType.PLAYER_ACTION, new Game(10, 20));
+    }
+
+    private Runnable windowEnd(int times) {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(times)).schedule(task.capture(), any(Instant.class));
+        return task.getValue();
+    }
+
+    @Test
+    void burstsCollapseToTheLatestTableAndEndedIsNeverHeld() {
+        doReturn(mock(ScheduledFuture.class)).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        GameUpdateConflator conflator = new GameUpdateConflator(30, taskScheduler, stateTracker);
+        GameUpdate first = action();
+        GameUpdate second = action();
+        GameUpdate board = update(GameUpdate.GameUpdateType.COMMUNITY_CARDS, List.of());
+        GameUpdate third = action();
+        GameUpdate ended = update(GameUpdate.GameUpdateType.GAME_ENDED, null);
+
+        // A quiet table sends at once
+        conflator.publish(first);
+        verify(stateTracker).publish(first);
+
+        conflator.publish(second);
+        conflator.publish(board);
+        conflator.publish(third);
+        conflator.publish(ended);
+
+        InOrder order = inOrder(stateTracker);
+        order.verify(stateTracker).publish(first);
+        order.verify(stateTracker).publish(third);
+        order.verify(stateTracker).publish(ended);
+        verify(stateTracker, never()).publish(second);
+        verify(stateTracker, never()).publish(board);
+
+        // Nothing left when the window ends, so the table is quiet again
+        windowEnd(1).run();
+        GameUpdate next = action();
+        conflator.publish(next);
+        verify(stateTracker).publish(next);
+    }
+
+    @Test
+    void aWindowThatEndsBusySendsWhatIsHeldAndOpensAnother() {
+        doReturn(mock(ScheduledFuture.class)).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        GameUpdateConflator conflator = new GameUpdateConflator(30, taskScheduler, stateTracker);
+        conflator.publish(action());
+        GameUpdate board = update(GameUpdate.GameUpdateType.COMMUNITY_CARDS, List.of());
+        GameUpdate round = update(GameUpdate.GameUpdateType.ROUND_STARTED, new Game(10, 20));
+        conflator.publish(round);
+        conflator.publish(board);
+
+        windowEnd(1).run();
+
+        InOrder order = inOrder(stateTracker);
+        order.verify(stateTracker).publish(round);
+        order.verify(stateTracker).publish(board);
+        windowEnd(2);
+
+        // A private update goes out behind what is held
+        GameUpdate last = action();
+        conflator.publish(last);
+        verify(stateTracker, never()).publish(last);
+        conflator.flush("g1");
+        verify(stateTracker).publish(last);
+    }
+
+    @Test
+    void withoutAWindowEveryUpdateGoesStraightThrough() {
+        GameUpdateConflator conflator = new GameUpdateConflator(0, taskScheduler, stateTracker);
+        GameUpdate first = action();
+        GameUpdate second = action();
+
+        conflator.publish(first);
+        conflator.publish(second);
+
+        verify(stateTracker).publish(first);
+        verify(stateTracker).publish(second);
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+}
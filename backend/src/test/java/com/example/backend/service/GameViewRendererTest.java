@@ -0,0 +1,60 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.model.Card;
+import com.example.backend.model.Player;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameViewRendererTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final GameViewRenderer renderer = new GameViewRenderer(objectMapper);
+
+    private static Game table(Game.GameStatus status) {
+        Game game = new Game(10, 20);
+        Player alice = new Player("alice", "alice", 1000);
+        alice.getHand().add(Card.of(Card.Suit.SPADES, Card.Rank.ACE));
+        game.getPlayers().add(alice);
+        game.setStatus(status);
+        return game;
+    }
+
+    private JsonNode decode(GameViewRenderer.View view) throws Exception {
+        return objectMapper.readTree((String) view.encoded().rawValue());
+    }
+
+    @Test
+    void hidesHandsAndTheDeckWithoutTouchingTheGame() throws Exception {
+        Game game = table(Game.GameStatus.FLOP_BETTING);
+
+        GameViewRenderer.View view = renderer.render(game);
+
+        assertTrue(view.state().path("players").get(0).path("hand").isEmpty());
+        assertTrue(view.state().path("deck").isNull());
+        assertEquals(view.state(), decode(view));
+        assertNull(view.rest());
+        // The event's game keeps its hand and deck
+        assertEquals(1, game.getPlayers().get(0).getHand().size());
+        assertTrue(game.getDeck() != null);
+    }
+
+    @Test
+    void showsHandsAtShowdownAndSplitsTheRestOfAMap() throws Exception {
+        Game game = table(Game.GameStatus.SHOWDOWN);
+
+        GameViewRenderer.View view = renderer.render(Map.of("game", game, "winners", List.of("alice")));
+
+        assertEquals(1, view.state().path("players").get(0).path("hand").size());
+        assertEquals(view.state(), decode(view).get("game"));
+        assertEquals("{\"winners\":[\"alice\"]}", view.rest().rawValue());
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Card;
+import com.example.backend.model.CardMask;
+import com.example.backend.model.HandResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandEvaluatorTest {
+
+    private final HandEvaluator handEvaluator = new HandEvaluator();
+
+    /**
+     * Every 5-card hand must order exactly as the previous list-based evaluator ordered it.
+     * The reference reproduces that evaluator's rules with its two known defects fixed:
+     * a royal flush was reported as FLUSH, and the wheel (A-2-3-4-5) outranked a six-high straight.
+     */
+    @Test
+    void fiveCardStrengthsOrderLikeReferenceEvaluator() {
+        Map<Long, Integer> strengthByReference = new HashMap<>();
+        Map<Integer, Long> referenceByStrength = new HashMap<>();
+        int[] cards = new int[5];
+
+        for (cards[0] = 0; cards[0] < 52; cards[0]++)
+            for (cards[1] = cards[0] + 1; cards[1] < 52; cards[1]++)
+                for (cards[2] = cards[1] + 1; cards[2] < 52; cards[2]++)
+                    for (cards[3] = cards[2] + 1; cards[3] < 52; cards[3]++)
+                        for (cards[4] = cards[3] + 1; cards[4] < 52; cards[4]++) {
+                            long reference = referenceKey(cards);
+                            int strength = HandEvaluator.evaluate(maskOf(cards));
+                            Integer previous = strengthByReference.putIfAbsent(reference, strength);
+                            assertTrue(previous == null || previous == strength,
+                                    "Reference-equal hands scored differently: " + Arrays.toString(cards));
+                            Long previousReference = referenceByStrength.putIfAbsent(strength, reference);
+                            assertTrue(previousReference == null || previousReference == reference,
+                                    "Reference-distinct hands scored equal: " + Arrays.toString(cards));
+                        }
+
+        // 7462 distinct five-card hand classes exist
+        assertEquals(7462, strengthByReference.size());
+
+        int previousStrength = Integer.MIN_VALUE;
+        for (int strength : new TreeMap<>(strengthByReference).values()) {
+            assertTrue(strength > previousStrength, "Strength order diverges from reference order");
+            previousStrength = strength;
+        }
+    }
+
+    /**
+     * Every 7-card hand must score as the best of its 21 five-card subsets, which is how the
+     * previous evaluator picked a hand; category counts must match the known distribution.
+     */
+    @Test
+    void sevenCardStrengthIsBestFiveCardSubset() {
+        long[] categoryCounts = new long[HandResult.HandRank.values().length];
+        long[] masks = new long[7];
+
+        for (int a = 0; a < 52; a++)
+            for (int b = a + 1; b < 52; b++)
+                for (int c = b + 1; c < 52; c++)
+                    for (int d = c + 1; d < 52; d++)
+                        for (int e = d + 1; e < 52; e++)
+                            for (int f = e + 1; f < 52; f++)
+                                for (int g = f + 1; g < 52; g++) {
+                                    masks[0] = 1L << a; masks[1] = 1L << b; masks[2] = 1L << c;
+                                    masks[3] = 1L << d; masks[4] = 1L << e; masks[5] = 1L << f;
+                                    masks[6] = 1L << g;
+                                    long hand = masks[0] | masks[1] | masks[2] | masks[3]
+                                            | masks[4] | masks[5] | masks[6];
+
+                                    int best = Integer.MIN_VALUE;
+                                    for (int skip1 = 0; skip1 < 7; skip1++) {
+                                        for (int skip2 = skip1 + 1; skip2 < 7; skip2++) {
+                                            best = Math.max(best,
+                                                    HandEvaluator.evaluate(hand & ~masks[skip1] & ~masks[skip2]));
+                                        }
+                                    }
+
+                                    int strength = HandEvaluator.evaluate(hand);
+                                    if (strength != best) {
+                                        assertEquals(best, strength, "Mismatch for mask " + Long.toHexString(hand));
+                                    }
+                                    categoryCounts[HandEvaluator.rankOf(strength).ordinal()]++;
+                                }
+
+        assertEquals(23_294_460L, categoryCounts[HandResult.HandRank.HIGH_CARD.ordinal()]);
+        assertEquals(58_627_800L, categoryCounts[HandResult.HandRank.ONE_PAIR.ordinal()]);
+        assertEquals(31_433_400L, categoryCounts[HandResult.HandRank.TWO_PAIR.ordinal()]);
+        assertEquals(6_461_620L, categoryCounts[HandResult.HandRank.THREE_OF_A_KIND.ordinal()]);
+        assertEquals(6_180_020L, categoryCounts[HandResult.HandRank.STRAIGHT.ordinal()]);
+        assertEquals(4_047_644L, categoryCounts[HandResult.HandRank.FLUSH.ordinal()]);
+        assertEquals(3_473_184L, categoryCounts[HandResult.HandRank.FULL_HOUSE.ordinal()]);
+        assertEquals(224_848L, categoryCounts[HandResult.HandRank.FOUR_OF_A_KIND.ordinal()]);
+        assertEquals(37_260L, categoryCounts[HandResult.HandRank.STRAIGHT_FLUSH.ordinal()]);
+        assertEquals(4_324L, categoryCounts[HandResult.HandRank.ROYAL_FLUSH.ordinal()]);
+    }
+
+    @Test
+    void handResultListsCardsInTieBreakOrder() {
+        List<Card> hole = List.of(card(Card.Rank.FIVE, Card.Suit.HEARTS), card(Card.Rank.ACE, Card.Suit.CLUBS));
+        List<Card> board = List.of(
+                card(Card.Rank.TWO, Card.Suit.SPADES),
+                card(Card.Rank.THREE, Card.Suit.DIAMONDS),
+                card(Card.Rank.FOUR, Card.Suit.HEARTS),
+                card(Card.Rank.KING, Card.Suit.CLUBS),
+                card(Card.Rank.KING, Card.Suit.SPADES));
+
+        HandResult result = handEvaluator.evaluateHand(hole, board);
+
+        assertEquals(HandResult.HandRank.STRAIGHT, result.getRank());
+        assertEquals(List.of(Card.Rank.FIVE, Card.Rank.FOUR, Card.Rank.THREE, Card.Rank.TWO, Card.Rank.ACE),
+                result.getHighCards().stream().map(Card::getRank).toList());
+    }
+
+    @Test
+    void handResultCardsScoreAsTheHand() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long hand = 0L;
+            while (Long.bitCount(hand) < 7) {
+                hand |= 1L << random.nextInt(52);
+            }
+            int strength = HandEvaluator.evaluate(hand);
+
+            HandResult result = handEvaluator.toHandResult(strength, hand);
+
+            assertEquals(5, result.getHighCards().size());
+            assertEquals(strength, HandEvaluator.evaluate(CardMask.of(result.getHighCards())));
+        }
+    }
+
+    private static Card card(Card.Rank rank, Card.Suit suit) {
+        return Card.of(suit, rank);
+    }
+
+    private static long maskOf(int[] cards) {
+        long mask = 0L;
+        for (int card : cards) {
+            mask |= 1L << card;
+        }
+        return mask;
+    }
+
+    // Category and high-card values in the order the previous evaluator listed them
+    private static long referenceKey(int[] cards) {
+        int[] values = new int[5];
+        int[] suits = new int[5];
+        for (int i = 0; i < 5; i++) {
+            values[i] = cards[i] % 13 + 2;
+            suits[i] = cards[i] / 13;
+        }
+        // Sort by rank descending
+        Integer[] order = {0, 1, 2, 3, 4};
+        Arrays.sort(order, (x, y) -> values[y] - values[x]);
+        int[] sorted = new int[5];
+        for (int i = 0; i < 5; i++) {
+            sorted[i] = values[order[i]];
+        }
+
+        boolean flush = Arrays.stream(suits).allMatch(s -> s == suits[0]);
+        boolean wheel = sorted[0] == 14 && sorted[1] == 5 && sorted[2] == 4 && sorted[3] == 3 && sorted[4] == 2;
+        boolean straight = wheel;
+        if (!wheel) {
+            straight = true;
+            for (int i = 0; i < 4; i++) {
+                if (sorted[i] != sorted[i + 1] + 1) {
+                    straight = false;
+                }
+            }
+        }
+        if (wheel) {
+            sorted = new int[]{5, 4, 3, 2, 1};
+        }
+
+        int[] counts = new int[15];
+        for (int value : sorted) {
+            counts[value]++;
+        }
+        // Cards grouped by count descending, then rank descending
+        int[] grouped = new int[5];
+        int next = 0;
+        for (int count = 4; count >= 1; count--) {
+            for (int value = 14; value >= 1; value--) {
+                if (counts[value] == count) {
+                    for (int i = 0; i < count; i++) {
+                        grouped[next++] = value;
+                    }
+                }
+            }
+        }
+        int topCount = counts[grouped[0]];
+        int secondCount = topCount < 4 ? counts[grouped[topCount]] : 0;
+
+        HandResult.HandRank rank;
+        int[] highCards = grouped;
+        if (flush && straight && sorted[0] == 14) {
+            rank = HandResult.HandRank.ROYAL_FLUSH;
+            highCards = sorted;
+        } else if (flush && straight) {
+            rank = HandResult.HandRank.STRAIGHT_FLUSH;
+            highCards = sorted;
+        } else if (topCount == 4) {
+            rank = HandResult.HandRank.FOUR_OF_A_KIND;
+        } else if (topCount == 3 && secondCount == 2) {
+            rank = HandResult.HandRank.FULL_HOUSE;
+        } else if (flush) {
+            rank = HandResult.HandRank.FLUSH;
+            highCards = sorted;
+        } else if (straight) {
+            rank = HandResult.HandRank.STRAIGHT;
+            highCards = sorted;
+        } else if (topCount == 3) {
+            rank = HandResult.HandRank.THREE_OF_A_KIND;
+        } else if (topCount == 2 && secondCount == 2) {
+            rank = HandResult.HandRank.TWO_PAIR;
+        } else if (topCount == 2) {
+            rank = HandResult.HandRank.ONE_PAIR;
+        } else {
+            rank = HandResult.HandRank.HIGH_CARD;
+        }
+
+        long key = rank.ordinal();
+        for (int value : highCards) {
+            key = key << 4 | value;
+        }
+        return key;
+    }
+}
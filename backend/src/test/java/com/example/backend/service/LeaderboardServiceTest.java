@@ -0,0 +1,138 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.entity.LeaderboardSnapshot;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.model.LeaderboardEntry;
+import com.example.backend.model.LeaderboardMetric;
+import com.example.backend.model.LeaderboardPage;
+import com.example.backend.model.LeaderboardWindow;
+import com.example.backend.model.Player;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LeaderboardServiceTest {
+
+    private static final OffsetDateTime MONDAY = OffsetDateTime.of(2026, 10, 12, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private static GameEndedEvent hand(String winner, double won, String... losers) {
+        Game game = new Game(10, 20);
+        Player winning = new Player(winner, winner, 1000);
+        winning.setLastWinAmount(won);
+        game.getPlayers().add(winning);
+        for (String loser : losers) {
+            game.getPlayers().add(new Player(loser, loser, 1000));
+        }
+        return new GameEndedEvent("t1", game, List.of(new Player(winning)), null);
+    }
+
+    @Test
+    void rankedScoresMatchASortedList() {
+        Random random = new Random(7);
+        RankedScores scores = new RankedScores();
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            String key = "user-" + random.nextInt(300);
+            long delta = random.nextInt(100) - 20;
+            scores.add(key, delta);
+            expected.merge(key, delta, Long::sum);
+            if (random.nextInt(50) == 0) {
+                scores.remove(key);
+                expected.remove(key);
+            }
+        }
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<String, Long>>comparingLong(e -> -e.getValue())
+                .thenComparing(Map.Entry::getKey));
+        assertEquals(sorted.size(), scores.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, scores.rank(sorted.get(i).getKey()));
+        }
+        List<RankedScores.Entry> page = scores.range(40, 25);
+        for (int i = 0; i < page.size(); i++) {
+            assertEquals(sorted.get(40 + i).getKey(), page.get(i).key());
+            assertEquals((long) sorted.get(40 + i).getValue(), page.get(i).score());
+        }
+        assertEquals(0, scores.rank("nobody"));
+    }
+
+    @Test
+    void pagesTheTopOfTheBoardAndRanksTheCaller() {
+        LeaderboardService leaderboard = new LeaderboardService(mongoTemplate, 3);
+        leaderboard.record(hand("alice", 300, "bob"), MONDAY);
+        leaderboard.record(hand("bob", 100, "alice"), MONDAY);
+        leaderboard.record(hand("carol", 200), MONDAY);
+        leaderboard.record(hand("dave", 50), MONDAY);
+        leaderboard.record(hand("alice", 20, "guest-1a2b"), MONDAY);
+
+        LeaderboardPage first = leaderboard.page(LeaderboardMetric.NET_PROFIT, LeaderboardWindow.ALL_TIME,
+                2, 0, "dave", MONDAY);
+        assertEquals(List.of(new LeaderboardEntry(1, "alice", 320), new LeaderboardEntry(2, "carol", 200)),
+                first.getEntries());
+        assertEquals(2, first.getNextOffset());
+        assertEquals(4, first.getTotal());
+        // Outside the pageable top 3, but still ranked
+        assertEquals(new LeaderboardEntry(4, "dave", 50), first.getMe());
+
+        LeaderboardPage second = leaderboard.page(LeaderboardMetric.NET_PROFIT, LeaderboardWindow.ALL_TIME,
+                2, 2, "guest-1a2b", MONDAY);
+        assertEquals(List.of(new LeaderboardEntry(3, "bob", 100)), second.getEntries());
+        assertNull(second.getNextOffset());
+        assertNull(second.getMe());
+
+        LeaderboardPage wins = leaderboard.page(LeaderboardMetric.HANDS_WON, LeaderboardWindow.WEEKLY,
+                1, 0, null, MONDAY);
+        assertEquals(new LeaderboardEntry(1, "alice", 2), wins.getEntries().get(0));
+    }
+
+    @Test
+    void dailyBoardStartsOverAndSavesTheDayThatEnded() {
+        LeaderboardService leaderboard = new LeaderboardService(mongoTemplate, 100);
+        leaderboard.record(hand("alice", 300), MONDAY);
+        verify(mongoTemplate, never()).save(any(LeaderboardSnapshot.class));
+
+        OffsetDateTime tuesday = MONDAY.plusDays(1);
+        leaderboard.record(hand("bob", 100), tuesday);
+
+        assertEquals(List.of(new LeaderboardEntry(1, "bob", 100)), leaderboard.page(LeaderboardMetric.NET_PROFIT,
+                LeaderboardWindow.DAILY, null, null, "alice", tuesday).getEntries());
+        assertEquals(2, leaderboard.page(LeaderboardMetric.NET_PROFIT, LeaderboardWindow.WEEKLY,
+                null, null, null, tuesday).getTotal());
+        ArgumentCaptor<LeaderboardSnapshot> saved = ArgumentCaptor.forClass(LeaderboardSnapshot.class);
+        verify(mongoTemplate, times(2)).save(saved.capture());
+        LeaderboardSnapshot monday = saved.getAllValues().stream()
+                .filter(snapshot -> snapshot.getMetric() == LeaderboardMetric.NET_PROFIT)
+                .findFirst().orElseThrow();
+        assertEquals("NET_PROFIT:2026-10-12", monday.getId());
+        assertEquals(List.of(new LeaderboardSnapshot.Score("alice", 300)), monday.getScores());
+    }
+
+    @Test
+    void periodsAreUtcDaysAndIsoWeeks() {
+        OffsetDateTime newYear = OffsetDateTime.of(2027, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        assertEquals("2027-01-01", LeaderboardService.period(LeaderboardWindow.DAILY, newYear));
+        assertEquals("2026-W53", LeaderboardService.period(LeaderboardWindow.WEEKLY, newYear));
+        assertEquals("2026-W42", LeaderboardService.period(LeaderboardWindow.WEEKLY, MONDAY));
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.backend.service;
+
+import com.example.backend.config.MongoConfig;
+import com.example.backend.entity.GameEvent;
+import com.example.backend.model.EventDelta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedGameEventStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // Small segments so a few hundred records span several; any dead record makes a segment worth compacting
+    private MappedGameEventStore open() {
+        return new MappedGameEventStore(converter(), directory, 4096, MappedGameEventStore.FsyncPolicy.ALWAYS, 0.01);
+    }
+
+    private static GameEvent record(String gameId, long seq, String type) {
+        GameEvent record = new GameEvent();
+        record.setGameId(gameId);
+        record.setSeq(seq);
+        record.setTimestamp(OffsetDateTime.now(ZoneOffset.UTC));
+        record.setEventType(type);
+        EventDelta delta = new EventDelta();
+        delta.setAction("CHECK");
+        delta.setActor("player-" + seq);
+        delta.setPot(seq * 10.0);
+        record.setDelta(delta);
+        return record;
+    }
+
+    private static List<Long> seqs(MappedGameEventStore store, String gameId) {
+        try (Stream<GameEvent> records = store.stream(gameId, 0, Long.MAX_VALUE)) {
+            return records.map(GameEvent::getSeq).toList();
+        }
+    }
+
+    private long segmentBytes() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    @Test
+    void seeksBySeqAcrossSegmentsAndAfterReopen() {
+        MappedGameEventStore store = open();
+        for (long seq = 1; seq <= 200; seq++) {
+            assertTrue(store.append(record("g1", seq, "PlayerActionEvent")));
+            assertTrue(store.append(record("g2", seq, "PlayerActionEvent")));
+        }
+        store.close();
+
+        store = open();
+        assertEquals(200, store.lastSeq("g1"));
+        assertEquals(0, store.lastSeq("missing"));
+        List<GameEvent> range = store.range("g1", 50, 60, Integer.MAX_VALUE);
+        assertEquals(11, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            assertEquals(50 + i, range.get(i).getSeq());
+            assertEquals("g1", range.get(i).getGameId());
+            assertEquals((50 + i) * 10.0, range.get(i).getDelta().getPot());
+        }
+        assertEquals(3, store.range("g2", 198, Long.MAX_VALUE, 5).size());
+        assertEquals(2, store.range("g2", 1, Long.MAX_VALUE, 2).size());
+        try (Stream<GameEvent> tail = store.stream("g2", 150, Long.MAX_VALUE)) {
+            assertEquals(50, tail.count());
+        }
+        GameEvent found = store.findById("g1:123");
+        assertEquals(123, found.getSeq());
+        assertEquals("g1:123", found.getId());
+        store.close();
+    }
+
+    @Test
+    void cutsATornLastRecordOnReopen() throws IOException {
+        MappedGameEventStore store = open();
+        for (long seq = 1; seq <= 10; seq++) {
+            store.append(record("g1", seq, "PlayerActionEvent"));
+        }
+        store.close();
+
+        // Tear the last record as a crash mid-write would
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int position = 0;
+            int last = 0;
+            while (buffer.getInt(position) != 0) {
+                last = position;
+                position += 8 + buffer.getInt(position);
+            }
+            buffer.put(position - 3, new byte[3]);
+            buffer.force();
+            assertTrue(last > 0);
+        }
+
+        store = open();
+        assertEquals(9, store.lastSeq("g1"));
+        assertTrue(store.append(record("g1", 10, "PlayerActionEvent")));
+        store.close();
+
+        store = open();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), seqs(store, "g1"));
+        store.close();
+    }
+
+    @Test
+    void compactionDropsDeletedGamesForGood() throws IOException {
+        MappedGameEventStore store = open();
+        for (long seq = 1; seq <= 100; seq++) {
+            store.append(record("done", seq, "PlayerActionEvent"));
+            if (seq % 10 == 0) {
+                store.append(record("live", seq / 10, "PlayerActionEvent"));
+            }
+        }
+        store.append(record("done", 101, "GameDeletedEvent"));
+        // Seal the segment holding the tombstone
+        for (long seq = 11; seq <= 110; seq++) {
+            store.append(record("live", seq, "PlayerActionEvent"));
+        }
+        long before = segmentBytes();
+
+        store.compact();
+
+        assertTrue(segmentBytes() * 4 < before * 3, "segments still hold " + segmentBytes() + " of " + before + " bytes");
+        assertTrue(seqs(store, "done").isEmpty());
+        assertEquals(110, seqs(store, "live").size());
+        store.close();
+
+        store = open();
+        assertTrue(seqs(store, "done").isEmpty());
+        assertEquals(0, store.lastSeq("done"));
+        List<Long> live = seqs(store, "live");
+        assertEquals(110, live.size());
+        for (int i = 0; i < live.size(); i++) {
+            assertEquals(i + 1L, (long) live.get(i));
+        }
+        store.close();
+    }
+
+    @Test
+    void purgedGamesStayPurgedAfterReopen() {
+        MappedGameEventStore store = open();
+        for (long seq = 1; seq <= 100; seq++) {
+            store.append(record("gone", seq, "PlayerActionEvent"));
+            store.append(record("kept", seq, "PlayerActionEvent"));
+        }
+        store.purge(List.of("gone"));
+        assertTrue(seqs(store, "gone").isEmpty());
+        assertEquals(0, store.lastSeq("gone"));
+        store.close();
+
+        // The purge's tombstone brings it back, records sealed below the threshold included
+        store = open();
+        assertTrue(seqs(store, "gone").isEmpty());
+        assertEquals(0, store.lastSeq("gone"));
+        assertEquals(100, seqs(store, "kept").size());
+
+        store.compact();
+        store.close();
+
+        store = open();
+        assertTrue(seqs(store, "gone").isEmpty());
+        assertEquals(0, store.lastSeq("gone"));
+        assertEquals(100, store.lastSeq("kept"));
+        store.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.entity.User;
+import com.example.backend.event.GameEndedEvent;
+import com.example.backend.model.Player;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlayerStatsAggregatorTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final List<Query> queries = new ArrayList<>();
+    private final List<Update> updates = new ArrayList<>();
+
+    PlayerStatsAggregatorTest() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(bulk);
+        doAnswer(inv -> {
+            queries.add(inv.getArgument(0));
+            updates.add(inv.getArgument(1));
+            return bulk;
+        }).when(bulk).updateOne(any(Query.class), any(Update.class));
+    }
+
+    private static GameEndedEvent hand(String gameId, long seq, Player winner, Player... others) {
+        Game game = new Game(10, 20);
+        game.getPlayers().add(winner);
+        game.getPlayers().addAll(List.of(others));
+        GameEndedEvent event = new GameEndedEvent(gameId, game, List.of(winner), null);
+        event.setSeq(seq);
+        return event;
+    }
+
+    private static Player player(String username, double won) {
+        Player player = new Player(username, username, 1000);
+        player.setLastWinAmount(won);
+        return player;
+    }
+
+    private Document inc(int i) {
+        return updates.get(i).getUpdateObject().get("$inc", Document.class);
+    }
+
+    @Test
+    void coalescesHandsIntoOneIncrementPerUser() {
+        PlayerStatsAggregator stats = new PlayerStatsAggregator(mongoTemplate);
+        assertTrue(stats.record(hand("t1", 7, player("alice", 40), player("bob", 0), player("guest-1a2b", 0))));
+        assertTrue(stats.record(hand("t2", 3, player("bob", 25), player("alice", 0))));
+        // The same hand seen twice is only counted once
+        assertFalse(stats.record(hand("t1", 7, player("alice", 40), player("bob", 0))));
+
+        stats.flush();
+
+        verify(bulk).execute();
+        assertEquals(2, updates.size());
+        for (int i = 0; i < 2; i++) {
+            String username = queries.get(i).getQueryObject().getString("username");
+            Document inc = inc(i);
+            assertEquals(2, inc.get("handsPlayed"));
+            assertEquals(1, inc.get("handsWon"));
+            assertEquals(username.equals("alice") ? 40 : 25, inc.get("netProfit"));
+        }
+
+        stats.flush();
+        verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+    }
+
+    @Test
+    void retriesFailedUpdatesWithTheSameHands() {
+        PlayerStatsAggregator stats = new PlayerStatsAggregator(mongoTemplate);
+        stats.record(hand("t1", 1, player("alice", 40), player("bob", 0)));
+
+        BulkOperationException failure = mock(BulkOperationException.class);
+        BulkWriteError error = new BulkWriteError(91, "shutdown in progress", new BsonDocument(), 0);
+        when(failure.getErrors()).thenReturn(List.of(error));
+        when(bulk.execute()).thenThrow(failure).thenReturn(null);
+        stats.flush();
+        Query failed = queries.get(0);
+
+        // A newer hand is not folded into the retried update
+        stats.record(hand("t1", 2, player("alice", 0), player("bob", 10)));
+        queries.clear();
+        updates.clear();
+        stats.flush();
+
+        assertEquals(3, updates.size());
+        assertEquals(failed.getQueryObject(), queries.get(0).getQueryObject());
+        assertEquals(1, inc(0).get("handsPlayed"));
+        Document statsHands = queries.get(0).getQueryObject().get("statsHands", Document.class);
+        assertEquals(List.of("t1:1"), statsHands.get("$nin"));
+    }
+
+    @Test
+    void nothingToFlushWritesNothing() {
+        PlayerStatsAggregator stats = new PlayerStatsAggregator(mongoTemplate);
+        stats.flush();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(User.class));
+    }
+}
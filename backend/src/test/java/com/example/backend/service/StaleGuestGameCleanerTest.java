@@ -0,0 +1,101 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.event.GameDeletedEvent;
+import com.example.backend.model.Player;
+import com.example.backend.publisher.GameEventPublisher;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StaleGuestGameCleanerTest {
+
+    @Test
+    void guestOnlyFollowsTheSeatedPlayers() {
+        Game game = new Game(10, 20);
+        game.refreshGuestOnly();
+        assertTrue(game.isGuestOnly());
+        game.getPlayers().add(new Player("Guest", "guest-1a2b3c", 10000));
+        game.refreshGuestOnly();
+        assertTrue(game.isGuestOnly());
+        game.getPlayers().add(new Player("Alice", "alice", 1000));
+        game.refreshGuestOnly();
+        assertFalse(game.isGuestOnly());
+        game.getPlayers().removeIf(p -> p.getUsername().equals("alice"));
+        game.refreshGuestOnly();
+        assertTrue(game.isGuestOnly());
+    }
+
+    @Test
+    void deletesStaleGamesInBoundedBatches() {
+        List<String> ids = IntStream.range(0, 1203).mapToObj(i -> "game-" + i).toList();
+        Set<String> games = ConcurrentHashMap.newKeySet();
+        games.addAll(ids);
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Game.class)).thenReturn("games");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("games"))).thenAnswer(inv -> {
+            Query query = inv.getArgument(0);
+            if (query.getQueryObject().get("guestOnly") == null) {
+                return Stream.empty(); // nothing to backfill
+            }
+            return ids.stream().map(id -> new Document("_id", id));
+        });
+        List<Integer> batchSizes = new ArrayList<>();
+        when(mongoTemplate.findAllAndRemove(any(Query.class), eq(Document.class), eq("games"))).thenAnswer(inv -> {
+            Document filter = inv.getArgument(0, Query.class).getQueryObject();
+            @SuppressWarnings("unchecked")
+            Collection<String> batch = (Collection<String>) filter.get("_id", Document.class).get("$in");
+            batchSizes.add(batch.size());
+            return batch.stream().filter(games::remove).map(id -> new Document("_id", id)).toList();
+        });
+
+        GameTableRegistry gameTables = mock(GameTableRegistry.class);
+        GameService gameService = mock(GameService.class);
+        when(gameTables.isResident("game-7")).thenReturn(true);
+        when(gameService.purgeIfStale(eq("game-7"), any())).thenAnswer(inv -> games.remove("game-7"));
+        // Joined on its table since the scan, so the live copy is no longer stale
+        when(gameTables.isResident("game-8")).thenReturn(true);
+        when(gameService.purgeIfStale(eq("game-8"), any())).thenReturn(false);
+
+        GameEventPublisher eventPublisher = mock(GameEventPublisher.class);
+        List<String> published = new ArrayList<>();
+        doAnswer(inv -> {
+            GameDeletedEvent event = inv.getArgument(0, GameDeletedEvent.class);
+            // The journal's listener purges the history when it takes the event
+            assertTrue(event.isPurge());
+            return published.add(event.getGameId());
+        }).when(eventPublisher).publishEvent(any(GameDeletedEvent.class));
+
+        StaleGuestGameCleaner cleaner = new StaleGuestGameCleaner(mongoTemplate, gameTables, gameService,
+                eventPublisher, 24, 500);
+        assertEquals(1202, cleaner.cleanup());
+
+        assertEquals(Set.of("game-8"), games);
+        // game-7's and game-8's tables are resident, so they are checked on the table instead of in bulk
+        assertEquals(List.of(498, 500, 203), batchSizes);
+        assertEquals(1201, published.size());
+        assertFalse(published.contains("game-7"));
+        assertFalse(published.contains("game-8"));
+        verify(gameService).purgeIfStale(eq("game-7"), any());
+    }
+}